@@ -0,0 +1,169 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.views.HtmlWriter;
+import io.github.faimoh.todowebapp.views.Rows;
+import io.github.faimoh.todowebapp.views.TasksDashboardView;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Renders a tasks dashboard of 5000 tasks with its rows taken from
+ * TaskRowCache, as UserTasksDashboardAction does, and again with the cache
+ * turned off, so every row is rendered and escaped on every view. The tasks
+ * come from memory instead of the database, so only rendering is timed, and
+ * the page is counted and thrown away.
+ *
+ * The uncached run goes first: with the cache turned off rows are not stored,
+ * but rows already stored would still be found.
+ *
+ * It is not part of the web application. Build the application, then run it
+ * from the project directory against the compiled classes and the servlet API:
+ *
+ * javac -cp build/web/WEB-INF/classes:servlet-api.jar -d build/bench src/bench/io/github/faimoh/todowebapp/bench/*.java
+ * java -cp build/web/WEB-INF/classes:servlet-api.jar:build/bench io.github.faimoh.todowebapp.bench.DashboardRowCache [seconds] [tasks]
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class DashboardRowCache {
+
+    public static void main(String[] args) throws IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int tasks = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        ArrayList<Task> taskList = buildTasks(tasks);
+        System.out.println("tasks=" + tasks + " seconds=" + seconds);
+
+        TaskRowCache.configure(0);
+        report("uncached", tasks, time(taskList, seconds));
+
+        TaskRowCache.configure(tasks * 2);
+        report("cached", tasks, time(taskList, seconds));
+    }
+
+    private static void report(String name, int tasks, double millis) {
+        System.out.printf("%s: %.2f ms per dashboard, %.2f us per row, %.0f dashboards/s%n",
+                name, millis, millis * 1000 / tasks, 1000 / millis);
+    }
+
+    static ArrayList<Task> buildTasks(int tasks) {
+        long now = System.currentTimeMillis();
+        ArrayList<Task> taskList = new ArrayList<Task>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTaskID(100000 + i);
+            task.setAccountID(1000);
+            task.setDetails("Task " + i + ": call <the bank> about the \"urgent\" invoice & renew the passport");
+            task.setStatusID(1 + i % 3);
+            task.setPriorityID(1 + i % 3);
+            task.setCreatedAt(new Timestamp(now - i * 60000L));
+            task.setDeadline(i % 4 == 0 ? null : new Timestamp(now + i * 60000L));
+            task.setLastUpdated(new Timestamp(now - i * 30000L));
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    /*
+    The view model UserTasksDashboardAction sets, with the rows read from the
+    list instead of the database.
+    */
+    static HashMap<String, Object> model(ArrayList<Task> taskList) {
+        TaskRowCache taskRowCache = TaskRowCache.getInstance();
+        Rows taskRows = out -> {
+            for (Task task : taskList) {
+                out.raw(taskRowCache.getRow(task));
+            }
+            return true;
+        };
+        HashMap<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put("sessionUser", new AccountPrincipal(1000, "user", "Jane Doe", AccountPrincipal.ROLE_USER, 0, 0));
+        attributes.put("tagFilter", "");
+        attributes.put("taskRows", taskRows);
+        return attributes;
+    }
+
+    //Milliseconds per dashboard, averaged over the measured runs after one second of warm-up.
+    private static double time(ArrayList<Task> taskList, int seconds) throws IOException {
+        TasksDashboardView view = new TasksDashboardView();
+        HashMap<String, Object> model = model(taskList);
+        long warmUpEnd = System.nanoTime() + 1000000000L;
+        while (System.nanoTime() < warmUpEnd) {
+            render(view, model);
+        }
+        long start = System.nanoTime();
+        long end = start + seconds * 1000000000L;
+        int runs = 0;
+        long now;
+        do {
+            render(view, model);
+            runs++;
+            now = System.nanoTime();
+        } while (now < end);
+        return (now - start) / 1000000.0 / runs;
+    }
+
+    private static void render(TasksDashboardView view, HashMap<String, Object> model) throws IOException {
+        NullWriter page = new NullWriter();
+        //The same buffer size as the controller gives views.
+        HttpServletRequest request = ServletStubs.request(model);
+        HtmlWriter out = new HtmlWriter(request, ServletStubs.response(page), 8192);
+        view.render(request, out);
+        out.flush();
+    }
+
+    /*
+    Counts the characters written and throws them away.
+    */
+    static class NullWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
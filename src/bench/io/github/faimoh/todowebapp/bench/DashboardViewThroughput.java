@@ -0,0 +1,209 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.views.HtmlWriter;
+import io.github.faimoh.todowebapp.views.TasksDashboardView;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Compares the throughput of the tasks dashboard rendered by
+ * TasksDashboardView with the JSP it replaced. Both render the same tasks,
+ * with rows from a warm TaskRowCache, and the page is counted and thrown away.
+ *
+ * There is no JSP compiler outside the container, so the JSP side runs the
+ * code Jasper generates for the old dashboard.jsp, written out by hand: a
+ * JspWriter-sized 8 KB buffer, the template text, c:url through encodeURL,
+ * and c:forEach setting the page attribute row that ${row} then finds, with
+ * EL properties read by reflection the way BeanELResolver does. As before,
+ * the action first collects the rows into a list for it. It leaves out
+ * Jasper's EL parsing and tag handler pooling, so if anything it favours the
+ * JSP.
+ *
+ * It is not part of the web application. Build the application, then run it
+ * from the project directory against the compiled classes and the servlet API:
+ *
+ * javac -cp build/web/WEB-INF/classes:servlet-api.jar -d build/bench src/bench/io/github/faimoh/todowebapp/bench/*.java
+ * java -cp build/web/WEB-INF/classes:servlet-api.jar:build/bench io.github.faimoh.todowebapp.bench.DashboardViewThroughput [seconds] [tasks...]
+ *
+ * Without task counts it measures dashboards of 100 and 5000 tasks.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class DashboardViewThroughput {
+
+    private static final ConcurrentHashMap<Class<?>, HashMap<String, Method>> properties
+            = new ConcurrentHashMap<Class<?>, HashMap<String, Method>>();
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int[] taskCounts = {100, 5000};
+        if (args.length > 1) {
+            taskCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                taskCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("seconds=" + seconds);
+        for (int tasks : taskCounts) {
+            ArrayList<Task> taskList = DashboardRowCache.buildTasks(tasks);
+            TaskRowCache.configure(tasks * 2);
+            HashMap<String, Object> model = DashboardRowCache.model(taskList);
+            double viewMillis = time(() -> renderView(model), seconds);
+            double jspMillis = time(() -> renderJsp(taskList, model), seconds);
+            System.out.printf("tasks=%d: view %.3f ms (%.0f pages/s), JSP %.3f ms (%.0f pages/s)%n",
+                    tasks, viewMillis, 1000 / viewMillis, jspMillis, 1000 / jspMillis);
+        }
+    }
+
+    private static void renderView(HashMap<String, Object> model) throws IOException {
+        HttpServletRequest request = ServletStubs.request(model);
+        HtmlWriter out = new HtmlWriter(request, ServletStubs.response(new DashboardRowCache.NullWriter()), 8192);
+        new TasksDashboardView().render(request, out);
+        out.flush();
+    }
+
+    /*
+    What the JSP path did for one request: the action collected the cached rows
+    into the list the page iterated, then the generated servlet wrote the page.
+    */
+    private static void renderJsp(ArrayList<Task> taskList, HashMap<String, Object> model) throws Exception {
+        TaskRowCache taskRowCache = TaskRowCache.getInstance();
+        ArrayList<String> taskRows = new ArrayList<String>();
+        for (Task task : taskList) {
+            taskRows.add(taskRowCache.getRow(task));
+        }
+        HashMap<String, Object> attributes = new HashMap<String, Object>(model);
+        attributes.put("taskRows", taskRows);
+        HttpServletRequest request = ServletStubs.request(attributes);
+        HttpServletResponse response = ServletStubs.response(new DashboardRowCache.NullWriter());
+        HashMap<String, Object> pageScope = new HashMap<String, Object>();
+
+        Writer out = new BufferedWriter(response.getWriter(), 8192);
+        out.write("\n\n\n<!DOCTYPE html>\n<html>\n    <head>\n"
+                + "        <meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">        \n"
+                + "        <title>ToDoApp - Tasks Dashboard</title>\n    </head>\n    <body>\n"
+                + "        <h1>Tasks Dashboard</h1>\n        <p>Hello! ");
+        out.write(toString(evaluate(request, pageScope, "requestScope", "sessionUser", "displayName")));
+        out.write("</p>\n        <a href=\"");
+        out.write(response.encodeURL(request.getContextPath() + "/app/tasks/new"));
+        out.write("\">New Task</a>\n        <a href=\"");
+        out.write(response.encodeURL(request.getContextPath() + "/app/tasks/dashboard"));
+        out.write("\">Dashboard</a>  \n        <a href=\"");
+        out.write(response.encodeURL(request.getContextPath() + "/app/users/profile"));
+        out.write("\">My Profile</a>\n        <a href=\"");
+        out.write(response.encodeURL(request.getContextPath() + "/app/logout"));
+        out.write("\">Logout</a>\n        <br><br>        \n\n        <table border=\"1\">            \n"
+                + "            <thead><th>Task ID</th><th>Details</th><th>Created At</th><th>Deadline</th>\n"
+                + "            <th>Last Updated</th><th>Priority</th><th>Status</th></thead>                \n"
+                + "            \n            ");
+        Object items = evaluate(request, pageScope, "requestScope", "taskRows");
+        for (Object row : (Collection<?>) items) {
+            pageScope.put("row", row);
+            out.write(toString(evaluate(request, pageScope, "row")));
+        }
+        pageScope.remove("row");
+        out.write("\n    </table>\n</body>\n</html>\n");
+        out.flush();
+    }
+
+    /*
+    Resolves an EL expression like requestScope.sessionUser.displayName: the
+    first name from the implicit scope or by searching page then request
+    scope, the rest as bean properties.
+    */
+    private static Object evaluate(HttpServletRequest request, HashMap<String, Object> pageScope, String... names)
+            throws Exception {
+        int next = 1;
+        Object value;
+        if (names[0].equals("requestScope")) {
+            value = request.getAttribute(names[1]);
+            next = 2;
+        } else {
+            value = pageScope.containsKey(names[0]) ? pageScope.get(names[0]) : request.getAttribute(names[0]);
+        }
+        for (int i = next; i < names.length && value != null; i++) {
+            value = property(value.getClass(), names[i]).invoke(value);
+        }
+        return value;
+    }
+
+    private static Method property(Class<?> type, String name) {
+        HashMap<String, Method> getters = properties.computeIfAbsent(type, t -> {
+            HashMap<String, Method> found = new HashMap<String, Method>();
+            try {
+                for (PropertyDescriptor descriptor : Introspector.getBeanInfo(t).getPropertyDescriptors()) {
+                    found.put(descriptor.getName(), descriptor.getReadMethod());
+                }
+            } catch (IntrospectionException e) {
+                throw new IllegalStateException(e);
+            }
+            return found;
+        });
+        return getters.get(name);
+    }
+
+    //EL turns null into an empty string.
+    private static String toString(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    //Milliseconds per page, averaged over the measured runs after one second of warm-up.
+    private static double time(Page page, int seconds) throws Exception {
+        long warmUpEnd = System.nanoTime() + 1000000000L;
+        while (System.nanoTime() < warmUpEnd) {
+            page.render();
+        }
+        long start = System.nanoTime();
+        long end = start + seconds * 1000000000L;
+        int runs = 0;
+        long now;
+        do {
+            page.render();
+            runs++;
+            now = System.nanoTime();
+        } while (now < end);
+        return (now - start) / 1000000.0 / runs;
+    }
+
+    private interface Page {
+        void render() throws Exception;
+    }
+}
@@ -0,0 +1,111 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import io.github.faimoh.todowebapp.security.PasswordHasher;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many logins per second PasswordHasher verifies, in total and
+ * per core, at each iteration count. For every count the hasher is configured
+ * with one thread per core, as in web.xml. Two client threads per core then
+ * keep calling verify() with the right password, the same call LoginAction
+ * makes, for the given number of seconds. The first second of each count is
+ * warm-up and is not counted.
+ *
+ * It is not part of the web application. Build the application, then run it
+ * from the project directory against the compiled classes:
+ *
+ * javac -cp build/web/WEB-INF/classes -d build/bench src/bench/io/github/faimoh/todowebapp/bench/PasswordHashThroughput.java
+ * java -cp build/web/WEB-INF/classes:build/bench io.github.faimoh.todowebapp.bench.PasswordHashThroughput [seconds] [iterations...]
+ *
+ * Without iteration counts it measures 100000, 310000 (the default in
+ * web.xml) and 600000. Logins per second per core fall in proportion to the
+ * iteration count, so one measurement is enough to pick a count for a target
+ * login rate.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class PasswordHashThroughput {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int[] iterationCounts = {100000, 310000, 600000};
+        if (args.length > 1) {
+            iterationCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                iterationCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("cores=" + cores + " seconds=" + seconds);
+        for (int iterations : iterationCounts) {
+            //Two clients per core keep every hashing thread busy; the queue holds all of them, so none is rejected.
+            int clients = cores * 2;
+            PasswordHasher.configure(iterations, cores, clients, 60);
+            PasswordHasher passwordHasher = PasswordHasher.getInstance();
+            String storedPassword = passwordHasher.hash(PASSWORD);
+            double loginsPerSecond = measure(passwordHasher, storedPassword, clients, seconds);
+            System.out.printf("iterations=%d: %.1f logins/s, %.1f logins/s per core, %.1f ms per login%n",
+                    iterations, loginsPerSecond, loginsPerSecond / cores, 1000.0 * cores / loginsPerSecond);
+            passwordHasher.shutdown();
+        }
+    }
+
+    private static double measure(PasswordHasher passwordHasher, String storedPassword, int clients, int seconds)
+            throws InterruptedException {
+        AtomicLong logins = new AtomicLong();
+        long warmUpEnd = System.nanoTime() + 1000000000L;
+        long end = warmUpEnd + seconds * 1000000000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread client = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        if (!passwordHasher.verify(PASSWORD, storedPassword)) {
+                            throw new IllegalStateException("The password didn't verify.");
+                        }
+                        if (System.nanoTime() > warmUpEnd) {
+                            logins.incrementAndGet();
+                        }
+                    }
+                } catch (RejectedExecutionException e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            });
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+        return (double) logins.get() / seconds;
+    }
+}
@@ -0,0 +1,95 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Just enough of a request and a response to render a view outside a
+ * container. The request has the given attributes and the context path
+ * /todo; the response writes to the given writer and leaves URLs as they are.
+ * Any other method returns null, 0 or false.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+class ServletStubs {
+
+    private ServletStubs() {
+
+    }
+
+    static HttpServletRequest request(Map<String, Object> attributes) {
+        HashMap<String, Object> requestAttributes = new HashMap<String, Object>(attributes);
+        return (HttpServletRequest) Proxy.newProxyInstance(ServletStubs.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return requestAttributes.get((String) args[0]);
+                        case "setAttribute":
+                            requestAttributes.put((String) args[0], args[1]);
+                            return null;
+                        case "getContextPath":
+                            return "/todo";
+                        default:
+                            return empty(method.getReturnType());
+                    }
+                });
+    }
+
+    static HttpServletResponse response(Writer out) {
+        PrintWriter writer = new PrintWriter(out);
+        return (HttpServletResponse) Proxy.newProxyInstance(ServletStubs.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "encodeURL":
+                            return args[0];
+                        default:
+                            return empty(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object empty(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
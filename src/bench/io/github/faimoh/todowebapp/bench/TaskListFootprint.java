@@ -0,0 +1,134 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskList;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+
+/**
+ * Measures the heap taken by a list of tasks held as ArrayList&lt;Task&gt; and
+ * as TaskList. Every task shares one details string, so only what the list
+ * itself adds is counted. Each list is built, the heap is measured after
+ * garbage collection with and without it, and the difference is divided by
+ * the number of tasks.
+ *
+ * It is not part of the web application. Build the application, then run it
+ * from the project directory against the compiled classes:
+ *
+ * javac -cp build/web/WEB-INF/classes -d build/bench src/bench/io/github/faimoh/todowebapp/bench/TaskListFootprint.java
+ * java -Xmx1g -cp build/web/WEB-INF/classes:build/bench io.github.faimoh.todowebapp.bench.TaskListFootprint [tasks] [runs]
+ *
+ * The first run includes warm-up and is usually off. The numbers depend on the
+ * JVM; with compressed object pointers a task takes about 150 to 170 bytes as
+ * a Task and about 35 to 40 in a TaskList.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskListFootprint {
+
+    private static final String DETAILS = "Shared details";
+
+    public static void main(String[] args) {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.println("tasks=" + tasks + " runs=" + runs);
+        for (int run = 1; run <= runs; run++) {
+            long before = usedHeap();
+            ArrayList<Task> taskObjects = buildTaskObjects(tasks);
+            long objectBytes = usedHeap() - before;
+            keep(taskObjects);
+            taskObjects = null;
+
+            before = usedHeap();
+            TaskList taskList = buildTaskList(tasks);
+            long listBytes = usedHeap() - before;
+            keep(taskList);
+            taskList = null;
+
+            System.out.printf("run %d: ArrayList<Task> %.1f bytes/task, TaskList %.1f bytes/task%n",
+                    run, (double) objectBytes / tasks, (double) listBytes / tasks);
+        }
+    }
+
+    private static ArrayList<Task> buildTaskObjects(int tasks) {
+        long now = System.currentTimeMillis();
+        ArrayList<Task> taskObjects = new ArrayList<Task>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTaskID(100000 + i);
+            task.setAccountID(100000 + i % 1000);
+            task.setDetails(DETAILS);
+            task.setStatusID(1 + i % 3);
+            task.setPriorityID(1 + i % 3);
+            task.setCreatedAt(new Timestamp(now - i * 1000L));
+            task.setDeadline(new Timestamp(now + i * 1000L));
+            task.setLastUpdated(new Timestamp(now - i * 500L));
+            taskObjects.add(task);
+        }
+        return taskObjects;
+    }
+
+    private static TaskList buildTaskList(int tasks) {
+        long now = System.currentTimeMillis();
+        TaskList taskList = new TaskList(tasks);
+        for (int i = 0; i < tasks; i++) {
+            //The Timestamps are garbage once added, so they are not counted.
+            taskList.add(100000 + i, 100000 + i % 1000, DETAILS, 1 + i % 3, 1 + i % 3,
+                    new Timestamp(now - i * 1000L), new Timestamp(now + i * 1000L), new Timestamp(now - i * 500L));
+        }
+        return taskList;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        //Collect until the heap stops shrinking, so garbage left from building is gone.
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    //Keeps the list reachable until it has been measured.
+    private static void keep(Object list) {
+        if (list.hashCode() == 42) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.bench;
+
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.CborWriter;
+import io.github.faimoh.todowebapp.serialization.JsonWriter;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the size and encode speed of a task list written as JSON and as
+ * CBOR, the way ApiListTasksAction writes it: TaskSerializer through a
+ * JsonWriter over a buffered UTF-8 writer, like the container's, or through a CborWriter over the byte
+ * stream. The output is counted and thrown away, so only encoding is timed.
+ * The size is also given gzipped, as CompressionFilter would send it.
+ *
+ * The tasks have details of 20 to 80 characters, some with characters JSON
+ * has to escape, and two tags each. Each list is encoded repeatedly for
+ * the given number of seconds after one second of warm-up.
+ *
+ * It is not part of the web application. Build the application, then run it
+ * from the project directory against the compiled classes:
+ *
+ * javac -cp build/web/WEB-INF/classes -d build/bench src/bench/io/github/faimoh/todowebapp/bench/TaskWireFormats.java
+ * java -cp build/web/WEB-INF/classes:build/bench io.github.faimoh.todowebapp.bench.TaskWireFormats [seconds] [tasks...]
+ *
+ * Without task counts it measures lists of 1000 and 100000 tasks.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskWireFormats {
+
+    private static final String[] WORDS = {"Call", "the", "bank", "about", "\"urgent\"", "invoice", "&", "renew",
+        "passport", "before", "<Friday>", "review", "pull", "request", "buy", "milk"};
+
+    public static void main(String[] args) throws IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int[] taskCounts = {1000, 100000};
+        if (args.length > 1) {
+            taskCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                taskCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("seconds=" + seconds);
+        for (int tasks : taskCounts) {
+            ArrayList<Task> taskList = buildTasks(tasks);
+            for (boolean isCbor : new boolean[]{false, true}) {
+                long bytes = encode(taskList, isCbor, new CountingOutputStream());
+                CountingOutputStream gzipped = new CountingOutputStream();
+                GZIPOutputStream gzip = new GZIPOutputStream(gzipped);
+                encode(taskList, isCbor, gzip);
+                gzip.finish();
+                double millis = time(taskList, isCbor, seconds);
+                System.out.printf("tasks=%d %s: %d bytes (%.1f per task), %d gzipped, %.2f ms per list, %.0f tasks/ms%n",
+                        tasks, isCbor ? "CBOR" : "JSON", bytes, (double) bytes / tasks, gzipped.count,
+                        millis, tasks / millis);
+            }
+        }
+    }
+
+    private static ArrayList<Task> buildTasks(int tasks) {
+        long now = System.currentTimeMillis();
+        ArrayList<Task> taskList = new ArrayList<Task>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTaskID(100000 + i);
+            task.setAccountID(1000 + i % 50);
+            StringBuilder details = new StringBuilder();
+            for (int word = i; details.length() < 20 + i % 60; word += 7) {
+                details.append(WORDS[word % WORDS.length]).append(' ');
+            }
+            task.setDetails(details.toString().trim());
+            task.setStatusID(1 + i % 3);
+            task.setPriorityID(1 + i % 3);
+            task.setCreatedAt(new Timestamp(now - i * 60000L));
+            task.setDeadline(i % 4 == 0 ? null : new Timestamp(now + i * 60000L));
+            task.setLastUpdated(new Timestamp(now - i * 30000L));
+            ArrayList<String> tags = new ArrayList<String>();
+            tags.add(i % 2 == 0 ? "work" : "home");
+            tags.add("tag" + i % 20);
+            task.setTags(tags);
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    //Writes the list as ApiListTasksAction does and returns the bytes written.
+    private static long encode(ArrayList<Task> taskList, boolean isCbor, OutputStream out) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream(out);
+        StructuredWriter writer = isCbor ? new CborWriter(counter)
+                : new JsonWriter(new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8), 8192));
+        writer.beginObject().name("tasks").beginArray();
+        for (Task task : taskList) {
+            TaskSerializer.write(writer, task);
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return counter.count;
+    }
+
+    //Milliseconds per list, averaged over the measured runs.
+    private static double time(ArrayList<Task> taskList, boolean isCbor, int seconds) throws IOException {
+        long warmUpEnd = System.nanoTime() + 1000000000L;
+        while (System.nanoTime() < warmUpEnd) {
+            encode(taskList, isCbor, null);
+        }
+        long start = System.nanoTime();
+        long end = start + seconds * 1000000000L;
+        int runs = 0;
+        long now;
+        do {
+            encode(taskList, isCbor, null);
+            runs++;
+            now = System.nanoTime();
+        } while (now < end);
+        return (now - start) / 1000000.0 / runs;
+    }
+
+    /*
+    Counts what is written and passes it on, or throws it away if there is
+    nowhere to pass it.
+    */
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream out;
+        long count;
+
+        CountingOutputStream() {
+            this(null);
+        }
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+            if (out != null) {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count += len;
+            if (out != null) {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+    }
+}
@@ -43,13 +43,29 @@ public class ActionFactory {
             put(new String("POST/admin/accounts/create"), new AdminCreateAccountAction());
             put(new String("GET/admin/accounts/details"), new AdminReadAccountDetailsAction());
             put(new String("POST/admin/accounts/update"), new AdminUpdateAccountAction());
+            put(new String("GET/admin/sessions/dashboard"), new AdminSessionsDashboardAction());
+            put(new String("POST/admin/sessions/revoke"), new AdminRevokeSessionsAction());
+            put(new String("GET/admin/analytics/logins"), new AdminLoginAnalyticsAction());
+            put(new String("GET/admin/reports/tasks"), new AdminTaskReportsAction());
             put(new String("GET/tasks/dashboard"), new UserTasksDashboardAction());
+            put(new String("GET/tasks/stream"), new UserTaskStreamAction());
+            put(new String("GET/tasks/archive"), new UserTasksArchiveAction());
+            put(new String("GET/tasks/search"), new UserSearchTasksAction());
             put(new String("GET/tasks/new"), new UserNewTaskFormAction());
             put(new String("GET/tasks/details"), new UserReadTaskDetailsAction());
             put(new String("POST/tasks/create"), new UserCreateTaskAction());
-            put(new String("POST/tasks/update"), new UserUpdateTaskAction());            
+            put(new String("POST/tasks/update"), new UserUpdateTaskAction());
+            put(new String("POST/tasks/delete"), new UserDeleteTaskAction());
+            put(new String("POST/tasks/clear"), new UserClearCompletedTasksAction());            
             put(new String("GET/users/profile"), new UserReadProfileAction());  
             put(new String("POST/users/update"), new UserUpdateProfileAction()); 
+            put(new String("GET/api/tasks"), new ApiListTasksAction());
+            put(new String("GET/api/tasks/details"), new ApiReadTaskAction());
+            put(new String("GET/api/tasks/changes"), new ApiTaskChangesAction());
+            put(new String("GET/api/tasks/search"), new ApiSearchTasksAction());
+            put(new String("POST/api/tasks/create"), new ApiCreateTaskAction());
+            put(new String("POST/api/tasks/update"), new ApiUpdateTaskAction());
+            put(new String("POST/api/tasks/bulk"), new ApiBulkTasksAction());
         }
     ;
     };
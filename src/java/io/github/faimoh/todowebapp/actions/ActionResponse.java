@@ -30,7 +30,10 @@ package io.github.faimoh.todowebapp.actions;
  * Servlet API provides us methods like forward, redirect and include to work with
  * the response that our web application sends back to the client. We also have viewPath
  * to collect the path of the resource to whom the request should be handed over to. For
- * example JSP, HTML or another servlet etc.
+ * example JSP, HTML or another servlet etc. The method "write" means the action has
+ * already written the response itself and there is nothing left to hand over.
+ * The method "render" names a View from the ViewFactory in viewPath, which
+ * the controller renders in place of a JSP.
  * 
  * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  */
@@ -25,7 +25,7 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountList;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import java.util.*;
@@ -45,10 +45,10 @@ public class AdminAccountsDashboardAction implements Action {
         try {
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             AccountDAO accountDAO = daoFactory.getAccountDAO();
-            ArrayList<Account> accountsList = accountDAO.getAllAccounts();
+            AccountList accountsList = accountDAO.getAccountList();
             request.setAttribute("accountsList", accountsList);
-            this.actionResponse.setMethod("forward");
-            this.actionResponse.setViewPath("/WEB-INF/pages/admin/accounts/dashboard.jsp");
+            this.actionResponse.setMethod("render");
+            this.actionResponse.setViewPath("admin/accounts/dashboard");
             return this.actionResponse;
         } catch (Exception e) {
             e.printStackTrace();
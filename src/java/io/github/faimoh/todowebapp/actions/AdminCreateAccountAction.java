@@ -28,6 +28,7 @@ package io.github.faimoh.todowebapp.actions;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -83,7 +84,16 @@ public class AdminCreateAccountAction implements Action {
                 newAccount.setLastName(lastName);
                 boolean isAccountCreated = accountDAO.insertAccount(newAccount);
                 if (isAccountCreated) {
-                    message = "Successfully created a new account.<br> Create another account:";
+                    //New accounts start as normal users. An admin can grant more roles on the details page.
+                    Account createdAccount = accountDAO.findAccount(username);
+                    boolean isRoleGranted = createdAccount != null
+                            && daoFactory.getRoleDAO().updateAccountRoles(createdAccount.getAccountID(), AccountPrincipal.ROLE_USER);
+                    if (isRoleGranted) {
+                        message = "Successfully created a new account.<br> Create another account:";
+                    } else {
+                        //Without a role the account could only reach its profile page.
+                        message = "Technical error. The account was created without roles. Please set them on its details page.";
+                    }
                     request.setAttribute("message", message);
                     this.actionResponse.setMethod("forward");
                     this.actionResponse.setViewPath("/WEB-INF/pages/admin/accounts/createAccountResult.jsp");
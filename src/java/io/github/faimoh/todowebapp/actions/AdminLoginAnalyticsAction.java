@@ -0,0 +1,79 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.analytics.LoginAnalytics;
+import io.github.faimoh.todowebapp.model.LoginStats;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Shows logins, active users and session lengths per minute for the last
+ * hour, per hour for the last two days and per day for the last 30 days, all
+ * read from LoginAnalytics.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AdminLoginAnalyticsAction implements Action {
+
+    private static final int HOURS_SHOWN = 48;
+
+    private ActionResponse actionResponse = new ActionResponse();
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        try {
+            LoginAnalytics loginAnalytics = LoginAnalytics.getInstance();
+            ArrayList<LoginStats> minuteStats = loginAnalytics.getMinuteStats();
+            ArrayList<LoginStats> hourlyStats = loginAnalytics.getHourlyStats(HOURS_SHOWN);
+            ArrayList<LoginStats> dailyStats = loginAnalytics.getDailyStats(LoginAnalytics.DAYS);
+            request.setAttribute("minuteStats", minuteStats);
+            request.setAttribute("hourlyStats", hourlyStats);
+            request.setAttribute("dailyStats", dailyStats);
+            //The bars of each chart are drawn as a share of its busiest period.
+            request.setAttribute("minuteMax", getMaxLogins(minuteStats));
+            request.setAttribute("hourlyMax", getMaxLogins(hourlyStats));
+            request.setAttribute("dailyMax", getMaxLogins(dailyStats));
+            request.setAttribute("activeAccounts", SessionRegistry.getInstance().getActiveAccountsCount());
+            this.actionResponse.setMethod("forward");
+            this.actionResponse.setViewPath("/WEB-INF/pages/admin/analytics/logins.jsp");
+            return this.actionResponse;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return this.actionResponse;
+    }
+
+    private static int getMaxLogins(ArrayList<LoginStats> stats) {
+        int max = 1;
+        for (LoginStats loginStats : stats) {
+            max = Math.max(max, Math.max(loginStats.getLogins(), loginStats.getActiveUsers()));
+        }
+        return max;
+    }
+}
@@ -25,6 +25,7 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
+import io.github.faimoh.todowebapp.cache.TaskStatsCache;
 import io.github.faimoh.todowebapp.model.Account;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
@@ -59,6 +60,8 @@ public class AdminReadAccountDetailsAction implements Action {
                     request.setAttribute("message", message);
                 } else {
                     request.setAttribute("account", account);
+                    request.setAttribute("taskStats", TaskStatsCache.getInstance().getTaskStats(id));
+                    Utilities.setRolesAttributes(request, id);
                 }
             }
             this.actionResponse.setMethod("forward");
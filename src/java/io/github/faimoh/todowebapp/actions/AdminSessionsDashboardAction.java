@@ -0,0 +1,64 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.model.AccountSession;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists the live sessions held in the SessionRegistry. An optional 'id'
+ * parameter restricts the list to one account.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AdminSessionsDashboardAction implements Action {
+
+    private ActionResponse actionResponse = new ActionResponse();
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        try {
+            int accountID = Utilities.parseWithDefault(request.getParameter("id"), 0);
+            SessionRegistry sessionRegistry = SessionRegistry.getInstance();
+            ArrayList<AccountSession> sessionsList;
+            if (accountID == 0) {
+                sessionsList = sessionRegistry.getActiveSessions();
+            } else {
+                sessionsList = sessionRegistry.getActiveSessions(accountID);
+            }
+            request.setAttribute("sessionsList", sessionsList);
+            this.actionResponse.setMethod("forward");
+            this.actionResponse.setViewPath("/WEB-INF/pages/admin/sessions/dashboard.jsp");
+            return this.actionResponse;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return this.actionResponse;
+    }
+}
@@ -27,10 +27,16 @@ package io.github.faimoh.todowebapp.actions;
 
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.RoleDAO;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.security.AccountGrants;
+import io.github.faimoh.todowebapp.security.PasswordHasher;
+import io.github.faimoh.todowebapp.security.Permissions;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import java.util.concurrent.RejectedExecutionException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 /**
  *
@@ -87,23 +93,49 @@ public class AdminUpdateAccountAction implements Action {
                 if (password == null) {
                     isAccountUpdated = accountDAO.updateAccount(accountToUpdate, false);
                 } else {
-                    isAccountUpdated = accountDAO.updateAccount(accountToUpdate, true);
+                    //The default password is stored hashed, like every other.
+                    try {
+                        accountToUpdate.setPassword(PasswordHasher.getInstance().hash(PasswordHasher.DEFAULT_PASSWORD));
+                        isAccountUpdated = accountDAO.updateAccount(accountToUpdate, true);
+                    } catch (RejectedExecutionException | IllegalStateException e) {
+                        isAccountUpdated = false;
+                    }
                 }
                 if (isAccountUpdated) {
                     message = "Successfully updated the account.";
+                    //Read before revoking, which invalidates the session if admin updated his own account.
+                    AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+                    //A disabled account or a reset password must not keep its existing sessions.
+                    if (accountToUpdate.getStatusID() == 2 || password != null) {
+                        SessionRegistry.getInstance().revoke(accountToUpdate.getAccountID());
+                    }
+                    /*
+                    Roles are only changed by someone allowed to assign them, and never on
+                    their own account, so an admin can't lock themselves out.
+                    */
+                    if (sessionUser.hasPermission(Permissions.ROLES_ASSIGN)
+                            && accountToUpdate.getAccountID().intValue() != sessionUser.getAccountID()
+                            && request.getParameter("rolesShown") != null) {
+                        RoleDAO roleDAO = daoFactory.getRoleDAO();
+                        if (roleDAO.updateAccountRoles(accountToUpdate.getAccountID(), Utilities.parseRoles(request.getParameterValues("roles")))) {
+                            AccountGrants.getInstance().changed(accountToUpdate.getAccountID());
+                        } else {
+                            message = "Updated the account, but not its roles. Please try again.";
+                        }
+                    }
                     //Maybe admin has updated his own account.
-                    Account sessionUser = (Account) request.getSession(false).getAttribute("account");
-                    if (accountToUpdate.getAccountID() == sessionUser.getAccountID()) {
-                        sessionUser.setFirstName(accountToUpdate.getFirstName());
-                        sessionUser.setLastName(accountToUpdate.getLastName());
+                    if (accountToUpdate.getAccountID().intValue() == sessionUser.getAccountID()) {
+                        Utilities.updateSessionUser(request, response, sessionUser.withDisplayName(accountToUpdate.getFirstName()));
                     }
                     request.setAttribute("account", accountToUpdate);
+                    Utilities.setRolesAttributes(request, accountToUpdate.getAccountID());
                     request.setAttribute("message", message);
                     this.actionResponse.setMethod("forward");
                     this.actionResponse.setViewPath("/WEB-INF/pages/admin/accounts/updateAccountResult.jsp");
                 } else {
                     message = "Technical error. Please try again.";                   
                     request.setAttribute("account", accountToUpdate);
+                    Utilities.setRolesAttributes(request, accountToUpdate.getAccountID());
                     request.setAttribute("message", message);
                     this.actionResponse.setMethod("forward");
                     this.actionResponse.setViewPath("/WEB-INF/pages/admin/accounts/updateAccountResult.jsp");
@@ -0,0 +1,120 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.serialization.JsonReader;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * POST /api/tasks/bulk with a JSON array of tasks. Tasks without a taskID are
+ * created, the others are replaced as a whole, so updates must carry details,
+ * statusID and priorityID. Creates and updates each run as one batch. Answers
+ * with the IDs created, updated and not found.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiBulkTasksAction implements Action {
+
+    private static final int MAX_TASKS = 1000;
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        ArrayList<Task> toCreate = new ArrayList<Task>();
+        ArrayList<Task> toUpdate = new ArrayList<Task>();
+        try {
+            JsonReader reader = ApiUtilities.readJson(request);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (toCreate.size() + toUpdate.size() == MAX_TASKS) {
+                    return ApiUtilities.error(request, response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                            "At most " + MAX_TASKS + " tasks per request.");
+                }
+                Task task = TaskSerializer.read(reader);
+                task.setAccountID(sessionUser.getAccountID());
+                if (task.getTaskID() == null) {
+                    task.setStatusID(TaskStatus.TODO.getID());
+                    if (task.getPriorityID() == null) {
+                        task.setPriorityID(TaskPriority.IMPORTANT_URGENT.getID());
+                    }
+                    toCreate.add(task);
+                } else {
+                    toUpdate.add(task);
+                }
+                String problem = ApiUtilities.validate(task);
+                if (problem != null) {
+                    return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST,
+                            "Task " + (toCreate.size() + toUpdate.size()) + ": " + problem);
+                }
+            }
+            reader.endArray();
+        } catch (IllegalArgumentException e) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Malformed JSON: " + e.getMessage());
+        }
+
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        if (!toCreate.isEmpty() && !taskDAO.insertTasks(toCreate)) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+        }
+        int[] counts = toUpdate.isEmpty() ? new int[0] : taskDAO.updateTasks(toUpdate);
+        if (counts == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+        }
+
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        writer.beginObject().name("created").beginArray();
+        for (Task task : toCreate) {
+            writer.value(task.getTaskID());
+        }
+        writer.endArray().name("updated").beginArray();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                writer.value(toUpdate.get(i).getTaskID());
+            }
+        }
+        //Missing and other people's tasks look the same, as in the other actions.
+        writer.endArray().name("notFound").beginArray();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                writer.value(toUpdate.get(i).getTaskID());
+            }
+        }
+        writer.endArray().endObject();
+        writer.flush();
+        return ApiUtilities.written();
+    }
+}
@@ -0,0 +1,78 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * POST /api/tasks/create with a JSON task in the body. Answers 201 with the
+ * task as stored.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiCreateTaskAction implements Action {
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        Task task;
+        try {
+            task = TaskSerializer.read(ApiUtilities.readJson(request));
+        } catch (IllegalArgumentException e) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Malformed JSON: " + e.getMessage());
+        }
+        //New tasks always start as 'not started'.
+        task.setTaskID(null);
+        task.setStatusID(TaskStatus.TODO.getID());
+        task.setAccountID(sessionUser.getAccountID());
+        if (task.getPriorityID() == null) {
+            task.setPriorityID(TaskPriority.IMPORTANT_URGENT.getID());
+        }
+        String problem = ApiUtilities.validate(task);
+        if (problem != null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, problem);
+        }
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        if (!taskDAO.insertTask(task) || task.getTaskID() == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+        }
+        Task created = taskDAO.findTask(task.getTaskID());
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_CREATED);
+        TaskSerializer.write(writer, created == null ? task : created);
+        writer.flush();
+        return ApiUtilities.written();
+    }
+}
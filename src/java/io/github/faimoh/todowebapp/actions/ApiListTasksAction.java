@@ -0,0 +1,128 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET /api/tasks[?includeArchived=true][&after=token]. Writes a page of up to
+ * ApiUtilities.PAGE_SIZE of the user's tasks with their tags, in task ID
+ * order, and if there are more, the token to pass as after for the next page.
+ * With includeArchived=true the archived tasks follow the live ones. A task
+ * archived while the pages are fetched may come twice, but none is missed.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiListTasksAction implements Action {
+
+    private static final String LIVE_PREFIX = "l";
+    private static final String ARCHIVED_PREFIX = "a";
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+
+        int accountID = sessionUser.getAccountID();
+        boolean includeArchived = "true".equals(request.getParameter("includeArchived"));
+        //The token is "l" or "a", for live or archived tasks, and the last task ID sent.
+        String after = request.getParameter("after");
+        boolean isArchived = false;
+        int afterTaskID = 0;
+        if (after != null && !after.isEmpty()) {
+            isArchived = after.startsWith(ARCHIVED_PREFIX);
+            afterTaskID = parseTaskID(after);
+            if (afterTaskID < 0 || (isArchived && !includeArchived)) {
+                return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid after token.");
+            }
+        }
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        String next = null;
+        if (!isArchived) {
+            ArrayList<Task> page = taskDAO.getTasksPage(accountID, false, afterTaskID, ApiUtilities.PAGE_SIZE);
+            if (page == null) {
+                return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+            }
+            tasks.addAll(page);
+            if (page.size() == ApiUtilities.PAGE_SIZE) {
+                next = LIVE_PREFIX + page.get(page.size() - 1).getTaskID();
+            } else if (includeArchived) {
+                //Fill the rest of the page with archived tasks.
+                isArchived = true;
+                afterTaskID = 0;
+            }
+        }
+        if (isArchived && next == null) {
+            int limit = ApiUtilities.PAGE_SIZE - tasks.size();
+            ArrayList<Task> page = taskDAO.getTasksPage(accountID, true, afterTaskID, limit);
+            if (page == null) {
+                return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+            }
+            tasks.addAll(page);
+            if (page.size() == limit) {
+                next = ARCHIVED_PREFIX + page.get(page.size() - 1).getTaskID();
+            }
+        }
+
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        writer.beginObject().name("tasks").beginArray();
+        for (Task task : tasks) {
+            TaskSerializer.write(writer, task);
+        }
+        writer.endArray();
+        if (next != null) {
+            writer.name("next").value(next);
+        }
+        writer.endObject();
+        writer.flush();
+        return ApiUtilities.written();
+    }
+
+    /*
+    Returns the task ID in the token, or -1 if it isn't one of ours.
+    */
+    private static int parseTaskID(String token) {
+        if (!token.startsWith(LIVE_PREFIX) && !token.startsWith(ARCHIVED_PREFIX)) {
+            return -1;
+        }
+        try {
+            int taskID = Integer.parseInt(token.substring(1));
+            return taskID >= 0 ? taskID : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
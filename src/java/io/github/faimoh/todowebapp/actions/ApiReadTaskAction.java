@@ -0,0 +1,63 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET /api/tasks/details?id=N
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiReadTaskAction implements Action {
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        int taskID = Utilities.parseWithDefault(request.getParameter("id"), 0);
+        if (taskID == 0) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid task ID.");
+        }
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        Task task = taskDAO.findTask(taskID);
+        //Someone else's task is reported as missing, so task IDs can't be probed.
+        if (task == null || task.getAccountID().intValue() != sessionUser.getAccountID()) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_NOT_FOUND, "No such task exists.");
+        }
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        TaskSerializer.write(writer, task);
+        writer.flush();
+        return ApiUtilities.written();
+    }
+}
@@ -0,0 +1,67 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET /api/tasks/search?q=words. The same search as the search page, as a
+ * JSON array of tasks, best matches first. The last word may be incomplete,
+ * so it works for search-as-you-type.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiSearchTasksAction implements Action {
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        String query = request.getParameter("q");
+        if (query == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Missing q.");
+        }
+        ArrayList<Task> tasks = UserSearchTasksAction.searchTasks(sessionUser.getAccountID(), query);
+        if (tasks == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Technical error. Please try again later.");
+        }
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        writer.beginObject().name("tasks").beginArray();
+        for (Task task : tasks) {
+            TaskSerializer.write(writer, task);
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return ApiUtilities.written();
+    }
+}
@@ -0,0 +1,139 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.jobs.TaskPurger;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET /api/tasks/changes?since=token. Writes the user's tasks created or
+ * updated since the token was handed out, the IDs of the tasks deleted since
+ * then, and a new token for the next call. Without since, all tasks are
+ * written, which is how a client starts. Deleted tasks are only remembered
+ * until the TaskPurger removes them, so an older token gets 410 Gone and the
+ * client has to start over.
+ *
+ * At most ApiUtilities.PAGE_SIZE changes are answered at a time, read before
+ * any is written. If there are more, more is true and the token points just
+ * past the last change sent, so the client calls again with it right away.
+ *
+ * The token is the time the changes were read up to, moved back by
+ * SYNC_MARGIN_MILLIS. A change written just before the read, but committed
+ * just after it or stamped by a node with a slightly different clock, is
+ * therefore not missed. Tasks changed within the margin are sent again on the
+ * next call, so clients must treat the list as upserts by taskID.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiTaskChangesAction implements Action {
+
+    private static final long SYNC_MARGIN_MILLIS = 5000;
+    private static final String TOKEN_PREFIX = "c";
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        long[] position = parseToken(request.getParameter("since"));
+        if (position == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid since token.");
+        }
+        long since = position[0];
+        if (since > 0 && since < System.currentTimeMillis() - TaskPurger.getInstance().getDelayMillis()) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_GONE, "Token expired. Sync again without since.");
+        }
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        long next = Math.max(since, System.currentTimeMillis() - SYNC_MARGIN_MILLIS);
+
+        ArrayList<Task> changes = taskDAO.getTasksChangedSince(sessionUser.getAccountID(), new Timestamp(since),
+                (int) position[1], ApiUtilities.PAGE_SIZE);
+        if (changes == null) {
+            //The client asks again with the same token.
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+        }
+        boolean hasMore = changes.size() == ApiUtilities.PAGE_SIZE;
+        String token = TOKEN_PREFIX + Long.toString(next, 36);
+        if (hasMore) {
+            Task last = changes.get(changes.size() - 1);
+            Timestamp changedAt = last.getLastUpdated() != null ? last.getLastUpdated() : last.getCreatedAt();
+            token = TOKEN_PREFIX + Long.toString(changedAt.getTime(), 36) + "." + Integer.toString(last.getTaskID(), 36);
+        }
+
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        writer.beginObject().name("tasks").beginArray();
+        for (Task task : changes) {
+            if (task.getDeletedAt() == null) {
+                TaskSerializer.write(writer, task);
+            }
+        }
+        writer.endArray();
+        writer.name("deleted").beginArray();
+        for (Task task : changes) {
+            if (task.getDeletedAt() != null) {
+                writer.value(task.getTaskID());
+            }
+        }
+        writer.endArray();
+        writer.name("more").value(hasMore);
+        writer.name("token").value(token);
+        writer.endObject();
+        writer.flush();
+        return ApiUtilities.written();
+    }
+
+    /*
+    Returns the time in the token and the ID of the task after which to go on
+    at that time, {0, 0} for no token, or null if it isn't one of ours.
+    */
+    private static long[] parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return new long[]{0, 0};
+        }
+        if (!token.startsWith(TOKEN_PREFIX)) {
+            return null;
+        }
+        String[] parts = token.substring(TOKEN_PREFIX.length()).split("\\.", -1);
+        if (parts.length > 2) {
+            return null;
+        }
+        try {
+            long since = Long.parseLong(parts[0], 36);
+            long afterTaskID = parts.length == 2 ? Integer.parseInt(parts[1], 36) : 0;
+            return since >= 0 && afterTaskID >= 0 ? new long[]{since, afterTaskID} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
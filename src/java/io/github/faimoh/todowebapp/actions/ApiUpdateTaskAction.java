@@ -0,0 +1,94 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import io.github.faimoh.todowebapp.serialization.TaskSerializer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * POST /api/tasks/update with a JSON task in the body. Only the fields sent
+ * are changed. Answers with the task as stored.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiUpdateTaskAction implements Action {
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        Task changes;
+        try {
+            changes = TaskSerializer.read(ApiUtilities.readJson(request));
+        } catch (IllegalArgumentException e) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Malformed JSON: " + e.getMessage());
+        }
+        if (changes.getTaskID() == null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid task ID.");
+        }
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        Task task = taskDAO.findTask(changes.getTaskID());
+        if (task == null || task.getAccountID().intValue() != sessionUser.getAccountID()) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_NOT_FOUND, "No such task exists.");
+        }
+        if (changes.getDetails() != null) {
+            task.setDetails(changes.getDetails());
+        }
+        if (changes.getStatusID() != null) {
+            task.setStatusID(changes.getStatusID());
+        }
+        if (changes.getPriorityID() != null) {
+            task.setPriorityID(changes.getPriorityID());
+        }
+        if (changes.getDeadline() != null) {
+            task.setDeadline(changes.getDeadline());
+        }
+        if (changes.getTags() != null) {
+            task.setTags(changes.getTags());
+        }
+        String problem = ApiUtilities.validate(task);
+        if (problem != null) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_BAD_REQUEST, problem);
+        }
+        if (!taskDAO.updateTask(task)) {
+            return ApiUtilities.error(request, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Technical error. Please try again later.");
+        }
+        Task updated = taskDAO.findTask(task.getTaskID());
+        if (updated != null) {
+            updated.setTags(task.getTags());
+        }
+        StructuredWriter writer = ApiUtilities.startResponse(request, response, HttpServletResponse.SC_OK);
+        TaskSerializer.write(writer, updated == null ? task : updated);
+        writer.flush();
+        return ApiUtilities.written();
+    }
+}
@@ -0,0 +1,139 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
+import io.github.faimoh.todowebapp.serialization.CborWriter;
+import io.github.faimoh.todowebapp.serialization.JsonReader;
+import io.github.faimoh.todowebapp.serialization.JsonWriter;
+import io.github.faimoh.todowebapp.serialization.StructuredWriter;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Helpers shared by the /api actions. They answer with JSON, or CBOR when the
+ * client asks for it in the Accept header, instead of forwarding to a JSP.
+ * So they return ActionResponse with the method "write" and Main leaves the
+ * response alone. Request bodies are always JSON.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApiUtilities {
+
+    public static final String CBOR = "application/cbor";
+    /*
+    The most tasks a list answers with. The page is read before it is written,
+    so a slow client never holds a database connection; the rest is fetched
+    with the continuation token.
+    */
+    public static final int PAGE_SIZE = 1000;
+
+    public static ActionResponse written() {
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setMethod("write");
+        return actionResponse;
+    }
+
+    public static StructuredWriter startResponse(HttpServletRequest request, HttpServletResponse response, int status)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader("Cache-Control", "no-store");
+        response.addHeader("Vary", "Accept");
+        if (acceptsCbor(request)) {
+            response.setContentType(CBOR);
+            return new CborWriter(response.getOutputStream());
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        return new JsonWriter(response.getWriter());
+    }
+
+    public static ActionResponse error(HttpServletRequest request, HttpServletResponse response, int status, String message)
+            throws IOException {
+        StructuredWriter writer = startResponse(request, response, status);
+        writer.beginObject().name("error").value(message).endObject();
+        writer.flush();
+        return written();
+    }
+
+    /*
+    CBOR is only sent to clients that list it in Accept. Everyone else,
+    including browsers and curl, gets JSON.
+    */
+    public static boolean acceptsCbor(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        if (accept == null) {
+            return false;
+        }
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            if (parts[0].trim().equalsIgnoreCase(CBOR)) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).trim().matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static JsonReader readJson(HttpServletRequest request) throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        return new JsonReader(request.getReader());
+    }
+
+    /*
+    Returns why the task can't be saved, or null if it can. Tags are put in
+    the form TaskTagIndex.parseTags gives them.
+    */
+    public static String validate(Task task) {
+        if (task.getDetails() == null || task.getDetails().trim().isEmpty()) {
+            return "Task details must not be empty.";
+        }
+        if (!TaskPriority.isValid(task.getPriorityID())) {
+            return "priorityID must be between 1 and " + TaskPriority.values().length + ".";
+        }
+        if (!TaskStatus.isValid(task.getStatusID())) {
+            return "statusID must be between 1 and " + TaskStatus.values().length + ".";
+        }
+        if (task.getTags() != null) {
+            try {
+                task.setTags(TaskTagIndex.parseTags(String.join(" ", task.getTags())));
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+}
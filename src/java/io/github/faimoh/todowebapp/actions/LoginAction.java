@@ -25,13 +25,22 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
+import io.github.faimoh.todowebapp.analytics.LoginAnalytics;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
+import io.github.faimoh.todowebapp.filters.AuthorizationFilter;
 import io.github.faimoh.todowebapp.model.AccountSession;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.security.AccountGrants;
+import io.github.faimoh.todowebapp.security.PasswordHasher;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import io.github.faimoh.todowebapp.security.SessionToken;
+import io.github.faimoh.todowebapp.security.SessionTokens;
 import javax.servlet.http.*;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  *
@@ -47,7 +56,6 @@ public class LoginAction implements Action {
             String username = request.getParameter("username");
             String password = request.getParameter("password");
             String context = request.getContextPath();
-            String servlet = request.getServletPath();
 
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             AccountDAO accountDAO = daoFactory.getAccountDAO();
@@ -63,35 +71,64 @@ public class LoginAction implements Action {
                 this.actionResponse.setMethod("forward");
                 this.actionResponse.setViewPath("/WEB-INF/pages/login.jsp");
             } else {
-                if (!account.getPassword().equals(password)) {
+                PasswordHasher passwordHasher = PasswordHasher.getInstance();
+                boolean isAuthenticated = false;
+                try {
+                    isAuthenticated = passwordHasher.verify(password, account.getPassword());
+                    //Passwords stored in plain text or with an older cost get a fresh hash.
+                    if (isAuthenticated && passwordHasher.needsRehash(account.getPassword())) {
+                        account.setPassword(passwordHasher.hash(password));
+                        accountDAO.changePassword(account);
+                    }
+                } catch (RejectedExecutionException e) {
+                    request.setAttribute("message", "Too many login attempts right now. Please try again in a moment.");
+                    this.actionResponse.setMethod("forward");
+                    this.actionResponse.setViewPath("/WEB-INF/pages/login.jsp");
+                    return this.actionResponse;
+                } catch (IllegalStateException e) {
+                    request.setAttribute("message", "Technical error. Please try again later.");
+                    this.actionResponse.setMethod("forward");
+                    this.actionResponse.setViewPath("/WEB-INF/pages/login.jsp");
+                    return this.actionResponse;
+                }
+                if (!isAuthenticated) {
                     request.setAttribute("message", "Authentication failed. Check credentials supplied.");
                     this.actionResponse.setMethod("forward");
                     this.actionResponse.setViewPath("/WEB-INF/pages/login.jsp");
                 }
-                if (account.getPassword().equals(password)) {
-                    HttpSession oldSession = request.getSession(false);
-                    if (oldSession != null) {
-                        oldSession.invalidate();
-                    }
-                    HttpSession session = request.getSession(true);                  
-                    //session.setMaxInactiveInterval(30 * 60);
-
-                    session.setAttribute("account", account);
+                if (isAuthenticated) {
                     AccountSession accountSession = new AccountSession();
-                    accountSession.setSessionID(session.getId());
                     accountSession.setAccountID(account.getAccountID());
-                    accountSession.setSessionCreated(new java.sql.Timestamp(session.getCreationTime()));
+                    //Only the principal is kept for the login, not the account with its password hash.
+                    AccountPrincipal principal = AccountGrants.getInstance().resolve(account.getAccountID(),
+                            account.getUsername(), account.getFirstName());
+                    SessionTokens sessionTokens = SessionTokens.getInstance();
+                    if (sessionTokens.isStateless()) {
+                        //No HttpSession at all. The signed cookie is all a node needs.
+                        long now = System.currentTimeMillis();
+                        SessionToken sessionToken = sessionTokens.issue(request, response, sessionTokens.newTokenID(),
+                                principal, now);
+                        accountSession.setSessionID(sessionToken.getTokenID());
+                        accountSession.setSessionCreated(new java.sql.Timestamp(now));
+                    } else {
+                        HttpSession oldSession = request.getSession(false);
+                        if (oldSession != null) {
+                            oldSession.invalidate();
+                        }
+                        HttpSession session = request.getSession(true);
+                        //session.setMaxInactiveInterval(30 * 60);
+
+                        session.setAttribute("principal", principal);
+                        SessionRegistry.getInstance().register(account.getAccountID(), session);
+                        accountSession.setSessionID(session.getId());
+                        accountSession.setSessionCreated(new java.sql.Timestamp(session.getCreationTime()));
+                    }
                     AccountSessionDAO accountSessionDAO = daoFactory.getAccountSessionDAO();
                     accountSessionDAO.insertAccountSession(accountSession);
-                    AccountSession accountPreviousSession = accountSessionDAO.findLastAccountSession(account.getAccountID());
-                    session.setAttribute("accountPreviousSession", accountPreviousSession);                    
-                    java.sql.Timestamp timeStamp = new java.sql.Timestamp(session.getCreationTime());                    
+                    LoginAnalytics.getInstance().loginRecorded(account.getAccountID(),
+                            accountSession.getSessionCreated().getTime());
                     this.actionResponse.setMethod("redirect");
-                    if (account.getUsername().equals("admin")) {
-                        this.actionResponse.setViewPath(context + servlet + "/admin/accounts/dashboard");
-                    } else {
-                        this.actionResponse.setViewPath(context + servlet + "/tasks/dashboard");
-                    }
+                    this.actionResponse.setViewPath(context + AuthorizationFilter.getHomePath(principal));
                 }
             }
             System.out.println(this.getClass().getName() + ":" + this.actionResponse);
@@ -25,11 +25,15 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
+import io.github.faimoh.todowebapp.analytics.LoginAnalytics;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.model.AccountSession;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import io.github.faimoh.todowebapp.security.SessionToken;
+import io.github.faimoh.todowebapp.security.SessionTokens;
 import javax.servlet.http.*;
 import java.util.*;
 
@@ -46,17 +50,29 @@ public class LogoutAction implements Action {
         try {
             String context = request.getContextPath();
             String servlet = request.getServletPath();
-            HttpSession session = request.getSession(false);
             AccountSession accountSession = new AccountSession();
-            accountSession.setSessionID(session.getId());            
-            System.out.println(session.getId() + ":"
-                    + session.getCreationTime() + ", "
-                    + session.getLastAccessedTime() + ", "
-                    + ((Account) session.getAttribute("account")).getAccountID());
-            java.sql.Timestamp timeStamp = new java.sql.Timestamp(session.getLastAccessedTime());
-            
-            session.invalidate();
-            
+            SessionTokens sessionTokens = SessionTokens.getInstance();
+            if (sessionTokens.isStateless()) {
+                SessionToken sessionToken = (SessionToken) request.getAttribute("sessionToken");
+                accountSession.setSessionID(sessionToken.getTokenID());
+                sessionTokens.clear(request, response);
+                //A copy of the cookie would otherwise stay valid until it expires.
+                SessionRegistry.getInstance().revokeToken(sessionToken.getAccountID(), sessionToken.getTokenID(),
+                        sessionTokens.getLifetimeEnd(sessionToken));
+                //There is no session listener for tokens, so the end is recorded here.
+                LoginAnalytics.getInstance().sessionEnded(sessionToken.getAccountID(),
+                        sessionToken.getIssuedAt(), System.currentTimeMillis());
+            } else {
+                HttpSession session = request.getSession(false);
+                accountSession.setSessionID(session.getId());
+                System.out.println(session.getId() + ":"
+                        + session.getCreationTime() + ", "
+                        + session.getLastAccessedTime() + ", "
+                        + ((AccountPrincipal) session.getAttribute("principal")).getAccountID());
+
+                session.invalidate();
+            }
+
             accountSession.setSessionEnd(new java.sql.Timestamp(new Date().getTime()));
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             AccountSessionDAO accountSessionDAO = daoFactory.getAccountSessionDAO();
@@ -25,10 +25,9 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 /**
  *
@@ -40,8 +39,7 @@ public class UnknownAction implements Action {
 
     public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
             throws Exception {
-        HttpSession session = request.getSession(false);
-        Account sessionUser = (Account) request.getSession(false).getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
         try {
             String message = request.getProtocol() + " " 
                     + request.getMethod() + " " 
@@ -25,15 +25,18 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.events.TaskEventHub;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import java.sql.*;
 import java.text.*;
+import java.util.ArrayList;
 import java.util.Date;
 
 /**
@@ -48,8 +51,7 @@ public class UserCreateTaskAction implements Action {
             throws Exception {
         String context = request.getContextPath();
         String servlet = request.getServletPath();
-        HttpSession session = request.getSession(false);
-        Account sessionUser = (Account) session.getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
         if (sessionUser == null) {
             this.actionResponse.setMethod("redirect");
             this.actionResponse.setViewPath(context);
@@ -59,6 +61,7 @@ public class UserCreateTaskAction implements Action {
             String stringPriorityID = request.getParameter("priorityID");
             String stringDate = request.getParameter("date");
             String stringTime = request.getParameter("time");
+            String stringTags = request.getParameter("tags");
             String message = "";
 
             if (stringAccountID == null) {
@@ -71,7 +74,14 @@ public class UserCreateTaskAction implements Action {
                 stringPriorityID = "";
             }
             int accountID = Utilities.parseWithDefault(stringAccountID, 0);
-            int priorityID = Utilities.parseWithDefault(stringPriorityID, 1);
+            int priorityID = Utilities.parseWithDefault(stringPriorityID, 0);
+            ArrayList<String> tags = null;
+            String tagsMessage = null;
+            try {
+                tags = TaskTagIndex.parseTags(stringTags);
+            } catch (IllegalArgumentException e) {
+                tagsMessage = e.getMessage();
+            }
             if (sessionUser.getAccountID() != accountID) {
                 message = "Forbidden.";
                 request.setAttribute("message", message);
@@ -83,6 +93,15 @@ public class UserCreateTaskAction implements Action {
                     request.setAttribute("message", message);
                     this.actionResponse.setMethod("forward");
                     this.actionResponse.setViewPath("/WEB-INF/pages/tasks/createTaskResult.jsp");
+                } else if (!TaskPriority.isValid(priorityID)) {
+                    message = "Choose one of the task priorities.";
+                    request.setAttribute("message", message);
+                    this.actionResponse.setMethod("forward");
+                    this.actionResponse.setViewPath("/WEB-INF/pages/tasks/createTaskResult.jsp");
+                } else if (tagsMessage != null) {
+                    request.setAttribute("message", tagsMessage);
+                    this.actionResponse.setMethod("forward");
+                    this.actionResponse.setViewPath("/WEB-INF/pages/tasks/createTaskResult.jsp");
                 } else {
                     DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
                     TaskDAO taskDAO = daoFactory.getTaskDAO();
@@ -91,8 +110,10 @@ public class UserCreateTaskAction implements Action {
                     task.setDetails(details);
                     task.setDeadline(Utilities.parseDateAndTime(stringDate, stringTime));
                     task.setPriorityID(priorityID);
+                    task.setTags(tags);
                     boolean isTaskCreated = taskDAO.insertTask(task);
                     if (isTaskCreated) {
+                        TaskEventHub.getInstance().taskChanged(task.getAccountID(), task.getTaskID());
                         /*message = "Successfully created a new task.<br> Create another task:";
                             request.setAttribute("message", message);
                             this.actionResponse.setMethod("forward");
@@ -29,10 +29,10 @@ import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.model.AccountSession;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 /**
  * This class reads the currently logged in user's account details from database 
@@ -46,8 +46,7 @@ public class UserReadProfileAction implements Action {
     public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
             throws Exception {
         String message = "";
-        HttpSession session = request.getSession(false);
-        Account sessionUser = (Account) session.getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
         try {
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             AccountDAO accountDAO = daoFactory.getAccountDAO();
@@ -57,6 +56,9 @@ public class UserReadProfileAction implements Action {
                 request.setAttribute("message", message);
             } else {
                 request.setAttribute("account", account);
+                AccountSessionDAO accountSessionDAO = daoFactory.getAccountSessionDAO();
+                AccountSession accountPreviousSession = accountSessionDAO.findLastAccountSession(account.getAccountID());
+                request.setAttribute("accountPreviousSession", accountPreviousSession);
             }            
             this.actionResponse.setMethod("forward");
             this.actionResponse.setViewPath("/WEB-INF/pages/users/viewProfile.jsp");
@@ -25,13 +25,12 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.model.Task;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.TaskDAO;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 /**
  * Read the given task ID's details from database. Make sure the task is
@@ -50,7 +49,7 @@ public class UserReadTaskDetailsAction implements Action {
             stringID = "";
         }
         String message = "";
-        Account sessionUser = (Account) request.getSession(false).getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
         try {
             if (stringID.isEmpty()) {
                 message = "Task ID can't be empty.";
@@ -63,10 +62,11 @@ public class UserReadTaskDetailsAction implements Action {
                 if (task == null) {
                     message = "No such task exists.";
                     request.setAttribute("message", message);
-                } else if (sessionUser.getAccountID().intValue() != task.getAccountID().intValue()) {
+                } else if (sessionUser.getAccountID() != task.getAccountID().intValue()) {
                     message = "Forbidden. You are not allowed to see others' task.";
                     request.setAttribute("message", message);
                 } else {
+                    task.setTags(taskDAO.findTaskTags(id));
                     request.setAttribute("task", task);
                 }
             }
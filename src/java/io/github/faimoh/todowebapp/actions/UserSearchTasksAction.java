@@ -0,0 +1,95 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.actions;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.search.TaskSearchIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET /tasks/search?q=words. Finds the user's tasks whose details contain
+ * every word, or a word starting with it, best matches first. The page
+ * searches again as the user types, through GET /api/tasks/search.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class UserSearchTasksAction implements Action {
+
+    private ActionResponse actionResponse = new ActionResponse();
+
+    public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        String query = request.getParameter("q");
+        if (query == null) {
+            query = "";
+        }
+        ArrayList<Task> tasks = searchTasks(sessionUser.getAccountID(), query);
+        if (tasks == null) {
+            request.setAttribute("message", "Technical error. Please try again later.");
+        }
+        request.setAttribute("query", query);
+        request.setAttribute("tasks", tasks);
+        this.actionResponse.setMethod("forward");
+        this.actionResponse.setViewPath("/WEB-INF/pages/tasks/search.jsp");
+        return this.actionResponse;
+    }
+
+    /*
+    Returns the matching tasks in the order of the index, or null on error.
+    The index only holds task IDs, so the tasks are read by ID afterwards.
+    */
+    static ArrayList<Task> searchTasks(int accountID, String query) throws Exception {
+        int[] taskIDs = TaskSearchIndex.getInstance().search(accountID, query);
+        if (taskIDs == null) {
+            return null;
+        }
+        DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
+        TaskDAO taskDAO = daoFactory.getTaskDAO();
+        ArrayList<Task> found = taskDAO.findTasks(accountID, taskIDs);
+        if (found == null) {
+            return null;
+        }
+        HashMap<Integer, Task> byID = new HashMap<Integer, Task>();
+        for (Task task : found) {
+            byID.put(task.getTaskID(), task);
+        }
+        ArrayList<Task> tasks = new ArrayList<Task>(found.size());
+        for (int taskID : taskIDs) {
+            Task task = byID.get(taskID);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
@@ -25,14 +25,19 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
-import io.github.faimoh.todowebapp.model.Account;
-import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.cache.TaskStatsCache;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.dao.TaskDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
-import java.util.ArrayList;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
+import io.github.faimoh.todowebapp.views.Rows;
+import java.util.Arrays;
 import javax.servlet.http.*;
 
 /**
+ * GET /tasks/dashboard[?tags=filter]. With a filter like "work AND urgent NOT
+ * waiting", only the tasks it selects are listed, as TaskTagIndex finds them.
  *
  * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  */
@@ -42,14 +47,40 @@ public class UserTasksDashboardAction implements Action {
 
     public ActionResponse execute(HttpServletRequest request, HttpServletResponse response)
             throws Exception {
-        Account sessionUser = (Account) request.getSession(false).getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        String tagFilter = request.getParameter("tags");
+        tagFilter = tagFilter == null ? "" : tagFilter.trim();
         try {
+            int[] selected = null;
+            if (!tagFilter.isEmpty()) {
+                try {
+                    selected = TaskTagIndex.getInstance().filter(sessionUser.getAccountID(), tagFilter);
+                    if (selected == null) {
+                        request.setAttribute("message", "Technical error. Please try again later.");
+                        selected = new int[0];
+                    }
+                } catch (IllegalArgumentException e) {
+                    request.setAttribute("message", e.getMessage());
+                    selected = new int[0];
+                }
+            }
+            int[] matching = selected;
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             TaskDAO taskDAO = daoFactory.getTaskDAO();
-            ArrayList<Task> tasksList = taskDAO.getAllTasks(sessionUser);
-            request.setAttribute("tasksList", tasksList);
-            this.actionResponse.setMethod("forward");
-            this.actionResponse.setViewPath("/WEB-INF/pages/tasks/dashboard.jsp");
+            //The view writes each row as it is read, rendered from the cache; only changed tasks are rendered again.
+            TaskRowCache taskRowCache = TaskRowCache.getInstance();
+            int accountID = sessionUser.getAccountID();
+            Rows taskRows = out -> taskDAO.forEachTask(accountID, task -> {
+                if (matching == null || Arrays.binarySearch(matching, task.getTaskID()) >= 0) {
+                    out.raw(taskRowCache.getRow(task));
+                }
+            });
+            request.setAttribute("tagFilter", tagFilter);
+            request.setAttribute("tags", TaskTagIndex.getInstance().getTags(sessionUser.getAccountID()));
+            request.setAttribute("taskRows", taskRows);
+            request.setAttribute("taskStats", TaskStatsCache.getInstance().getTaskStats(sessionUser.getAccountID()));
+            this.actionResponse.setMethod("render");
+            this.actionResponse.setViewPath("tasks/dashboard");
             return this.actionResponse;
         } catch (Exception e) {
             e.printStackTrace();
@@ -26,10 +26,13 @@
 package io.github.faimoh.todowebapp.actions;
 
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
 import io.github.faimoh.todowebapp.model.AccountSession;
+import io.github.faimoh.todowebapp.security.PasswordHasher;
+import java.util.concurrent.RejectedExecutionException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -37,7 +40,7 @@ import javax.servlet.http.HttpServletResponse;
  * ProfileUpdateAction supports updating the profile by a currently signed in
  * user. Profile details that can be modified through this action are first
  * name, last name and password. Currently signed in user can be obtained from
- * the HttpSession object.
+ * the 'sessionUser' request attribute set by AuthorizationFilter.
  *
  * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  */
@@ -55,28 +58,35 @@ public class UserUpdateProfileAction implements Action {
         String context = request.getContextPath();
         String servlet = request.getServletPath();
 
-        Account sessionUser = (Account) request.getSession(false).getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
         DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
         AccountDAO accountDAO = daoFactory.getAccountDAO();        
+        //The logged in user only identifies the account. We update the stored account.
+        Account account = sessionUser == null ? null : accountDAO.findAccount(sessionUser.getAccountID());
 
-        if (sessionUser == null) {
+        if (account == null) {
             this.actionResponse.setMethod("redirect");
             this.actionResponse.setViewPath("");
         } else {
-            sessionUser.setFirstName(firstName);
-            sessionUser.setLastName(lastName);
+            account.setFirstName(firstName);
+            account.setLastName(lastName);
             boolean isAccountUpdated = false;
             boolean isPasswordChanged = false;
             if (password == null || password.equals("")) {
-                isAccountUpdated = accountDAO.updateAccount(sessionUser);
+                isAccountUpdated = accountDAO.updateAccount(account);
                 message = "Successfully updated your account.";
                 request.setAttribute("message", message);                
                 this.actionResponse.setMethod("forward");
                 this.actionResponse.setViewPath("/WEB-INF/pages/users/updateProfileResult.jsp");
             } else {
-                sessionUser.setPassword(password);
-                isPasswordChanged = accountDAO.changePassword(sessionUser);
-                isAccountUpdated = accountDAO.updateAccount(sessionUser);
+                try {
+                    account.setPassword(PasswordHasher.getInstance().hash(password));
+                    isPasswordChanged = accountDAO.changePassword(account);
+                } catch (RejectedExecutionException | IllegalStateException e) {
+                    //Busy or failed, either way the old password stays.
+                    isPasswordChanged = false;
+                }
+                isAccountUpdated = accountDAO.updateAccount(account);
                 isAccountUpdated = isPasswordChanged & isAccountUpdated;
                 if (isAccountUpdated) {
                     message = "Successfully updated your account.";                    
@@ -90,6 +100,12 @@ public class UserUpdateProfileAction implements Action {
                     this.actionResponse.setViewPath("/WEB-INF/pages/users/updateProfileResult.jsp");
                 }
             }
+            if (isAccountUpdated) {
+                Utilities.updateSessionUser(request, response, sessionUser.withDisplayName(firstName));
+            }
+            AccountSessionDAO accountSessionDAO = daoFactory.getAccountSessionDAO();
+            request.setAttribute("account", account);
+            request.setAttribute("accountPreviousSession", accountSessionDAO.findLastAccountSession(account.getAccountID()));
         }
         return this.actionResponse;
     }
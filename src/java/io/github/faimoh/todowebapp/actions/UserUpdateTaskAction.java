@@ -27,15 +27,19 @@ package io.github.faimoh.todowebapp.actions;
 
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.TaskDAO;
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.events.TaskEventHub;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
 import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 /**
  *
@@ -51,8 +55,7 @@ public class UserUpdateTaskAction implements Action {
         String message = "";
         String context = request.getContextPath();
         String servlet = request.getServletPath();
-        HttpSession session = request.getSession(false);
-        Account sessionUser = (Account) session.getAttribute("account");
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
 
         String stringTaskID = request.getParameter("taskID");
         String details = request.getParameter("details");
@@ -60,10 +63,21 @@ public class UserUpdateTaskAction implements Action {
         String stringPriorityID = request.getParameter("priorityID");
         String stringDate = request.getParameter("date");
         String stringTime = request.getParameter("time");
+        String stringTags = request.getParameter("tags");
         int taskID = Utilities.parseWithDefault(stringTaskID, 0);
-        int statusID = Utilities.parseWithDefault(stringStatusID, 1);
-        int priorityID = Utilities.parseWithDefault(stringPriorityID, 1);
+        int statusID = Utilities.parseWithDefault(stringStatusID, 0);
+        int priorityID = Utilities.parseWithDefault(stringPriorityID, 0);
         Timestamp dateTime = Utilities.parseDateAndTime(stringDate, stringTime);
+        //Without a tags field the task keeps its tags.
+        ArrayList<String> tags = null;
+        String tagsMessage = null;
+        if (stringTags != null) {
+            try {
+                tags = TaskTagIndex.parseTags(stringTags);
+            } catch (IllegalArgumentException e) {
+                tagsMessage = e.getMessage();
+            }
+        }
 
         if (details == null) {
             details = "";
@@ -79,6 +93,15 @@ public class UserUpdateTaskAction implements Action {
             request.setAttribute("message", message);
             this.actionResponse.setMethod("forward");
             this.actionResponse.setViewPath("/WEB-INF/pages/tasks/updateTaskResult.jsp");
+        } else if (!TaskStatus.isValid(statusID) || !TaskPriority.isValid(priorityID)) {
+            message = "Choose one of the task statuses and priorities.";
+            request.setAttribute("message", message);
+            this.actionResponse.setMethod("forward");
+            this.actionResponse.setViewPath("/WEB-INF/pages/tasks/updateTaskResult.jsp");
+        } else if (tagsMessage != null) {
+            request.setAttribute("message", tagsMessage);
+            this.actionResponse.setMethod("forward");
+            this.actionResponse.setViewPath("/WEB-INF/pages/tasks/updateTaskResult.jsp");
         } else {
             DAOFactory daoFactory = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource);
             TaskDAO taskDAO = daoFactory.getTaskDAO();
@@ -88,7 +111,7 @@ public class UserUpdateTaskAction implements Action {
                 request.setAttribute("message", message);
                 this.actionResponse.setMethod("forward");
                 this.actionResponse.setViewPath("/WEB-INF/pages/tasks/taskDetails.jsp");
-            } else if (sessionUser.getAccountID().intValue() != task.getAccountID().intValue()) {
+            } else if (sessionUser.getAccountID() != task.getAccountID().intValue()) {
                 message = "Forbidden. This is not your task.";
                 request.setAttribute("message", message);
                 this.actionResponse.setMethod("forward");
@@ -99,8 +122,10 @@ public class UserUpdateTaskAction implements Action {
                 task.setStatusID(statusID);
                 task.setDeadline(dateTime);
                 task.setPriorityID(priorityID);
+                task.setTags(tags);
                 boolean isTaskUpdated = taskDAO.updateTask(task);
                 if (isTaskUpdated) {
+                    TaskEventHub.getInstance().taskChanged(task.getAccountID(), task.getTaskID());
                     this.actionResponse.setMethod("redirect");
                     this.actionResponse.setViewPath(context + servlet + "/tasks/dashboard");
                 } else {
@@ -5,10 +5,20 @@
  */
 package io.github.faimoh.todowebapp.actions;
 
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.RoleDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.Role;
+import io.github.faimoh.todowebapp.security.SessionToken;
+import io.github.faimoh.todowebapp.security.SessionTokens;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 
 /**
  *
@@ -38,4 +48,49 @@ public class Utilities {
             return null;
         }        
     }
+
+    /*
+    Replaces the logged in user after their account was changed, both for the
+    rest of this request and for the requests that follow it.
+    */
+    public static void updateSessionUser(HttpServletRequest request, HttpServletResponse response, AccountPrincipal sessionUser) {
+        SessionTokens sessionTokens = SessionTokens.getInstance();
+        if (sessionTokens.isStateless()) {
+            SessionToken sessionToken = (SessionToken) request.getAttribute("sessionToken");
+            request.setAttribute("sessionToken", sessionTokens.reissue(request, response, sessionToken, sessionUser));
+        } else {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.setAttribute("principal", sessionUser);
+            }
+        }
+        request.setAttribute("sessionUser", sessionUser);
+    }
+
+    /*
+    The roles for the checkboxes on the account pages: 'roles' has all of them,
+    'accountRoles' the ones the account has, keyed by role ID.
+    */
+    public static void setRolesAttributes(HttpServletRequest request, int accountID) {
+        RoleDAO roleDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getRoleDAO();
+        HashMap<Integer, Role> accountRoles = new HashMap<Integer, Role>();
+        for (Role role : roleDAO.findAccountRoles(accountID)) {
+            accountRoles.put(role.getRoleID(), role);
+        }
+        request.setAttribute("roles", roleDAO.getAllRoles());
+        request.setAttribute("accountRoles", accountRoles);
+    }
+
+    public static int parseRoles(String[] roleIDs) {
+        int roles = 0;
+        if (roleIDs != null) {
+            for (String roleID : roleIDs) {
+                int id = parseWithDefault(roleID, 0);
+                if (id > 0 && id <= Integer.SIZE) {
+                    roles |= 1 << (id - 1);
+                }
+            }
+        }
+        return roles;
+    }
 }
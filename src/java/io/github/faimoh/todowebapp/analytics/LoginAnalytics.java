@@ -0,0 +1,410 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.analytics;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.LoginStatsDAO;
+import io.github.faimoh.todowebapp.model.LoginStats;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login analytics kept in memory, so the admin charts never scan
+ * account_sessions. LoginAction reports every login and the session listener
+ * (or LogoutAction, for stateless sessions) every session that ends. Each
+ * event is added to a ring of per-minute buckets covering the last hour and a
+ * ring of per-hour buckets covering the last 30 days, so recording an event
+ * and reading the charts cost the same however much history there is.
+ *
+ * A bucket counts logins, ended sessions with their total length, and the
+ * distinct accounts that logged in or out, exactly for the first few hundred
+ * and estimated past that, so a bucket stays small however large the account
+ * IDs or how many accounts are active. Every few minutes and on shutdown,
+ * what the hour buckets counted since they were last saved is added to
+ * login_stats_hourly, so nodes sharing the table add up rather than replace
+ * each other's counts. The saved totals of all nodes are read back at startup.
+ * Minute buckets are not saved.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class LoginAnalytics {
+
+    public static final int MINUTES = 60;
+    public static final int HOURS = 30 * 24;
+    public static final int DAYS = HOURS / 24;
+
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+
+    private static final LoginAnalytics loginAnalytics = new LoginAnalytics();
+
+    private final Bucket[] minutes = new Bucket[MINUTES];
+    private final Bucket[] hours = new Bucket[HOURS];
+    private ScheduledExecutorService scheduler = null;
+    //Keeps the shutdown save from running alongside a scheduled one and saving the same counts twice.
+    private final Object persistLock = new Object();
+
+    private LoginAnalytics() {
+
+    }
+
+    public static LoginAnalytics getInstance() {
+        return loginAnalytics;
+    }
+
+    public static synchronized void configure(int persistIntervalMinutes) {
+        if (loginAnalytics.scheduler == null && persistIntervalMinutes > 0) {
+            loginAnalytics.load();
+            loginAnalytics.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "LoginAnalytics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            loginAnalytics.scheduler.scheduleWithFixedDelay(loginAnalytics::persist,
+                    persistIntervalMinutes, persistIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public void shutdown() {
+        synchronized (LoginAnalytics.class) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+                persist();
+            }
+        }
+    }
+
+    public synchronized void loginRecorded(int accountID, long time) {
+        Bucket minute = bucket(minutes, time, MINUTE_MILLIS);
+        if (minute != null) {
+            minute.logins++;
+            minute.active(accountID);
+        }
+        Bucket hour = bucket(hours, time, HOUR_MILLIS);
+        if (hour != null) {
+            hour.logins++;
+            hour.active(accountID);
+            hour.dirty = true;
+        }
+    }
+
+    /*
+    A session is counted in the bucket it ended in, however long ago it was
+    created.
+    */
+    public synchronized void sessionEnded(int accountID, long createdAt, long endedAt) {
+        long seconds = Math.max(0, (endedAt - createdAt) / 1000);
+        Bucket minute = bucket(minutes, endedAt, MINUTE_MILLIS);
+        if (minute != null) {
+            minute.endedSessions++;
+            minute.sessionSeconds += seconds;
+            minute.active(accountID);
+        }
+        Bucket hour = bucket(hours, endedAt, HOUR_MILLIS);
+        if (hour != null) {
+            hour.endedSessions++;
+            hour.sessionSeconds += seconds;
+            hour.active(accountID);
+            hour.dirty = true;
+        }
+    }
+
+    //The last hour, one entry per minute, oldest first.
+    public synchronized ArrayList<LoginStats> getMinuteStats() {
+        return collect(minutes, MINUTE_MILLIS, MINUTES);
+    }
+
+    //The last 'count' hours (at most HOURS), one entry per hour, oldest first.
+    public synchronized ArrayList<LoginStats> getHourlyStats(int count) {
+        return collect(hours, HOUR_MILLIS, Math.min(count, HOURS));
+    }
+
+    /*
+    The last 'count' days (at most DAYS), one entry per day in the server's
+    time zone, oldest first. Active users are the distinct accounts seen that
+    day; for hours read back from the database only the per-hour count is
+    known, so the busiest of those hours stands in for them.
+    */
+    public synchronized ArrayList<LoginStats> getDailyStats(int count) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        long oldest = System.currentTimeMillis() - HOURS * HOUR_MILLIS;
+        ArrayList<LoginStats> days = new ArrayList<LoginStats>();
+        for (int i = Math.min(count, DAYS) - 1; i >= 0; i--) {
+            long dayStart = today.minusDays(i).atStartOfDay(zone).toInstant().toEpochMilli();
+            long dayEnd = today.minusDays(i - 1).atStartOfDay(zone).toInstant().toEpochMilli();
+            LoginStats day = new LoginStats();
+            day.setPeriodStart(new Timestamp(dayStart));
+            DistinctAccounts accounts = new DistinctAccounts();
+            int storedActiveUsers = 0;
+            for (long hourStart = Math.max(dayStart, oldest - oldest % HOUR_MILLIS); hourStart < dayEnd; hourStart += HOUR_MILLIS) {
+                Bucket hour = hours[slot(hourStart, HOUR_MILLIS, HOURS)];
+                if (hour != null && hour.start == hourStart) {
+                    day.setLogins(day.getLogins() + hour.logins);
+                    day.setEndedSessions(day.getEndedSessions() + hour.endedSessions);
+                    day.setSessionSeconds(day.getSessionSeconds() + hour.sessionSeconds);
+                    accounts.addAll(hour.accounts);
+                    storedActiveUsers = Math.max(storedActiveUsers, hour.storedActiveUsers);
+                }
+            }
+            day.setActiveUsers(Math.max(accounts.count(), storedActiveUsers));
+            days.add(day);
+        }
+        return days;
+    }
+
+    private ArrayList<LoginStats> collect(Bucket[] ring, long width, int count) {
+        long current = System.currentTimeMillis();
+        current -= current % width;
+        ArrayList<LoginStats> stats = new ArrayList<LoginStats>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            long start = current - i * width;
+            Bucket bucket = ring[slot(start, width, ring.length)];
+            stats.add(bucket != null && bucket.start == start ? bucket.toLoginStats() : empty(start));
+        }
+        return stats;
+    }
+
+    /*
+    Returns the bucket for the time, taking over the slot from the bucket that
+    held it one ring length ago. Events older than the ring are dropped.
+    */
+    private static Bucket bucket(Bucket[] ring, long time, long width) {
+        long start = time - time % width;
+        int slot = slot(start, width, ring.length);
+        Bucket bucket = ring[slot];
+        if (bucket == null || bucket.start < start) {
+            bucket = new Bucket(start);
+            ring[slot] = bucket;
+        } else if (bucket.start > start) {
+            return null;
+        }
+        return bucket;
+    }
+
+    private static int slot(long start, long width, int length) {
+        return (int) ((start / width) % length);
+    }
+
+    private static LoginStats empty(long start) {
+        LoginStats loginStats = new LoginStats();
+        loginStats.setPeriodStart(new Timestamp(start));
+        return loginStats;
+    }
+
+    private void load() {
+        LoginStatsDAO loginStatsDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getLoginStatsDAO();
+        ArrayList<LoginStats> saved = loginStatsDAO.getHourlyLoginStats(
+                new Timestamp(System.currentTimeMillis() - HOURS * HOUR_MILLIS));
+        if (saved == null) {
+            return;
+        }
+        synchronized (this) {
+            for (LoginStats loginStats : saved) {
+                long start = loginStats.getPeriodStart().getTime();
+                int slot = slot(start, HOUR_MILLIS, HOURS);
+                Bucket hour = hours[slot];
+                if (hour == null || hour.start < start) {
+                    hour = new Bucket(start);
+                    hours[slot] = hour;
+                }
+                if (hour.start == start) {
+                    hour.logins += loginStats.getLogins();
+                    hour.endedSessions += loginStats.getEndedSessions();
+                    hour.sessionSeconds += loginStats.getSessionSeconds();
+                    hour.storedActiveUsers = Math.max(hour.storedActiveUsers, loginStats.getActiveUsers());
+                    //Already in the table, so not to be added again.
+                    hour.savedLogins += loginStats.getLogins();
+                    hour.savedEndedSessions += loginStats.getEndedSessions();
+                    hour.savedSessionSeconds += loginStats.getSessionSeconds();
+                }
+            }
+        }
+        System.out.println(this.getClass().getCanonicalName() + ":loaded:" + saved.size());
+    }
+
+    /*
+    Saves what each changed hour counted since it was last saved. The counts
+    are only marked saved once the database has them, so after a failure the
+    next run sends them again, together with anything counted since.
+    */
+    private void persist() {
+        synchronized (persistLock) {
+            ArrayList<LoginStats> changed = new ArrayList<LoginStats>();
+            ArrayList<Bucket> buckets = new ArrayList<Bucket>();
+            synchronized (this) {
+                for (Bucket hour : hours) {
+                    if (hour != null && hour.dirty) {
+                        hour.dirty = false;
+                        changed.add(hour.unsavedLoginStats());
+                        buckets.add(hour);
+                    }
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            boolean isSaved = false;
+            try {
+                LoginStatsDAO loginStatsDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getLoginStatsDAO();
+                isSaved = loginStatsDAO.saveHourlyLoginStats(changed);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            synchronized (this) {
+                for (int i = 0; i < buckets.size(); i++) {
+                    Bucket hour = buckets.get(i);
+                    if (isSaved) {
+                        hour.saved(changed.get(i));
+                    } else {
+                        //Try again on the next run.
+                        hour.dirty = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Bucket {
+        final long start;
+        final DistinctAccounts accounts = new DistinctAccounts();
+        int logins;
+        int endedSessions;
+        long sessionSeconds;
+        //Active users of an hour read back from the database, whose accounts are not known.
+        int storedActiveUsers;
+        //How much of the counts login_stats_hourly already has.
+        int savedLogins;
+        int savedEndedSessions;
+        long savedSessionSeconds;
+        boolean dirty;
+
+        Bucket(long start) {
+            this.start = start;
+        }
+
+        void active(int accountID) {
+            accounts.add(accountID);
+        }
+
+        LoginStats toLoginStats() {
+            LoginStats loginStats = new LoginStats();
+            loginStats.setPeriodStart(new Timestamp(start));
+            loginStats.setLogins(logins);
+            loginStats.setEndedSessions(endedSessions);
+            loginStats.setSessionSeconds(sessionSeconds);
+            loginStats.setActiveUsers(Math.max(accounts.count(), storedActiveUsers));
+            return loginStats;
+        }
+
+        //The counts login_stats_hourly doesn't have yet, and the active users seen so far.
+        LoginStats unsavedLoginStats() {
+            LoginStats loginStats = toLoginStats();
+            loginStats.setLogins(logins - savedLogins);
+            loginStats.setEndedSessions(endedSessions - savedEndedSessions);
+            loginStats.setSessionSeconds(sessionSeconds - savedSessionSeconds);
+            return loginStats;
+        }
+
+        void saved(LoginStats loginStats) {
+            savedLogins += loginStats.getLogins();
+            savedEndedSessions += loginStats.getEndedSessions();
+            savedSessionSeconds += loginStats.getSessionSeconds();
+        }
+    }
+
+    /*
+    The distinct accounts of a bucket. Up to SPARSE_LIMIT account IDs are kept
+    exactly; past that they are hashed into a fixed 2 KB bitmap and counted by
+    linear counting, which stays within a few percent up to tens of thousands
+    of accounts. Bitmaps of several buckets can be merged, as a day does with
+    its hours.
+    */
+    private static class DistinctAccounts {
+        private static final int SPARSE_LIMIT = 256;
+        private static final int SKETCH_BITS = 16 * 1024;
+
+        private HashSet<Integer> accountIDs = new HashSet<Integer>();
+        private BitSet sketch = null;
+
+        void add(int accountID) {
+            if (sketch != null) {
+                sketch.set(hash(accountID));
+            } else if (accountIDs.add(accountID) && accountIDs.size() > SPARSE_LIMIT) {
+                toSketch();
+            }
+        }
+
+        void addAll(DistinctAccounts other) {
+            if (other.sketch == null) {
+                for (int accountID : other.accountIDs) {
+                    add(accountID);
+                }
+                return;
+            }
+            if (sketch == null) {
+                toSketch();
+            }
+            sketch.or(other.sketch);
+        }
+
+        int count() {
+            if (sketch == null) {
+                return accountIDs.size();
+            }
+            //A full bitmap only says there are a lot, so count it as one bit short of full.
+            int emptyBits = Math.max(1, SKETCH_BITS - sketch.cardinality());
+            return (int) Math.round(SKETCH_BITS * Math.log((double) SKETCH_BITS / emptyBits));
+        }
+
+        private void toSketch() {
+            sketch = new BitSet(SKETCH_BITS);
+            for (int accountID : accountIDs) {
+                sketch.set(hash(accountID));
+            }
+            accountIDs = null;
+        }
+
+        //Spreads consecutive account IDs evenly over the bitmap.
+        private static int hash(int accountID) {
+            int h = accountID;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h & (SKETCH_BITS - 1);
+        }
+    }
+}
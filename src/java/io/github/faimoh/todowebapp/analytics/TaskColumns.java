@@ -0,0 +1,161 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.analytics;
+
+import io.github.faimoh.todowebapp.model.Task;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * The tasks of all accounts kept column by column in primitive arrays, one
+ * array per field, so millions of tasks take a few dozen bytes each instead of
+ * a Task object with its boxed fields and timestamps. Row i of every array is
+ * the same task. Times are epoch milliseconds, 0 when not set.
+ *
+ * Rows are found by task ID through an open-addressing table of row numbers.
+ * A task that is deleted keeps its row with status 0, and scans skip it.
+ * Not thread-safe; TaskReports guards it with a read-write lock.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskColumns {
+
+    public static final byte REMOVED = 0;
+
+    int size;
+    int removed;
+    int[] taskIDs;
+    int[] accountIDs;
+    byte[] statusIDs;
+    byte[] priorityIDs;
+    long[] createdAt;
+    long[] deadlines;
+    long[] lastUpdated;
+    //Row number + 1 by task ID, 0 for a free slot. The length is a power of two.
+    private int[] rowsByTaskID;
+
+    public TaskColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        taskIDs = new int[capacity];
+        accountIDs = new int[capacity];
+        statusIDs = new byte[capacity];
+        priorityIDs = new byte[capacity];
+        createdAt = new long[capacity];
+        deadlines = new long[capacity];
+        lastUpdated = new long[capacity];
+        rowsByTaskID = new int[Integer.highestOneBit(capacity) * 4];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+    /*
+    Adds the task, or overwrites its row if it is already here. A deleted task
+    is marked removed.
+    */
+    public void put(Task task) {
+        int row = find(task.getTaskID());
+        if (task.getDeletedAt() != null) {
+            if (row >= 0 && statusIDs[row] != REMOVED) {
+                statusIDs[row] = REMOVED;
+                removed++;
+            }
+            return;
+        }
+        if (row < 0) {
+            if (size == taskIDs.length) {
+                grow();
+            }
+            row = size++;
+            taskIDs[row] = task.getTaskID();
+            index(task.getTaskID(), row);
+        } else if (statusIDs[row] == REMOVED) {
+            removed--;
+        }
+        accountIDs[row] = task.getAccountID();
+        statusIDs[row] = (byte) (int) task.getStatusID();
+        priorityIDs[row] = (byte) (int) task.getPriorityID();
+        createdAt[row] = millis(task.getCreatedAt());
+        deadlines[row] = millis(task.getDeadline());
+        lastUpdated[row] = millis(task.getLastUpdated());
+    }
+
+    private int find(int taskID) {
+        int mask = rowsByTaskID.length - 1;
+        for (int slot = hash(taskID) & mask; rowsByTaskID[slot] != 0; slot = (slot + 1) & mask) {
+            int row = rowsByTaskID[slot] - 1;
+            if (taskIDs[row] == taskID) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void index(int taskID, int row) {
+        //Kept at most half full so probes stay short.
+        if (size * 2 > rowsByTaskID.length) {
+            rowsByTaskID = new int[rowsByTaskID.length * 2];
+            for (int i = 0; i < size - 1; i++) {
+                insert(taskIDs[i], i);
+            }
+        }
+        insert(taskID, row);
+    }
+
+    private void insert(int taskID, int row) {
+        int mask = rowsByTaskID.length - 1;
+        int slot = hash(taskID) & mask;
+        while (rowsByTaskID[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        rowsByTaskID[slot] = row + 1;
+    }
+
+    private void grow() {
+        int capacity = taskIDs.length + (taskIDs.length >> 1);
+        taskIDs = Arrays.copyOf(taskIDs, capacity);
+        accountIDs = Arrays.copyOf(accountIDs, capacity);
+        statusIDs = Arrays.copyOf(statusIDs, capacity);
+        priorityIDs = Arrays.copyOf(priorityIDs, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        lastUpdated = Arrays.copyOf(lastUpdated, capacity);
+    }
+
+    private static int hash(int taskID) {
+        //Task IDs are sequential; spread them over the table.
+        return taskID * 0x9E3779B9;
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp == null ? 0 : timestamp.getTime();
+    }
+}
@@ -0,0 +1,307 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.analytics;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskReport;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cross-account task reports for admins: completion rate by priority, median
+ * time from creation to completion and deadline miss rate.
+ *
+ * The reports run on a TaskColumns snapshot of all live and archived tasks.
+ * The first report loads it; later reports older than maxAge first apply the
+ * tasks changed since the last refresh, found by last_updated, so a refresh
+ * costs as much as the changes. When a quarter of the rows belong to deleted
+ * tasks the snapshot is loaded again from scratch.
+ *
+ * The totals are computed by fork/join scans that split the rows into ranges
+ * of SCAN_THRESHOLD and merge the totals of the halves, on a pool of
+ * 'parallelism' threads.
+ *
+ * A done task counts as completed at its last_updated. A deadline is missed
+ * if the task was completed after it, or is still open and it has passed.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskReports {
+
+    private static final int DONE_STATUS = TaskStatus.DONE.getID();
+    private static final int SCAN_THRESHOLD = 64 * 1024;
+    //Changes are read from a little before the last refresh, last_updated has whole seconds.
+    private static final long REFRESH_MARGIN_MILLIS = 5000;
+
+    private static final TaskReports taskReports = new TaskReports();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TaskColumns columns = null;
+    private long refreshedAt = 0;
+    private ForkJoinPool pool = null;
+    private volatile long maxAgeMillis = 60 * 1000L;
+
+    private TaskReports() {
+
+    }
+
+    public static TaskReports getInstance() {
+        return taskReports;
+    }
+
+    public static synchronized void configure(int parallelism, int maxAgeSeconds) {
+        taskReports.maxAgeMillis = maxAgeSeconds * 1000L;
+        if (taskReports.pool == null) {
+            taskReports.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+        lock.writeLock().lock();
+        try {
+            columns = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    Returns one report per priority followed by the total over all of them, or
+    null if the tasks could not be read.
+    */
+    public ArrayList<TaskReport> getReports() throws IOException {
+        if (!refresh()) {
+            return null;
+        }
+        ForkJoinPool pool;
+        synchronized (this) {
+            pool = this.pool != null ? this.pool : ForkJoinPool.commonPool();
+        }
+        lock.readLock().lock();
+        try {
+            Totals totals = pool.invoke(new Scan(columns, 0, columns.size(), System.currentTimeMillis()));
+            ArrayList<TaskReport> reports = new ArrayList<TaskReport>();
+            Totals all = new Totals();
+            for (int priorityID = 1; priorityID < Totals.PRIORITIES; priorityID++) {
+                TaskPriority priority = TaskPriority.forID(priorityID);
+                if (priority != null || totals.tasks[priorityID] > 0) {
+                    reports.add(totals.toReport(priorityID, priority != null ? priority.getLabel() : "Priority " + priorityID));
+                }
+                all.add(totals, priorityID, 0);
+            }
+            reports.add(all.toReport(0, "All"));
+            return reports;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSnapshotSize() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.size() - columns.getRemoved();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Timestamp getRefreshedAt() {
+        lock.readLock().lock();
+        try {
+            return refreshedAt == 0 ? null : new Timestamp(refreshedAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean refresh() throws IOException {
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            if (columns != null && now - refreshedAt < maxAgeMillis) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        lock.writeLock().lock();
+        try {
+            if (columns != null && now - refreshedAt < maxAgeMillis) {
+                return true;
+            }
+            if (columns == null || columns.getRemoved() * 4 > columns.size()) {
+                TaskColumns loaded = new TaskColumns(columns == null ? 1024 : columns.size());
+                if (!taskDAO.forEachTaskOfAllAccounts(loaded::put)) {
+                    return columns != null;
+                }
+                columns = loaded;
+                System.out.println(this.getClass().getCanonicalName() + ":loaded:" + loaded.size());
+            } else {
+                TaskColumns current = columns;
+                if (!taskDAO.forEachTaskChangedSince(new Timestamp(refreshedAt - REFRESH_MARGIN_MILLIS), current::put)) {
+                    return true;
+                }
+            }
+            refreshedAt = now;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    Totals by priority ID. The times to completion are collected per priority
+    for the medians.
+    */
+    private static class Totals {
+        static final int PRIORITIES = 128;
+
+        final long[] tasks = new long[PRIORITIES];
+        final long[] completed = new long[PRIORITIES];
+        final long[] withDeadline = new long[PRIORITIES];
+        final long[] missed = new long[PRIORITIES];
+        final long[][] durations = new long[PRIORITIES][];
+        final int[] durationCounts = new int[PRIORITIES];
+
+        void addDuration(int priorityID, long duration) {
+            long[] values = durations[priorityID];
+            if (values == null) {
+                values = new long[64];
+                durations[priorityID] = values;
+            } else if (durationCounts[priorityID] == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+                durations[priorityID] = values;
+            }
+            values[durationCounts[priorityID]++] = duration;
+        }
+
+        //Adds the totals of 'from' for one priority to this one's totals for 'to'.
+        void add(Totals from, int priorityID, int to) {
+            tasks[to] += from.tasks[priorityID];
+            completed[to] += from.completed[priorityID];
+            withDeadline[to] += from.withDeadline[priorityID];
+            missed[to] += from.missed[priorityID];
+            for (int i = 0; i < from.durationCounts[priorityID]; i++) {
+                addDuration(to, from.durations[priorityID][i]);
+            }
+        }
+
+        Totals merge(Totals other) {
+            for (int priorityID = 0; priorityID < PRIORITIES; priorityID++) {
+                if (other.tasks[priorityID] > 0) {
+                    add(other, priorityID, priorityID);
+                }
+            }
+            return this;
+        }
+
+        TaskReport toReport(int priorityID, String label) {
+            TaskReport report = new TaskReport();
+            report.setLabel(label);
+            report.setTasks(tasks[priorityID]);
+            report.setCompletedTasks(completed[priorityID]);
+            report.setTasksWithDeadline(withDeadline[priorityID]);
+            report.setMissedDeadlines(missed[priorityID]);
+            int count = durationCounts[priorityID];
+            if (count > 0) {
+                long[] values = durations[priorityID];
+                Arrays.parallelSort(values, 0, count);
+                report.setMedianMillisToComplete(count % 2 == 1 ? values[count / 2]
+                        : (values[count / 2 - 1] + values[count / 2]) / 2);
+            }
+            return report;
+        }
+    }
+
+    private static class Scan extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+        private final TaskColumns columns;
+        private final int from;
+        private final int to;
+        private final long now;
+
+        Scan(TaskColumns columns, int from, int to, long now) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.now = now;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > SCAN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                Scan left = new Scan(columns, from, middle, now);
+                left.fork();
+                Totals right = new Scan(columns, middle, to, now).compute();
+                return left.join().merge(right);
+            }
+            Totals totals = new Totals();
+            byte[] statusIDs = columns.statusIDs;
+            byte[] priorityIDs = columns.priorityIDs;
+            long[] createdAt = columns.createdAt;
+            long[] deadlines = columns.deadlines;
+            long[] lastUpdated = columns.lastUpdated;
+            for (int row = from; row < to; row++) {
+                int statusID = statusIDs[row];
+                int priorityID = priorityIDs[row];
+                if (statusID == TaskColumns.REMOVED || priorityID < 0) {
+                    continue;
+                }
+                totals.tasks[priorityID]++;
+                boolean isDone = statusID == DONE_STATUS;
+                if (isDone) {
+                    totals.completed[priorityID]++;
+                    if (lastUpdated[row] > 0 && createdAt[row] > 0) {
+                        totals.addDuration(priorityID, Math.max(0, lastUpdated[row] - createdAt[row]));
+                    }
+                }
+                long deadline = deadlines[row];
+                //Only deadlines whose outcome is known count: met or missed by a done task, or passed.
+                if (deadline > 0 && (isDone || deadline < now)) {
+                    totals.withDeadline[priorityID]++;
+                    if (!isDone || lastUpdated[row] > deadline) {
+                        totals.missed[priorityID]++;
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+}
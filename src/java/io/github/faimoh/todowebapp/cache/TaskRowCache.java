@@ -0,0 +1,146 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.cache;
+
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.views.HtmlWriter;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the rendered HTML of the rows of the tasks dashboard, so a dashboard
+ * with thousands of tasks only renders the rows that changed since it was last
+ * shown.
+ *
+ * A row is cached by task ID together with the time the task was last updated
+ * (or created, if it was never updated). Every change to a task sets a new
+ * last_updated, so a row whose time no longer matches is rendered again.
+ * last_updated has whole seconds in the database, so the DAO also calls
+ * taskChanged() to drop a row that was changed twice within a second.
+ *
+ * The cache holds at most maxEntries rows. When it is full, about a quarter of
+ * the rows are dropped to make room.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskRowCache {
+
+    private static final TaskRowCache taskRowCache = new TaskRowCache();
+
+    private final ConcurrentHashMap<Integer, Row> rows = new ConcurrentHashMap<Integer, Row>();
+    private volatile int maxEntries = 50000;
+
+    private TaskRowCache() {
+
+    }
+
+    public static TaskRowCache getInstance() {
+        return taskRowCache;
+    }
+
+    public static void configure(int maxEntries) {
+        taskRowCache.maxEntries = maxEntries;
+    }
+
+    /*
+    Returns the <tr> of the task, from the cache if the task has not changed
+    since it was rendered. The task is only read, never kept, so callers may
+    reuse it for the next row.
+    */
+    public String getRow(Task task) {
+        long version = getVersion(task);
+        Row row = rows.get(task.getTaskID());
+        if (row != null && row.version == version) {
+            return row.html;
+        }
+        String html = render(task);
+        if (maxEntries > 0) {
+            if (rows.size() >= maxEntries) {
+                evict();
+            }
+            rows.put(task.getTaskID(), new Row(version, html));
+        }
+        return html;
+    }
+
+    public void taskChanged(int taskID) {
+        rows.remove(taskID);
+    }
+
+    private void evict() {
+        int toRemove = Math.max(1, maxEntries / 4);
+        Iterator<Integer> iterator = rows.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static long getVersion(Task task) {
+        Timestamp version = task.getLastUpdated() != null ? task.getLastUpdated() : task.getCreatedAt();
+        return version == null ? 0 : version.getTime();
+    }
+
+    private static String render(Task task) {
+        StringBuilder html = new StringBuilder(256);
+        //Relative link: the dashboard and the details page share /app/tasks/.
+        html.append("<tr id=\"task-").append(task.getTaskID()).append("\"><td><a href=\"details?id=")
+                .append(task.getTaskID()).append("\">")
+                .append(task.getTaskID()).append("</a></td><td>");
+        HtmlWriter.escape(html, task.getDetails());
+        html.append("</td><td>");
+        appendTimestamp(html, task.getCreatedAt());
+        html.append("</td><td>");
+        appendTimestamp(html, task.getDeadline());
+        html.append("</td><td>");
+        appendTimestamp(html, task.getLastUpdated());
+        html.append("</td><td>");
+        HtmlWriter.escape(html, TaskPriority.label(task.getPriorityID()));
+        html.append("</td><td>");
+        HtmlWriter.escape(html, TaskStatus.label(task.getStatusID()));
+        html.append("</td></tr>\n");
+        return html.toString();
+    }
+
+    private static void appendTimestamp(StringBuilder html, Timestamp timestamp) {
+        if (timestamp != null) {
+            html.append(timestamp.toString());
+        }
+    }
+
+    private static class Row {
+        final long version;
+        final String html;
+
+        Row(long version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+    }
+}
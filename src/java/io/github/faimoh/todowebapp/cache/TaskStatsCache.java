@@ -0,0 +1,147 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.cache;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.TaskStats;
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory mirror of task_stats, the per-account task counts by status and
+ * priority. An account's counts are read once from task_stats; after that the
+ * DAO reports every change it commits with taskCountChanged(), so showing the
+ * counts never needs a query.
+ *
+ * Whether a task is overdue changes with time, not with writes, so the
+ * overdue count is read with two index range queries instead: the count, and
+ * the next deadline still ahead. It is then kept until that deadline passes or
+ * one of the account's tasks changes.
+ *
+ * A change made while the counts are being read bumps the account's
+ * generation, and what was read is not kept. TaskStatsReconciler repairs
+ * task_stats and calls accountRepaired() for any account that drifted.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskStatsCache {
+
+    private static final TaskStatsCache taskStatsCache = new TaskStatsCache();
+
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+
+    private TaskStatsCache() {
+
+    }
+
+    public static TaskStatsCache getInstance() {
+        return taskStatsCache;
+    }
+
+    /*
+    Returns a copy of the account's counts, or null if they could not be read.
+    */
+    public TaskStats getTaskStats(int accountID) {
+        Entry entry = entries.computeIfAbsent(accountID, id -> new Entry());
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        TaskStats stats;
+        long generation;
+        synchronized (entry) {
+            stats = entry.stats == null ? null : entry.stats.copy();
+            generation = entry.generation;
+        }
+        if (stats == null) {
+            stats = taskDAO.getTaskStats(accountID);
+            if (stats == null) {
+                return null;
+            }
+            synchronized (entry) {
+                if (entry.generation == generation) {
+                    entry.stats = stats.copy();
+                }
+            }
+        }
+        stats.setOverdueTasks(getOverdueTasks(accountID, entry, taskDAO));
+        return stats;
+    }
+
+    public int getOverdueTasks(int accountID) {
+        Entry entry = entries.computeIfAbsent(accountID, id -> new Entry());
+        return getOverdueTasks(accountID, entry, DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO());
+    }
+
+    /*
+    Called for every task the DAO writes, with a delta of 0 if its status and
+    priority stayed the same, since its deadline may have changed.
+    */
+    public void taskCountChanged(int accountID, int statusID, int priorityID, int delta) {
+        Entry entry = entries.get(accountID);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.generation++;
+                entry.overdueValidUntil = 0;
+                if (entry.stats != null) {
+                    entry.stats.add(statusID, priorityID, delta);
+                }
+            }
+        }
+    }
+
+    public void accountRepaired(int accountID) {
+        entries.remove(accountID);
+    }
+
+    private int getOverdueTasks(int accountID, Entry entry, TaskDAO taskDAO) {
+        long now = System.currentTimeMillis();
+        long generation;
+        synchronized (entry) {
+            if (now < entry.overdueValidUntil) {
+                return entry.overdueTasks;
+            }
+            generation = entry.generation;
+        }
+        Timestamp time = new Timestamp(now);
+        int overdueTasks = taskDAO.countOverdueTasks(accountID, time);
+        Timestamp nextDeadline = taskDAO.findNextDeadline(accountID, time);
+        if (overdueTasks >= 0) {
+            synchronized (entry) {
+                if (entry.generation == generation) {
+                    entry.overdueTasks = overdueTasks;
+                    entry.overdueValidUntil = nextDeadline == null ? Long.MAX_VALUE : nextDeadline.getTime();
+                }
+            }
+        }
+        return Math.max(0, overdueTasks);
+    }
+
+    private static class Entry {
+        TaskStats stats;
+        long generation;
+        int overdueTasks;
+        long overdueValidUntil;
+    }
+}
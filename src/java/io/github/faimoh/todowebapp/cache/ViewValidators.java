@@ -0,0 +1,235 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.cache;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.TasksSummary;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional GETs for the pages users keep reloading, before the
+ * action runs. Each page gets an ETag. The pages also show the user's name
+ * and the dashboard the overdue count, which no modification time covers, so
+ * they get no Last-Modified and If-Modified-Since is not answered.
+ *
+ * The task pages are validated by the number of tasks of the account and the
+ * time of the newest change to them, read with one aggregate query and then
+ * kept in memory. The DAOs call tasksChanged() and accountChanged() on every
+ * write, so an unchanged page is answered with 304 without going to the
+ * database. Entries are dropped after maxAge, so changes made through other
+ * application nodes are picked up within that time.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ViewValidators {
+
+    private static final int TASKS_DASHBOARD = 1;
+    private static final int TASK_DETAILS = 2;
+    private static final int PROFILE = 3;
+
+    private static final ViewValidators viewValidators = new ViewValidators();
+
+    private final Map<String, Integer> views = new HashMap<String, Integer>();
+    private final ConcurrentHashMap<Integer, TasksState> tasks = new ConcurrentHashMap<Integer, TasksState>();
+    private final ConcurrentHashMap<Integer, AccountState> accounts = new ConcurrentHashMap<Integer, AccountState>();
+    //Keeps profile ETags from before a restart from matching ones after it.
+    private final String bootTag = Long.toString(System.currentTimeMillis(), 36);
+    private volatile long maxAgeMillis = 30 * 1000L;
+
+    private ViewValidators() {
+        views.put("GET/tasks/dashboard", TASKS_DASHBOARD);
+        views.put("GET/tasks/details", TASK_DETAILS);
+        views.put("GET/users/profile", PROFILE);
+    }
+
+    public static ViewValidators getInstance() {
+        return viewValidators;
+    }
+
+    public static void configure(int maxAgeSeconds) {
+        viewValidators.maxAgeMillis = maxAgeSeconds * 1000L;
+    }
+
+    /*
+    Sets the validators of the requested page on the response. Returns true if
+    the client's copy is still current, in which case 304 has been sent and the
+    action must not run.
+    */
+    public boolean isNotModified(HttpServletRequest request, HttpServletResponse response) {
+        Integer view = views.get(request.getMethod() + request.getPathInfo());
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        if (view == null || sessionUser == null) {
+            return false;
+        }
+        int accountID = sessionUser.getAccountID();
+        String etag;
+        if (view == PROFILE) {
+            etag = "p" + accountID + "-" + bootTag + "-" + getAccountVersion(accountID);
+        } else {
+            TasksState state = getTasksState(accountID);
+            if (state == null) {
+                return false;
+            }
+            etag = (view == TASKS_DASHBOARD ? "d" : "t" + request.getParameter("id") + "-")
+                    + accountID + "-" + state.count + "-" + state.lastModified;
+            if (view == TASKS_DASHBOARD) {
+                //The dashboard shows the overdue count, which changes as deadlines pass.
+                etag += "-" + TaskStatsCache.getInstance().getOverdueTasks(accountID);
+                //And lists only the tasks the tags filter selects.
+                String tags = request.getParameter("tags");
+                if (tags != null && !tags.trim().isEmpty()) {
+                    etag += "-" + digest(tags.trim());
+                }
+            }
+        }
+        //The pages greet the user by name, so a new name needs a new page.
+        etag = "W/\"" + etag + "-" + digest(String.valueOf(sessionUser.getDisplayName())) + "\"";
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    public void tasksChanged(int accountID) {
+        tasks.compute(accountID, (id, old) -> TasksState.invalid(old == null ? 1 : old.generation + 1));
+    }
+
+    public void accountChanged(int accountID) {
+        accounts.compute(accountID, (id, old) -> new AccountState(old == null ? 1 : old.version + 1, expiry()));
+    }
+
+    private TasksState getTasksState(int accountID) {
+        TasksState state = tasks.get(accountID);
+        if (state != null && state.isValid && state.expiresAt > System.currentTimeMillis()) {
+            return state;
+        }
+        TasksSummary summary = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO().getTasksSummary(accountID);
+        if (summary == null) {
+            return null;
+        }
+        long generation = state == null ? 0 : state.generation;
+        TasksState loaded = new TasksState(summary.getCount(), summary.getLastModified(), generation, expiry());
+        /*
+        A write may have happened while we were reading. Only keep what we read
+        if nothing was invalidated in the meantime, so a stale summary never
+        outlives a change.
+        */
+        if (state == null) {
+            tasks.putIfAbsent(accountID, loaded);
+        } else {
+            tasks.replace(accountID, state, loaded);
+        }
+        return loaded;
+    }
+
+    private long getAccountVersion(int accountID) {
+        AccountState state = accounts.get(accountID);
+        if (state == null || state.expiresAt <= System.currentTimeMillis()) {
+            accountChanged(accountID);
+            state = accounts.get(accountID);
+        }
+        return state.version;
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + maxAgeMillis;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+    SHA-256 of the text, so different filters or names never share an ETag
+    the way two strings with the same hashCode() would.
+    */
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            //Every Java platform has SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TasksState {
+        final int count;
+        final long lastModified;
+        final long generation;
+        final long expiresAt;
+        final boolean isValid;
+
+        TasksState(int count, long lastModified, long generation, long expiresAt) {
+            this(count, lastModified, generation, expiresAt, true);
+        }
+
+        private TasksState(int count, long lastModified, long generation, long expiresAt, boolean isValid) {
+            this.count = count;
+            this.lastModified = lastModified;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+            this.isValid = isValid;
+        }
+
+        static TasksState invalid(long generation) {
+            return new TasksState(0, 0, generation, 0, false);
+        }
+    }
+
+    private static class AccountState {
+        final long version;
+        final long expiresAt;
+
+        AccountState(long version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses a response with gzip once it is known to be worth it. The first
+ * threshold bytes of the body are held back. If the body ends before that, it
+ * is sent as is. Otherwise, if the content type is one that compresses well,
+ * the response is switched to gzip and everything goes through a
+ * GzipOutputStream. flush() decides right away, so streamed responses are
+ * never held back.
+ *
+ * Responses of asynchronous requests, event streams and anything written
+ * through a WriteListener go out uncompressed, straight to the container's
+ * stream, since gzip here is written blocking and ended by finish().
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class CompressionResponseWrapper extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+    private final DeflaterPool pool;
+    private final int threshold;
+    private final ByteArrayOutputStream held;
+    private OutputStream target = null;
+    private CompressingStream stream = null;
+    private PrintWriter writer = null;
+
+    public CompressionResponseWrapper(HttpServletRequest request, HttpServletResponse response, DeflaterPool pool, int threshold) {
+        super(response);
+        this.request = request;
+        this.pool = pool;
+        this.threshold = threshold;
+        this.held = new ByteArrayOutputStream(Math.max(threshold, 32));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new CompressingStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            stream = new CompressingStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    //The length of the body changes with compression. finish() sets it when we know it.
+    @Override
+    public void setContentLength(int length) {
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        } else {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        held.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        held.reset();
+    }
+
+    /*
+    Called by CompressionFilter after the rest of the chain. Sends what is
+    still held back, or ends the gzip stream.
+    */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            if (held.size() > 0) {
+                if (!isCommitted()) {
+                    super.setContentLength(held.size());
+                }
+                held.writeTo(super.getOutputStream());
+            }
+        } else {
+            target.close();
+        }
+    }
+
+    /*
+    Called by CompressionFilter when the rest of the chain threw. If gzip had
+    started, its Deflater goes back to the pool; the body is incomplete anyway.
+    */
+    public void abort() {
+        if (target instanceof GzipOutputStream) {
+            ((GzipOutputStream) target).abort();
+        }
+    }
+
+    /*
+    Called by CompressionFilter instead of finish() when the request went
+    asynchronous. What is held back is sent uncompressed and later writes go
+    straight through. Returns false if gzip had already started, in which case
+    finish() must still be called once the response is complete.
+    */
+    public boolean passThrough() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            target = super.getOutputStream();
+            held.writeTo(target);
+            held.reset();
+            target.flush();
+        }
+        return !(target instanceof GzipOutputStream);
+    }
+
+    private void decide() throws IOException {
+        if (isCompressible()) {
+            setHeader("Content-Encoding", "gzip");
+            //A strong ETag names exact bytes, so the gzip bytes need their own.
+            String etag = getHeader("ETag");
+            if (etag != null && etag.startsWith("\"") && etag.endsWith("\"")) {
+                setHeader("ETag", etag.substring(0, etag.length() - 1) + "-gzip\"");
+            }
+            target = new GzipOutputStream(super.getOutputStream(), pool);
+        } else {
+            target = super.getOutputStream();
+        }
+        held.writeTo(target);
+        held.reset();
+    }
+
+    private boolean isCompressible() {
+        if (isCommitted() || containsHeader("Content-Encoding") || request.isAsyncStarted()) {
+            return false;
+        }
+        int status = getStatus();
+        if (status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        contentType = contentType.toLowerCase();
+        //Events must reach the client as they are written.
+        if (contentType.startsWith("text/event-stream")) {
+            return false;
+        }
+        return contentType.startsWith("text/") || contentType.startsWith("application/json")
+                || contentType.startsWith("application/javascript") || contentType.contains("xml");
+    }
+
+    private class CompressingStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                if (held.size() + length <= threshold) {
+                    held.write(bytes, offset, length);
+                    return;
+                }
+                decide();
+            }
+            target.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                decide();
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            //The container may close the writer after a forward. finish() ends the body.
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return CompressionResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            //Non-blocking writes can't go through gzip, so they go straight through.
+            try {
+                passThrough();
+                CompressionResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
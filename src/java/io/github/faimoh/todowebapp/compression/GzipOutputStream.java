@@ -0,0 +1,116 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes gzip (RFC 1952) with a Deflater from a DeflaterPool.
+ * java.util.zip.GZIPOutputStream always creates its own Deflater, so it can't
+ * use a pooled one. flush() does a sync flush, so everything written so far
+ * can be decompressed by the client right away. The Deflater goes back to the
+ * pool on close(), or on abort() if the response fails before it is complete.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class GzipOutputStream extends DeflaterOutputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final DeflaterPool pool;
+    private final CRC32 crc = new CRC32();
+    private boolean closed = false;
+    private boolean aborted = false;
+
+    public GzipOutputStream(OutputStream out, DeflaterPool pool) throws IOException {
+        super(out, pool.borrow(), 4096, true);
+        this.pool = pool;
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        checkNotAborted();
+        super.write(bytes, offset, length);
+        crc.update(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkNotAborted();
+        super.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        checkNotAborted();
+        if (def.finished()) {
+            return;
+        }
+        super.finish();
+        long checksum = crc.getValue();
+        long size = def.getBytesRead();
+        out.write(new byte[]{
+            (byte) checksum, (byte) (checksum >> 8), (byte) (checksum >> 16), (byte) (checksum >> 24),
+            (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)});
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed || aborted) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+            out.close();
+        } finally {
+            pool.release(def);
+        }
+    }
+
+    /*
+    Gives the Deflater back to the pool without ending the gzip stream. Later
+    writes fail, since the Deflater may already be someone else's.
+    */
+    public void abort() {
+        if (closed || aborted) {
+            return;
+        }
+        aborted = true;
+        pool.release(def);
+    }
+
+    private void checkNotAborted() throws IOException {
+        if (aborted) {
+            throw new IOException("The gzip stream was aborted.");
+        }
+    }
+}
@@ -28,6 +28,9 @@ package io.github.faimoh.todowebapp.controllers;
 import io.github.faimoh.todowebapp.actions.ActionFactory;
 import io.github.faimoh.todowebapp.actions.Action;
 import io.github.faimoh.todowebapp.actions.ActionResponse;
+import io.github.faimoh.todowebapp.cache.ViewValidators;
+import io.github.faimoh.todowebapp.views.HtmlWriter;
+import io.github.faimoh.todowebapp.views.ViewFactory;
 import java.io.IOException;
 import java.io.PrintWriter;
 import javax.servlet.ServletException;
@@ -41,6 +44,9 @@ import java.util.*;
  * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  */
 public class Main extends HttpServlet {
+
+    private static final int VIEW_BUFFER_SIZE = 8192;
+
     /**
      * Processes requests for both HTTP <code>GET</code> and <code>POST</code>
      * methods.
@@ -52,12 +58,24 @@ public class Main extends HttpServlet {
      */
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        //Pages the client already has are answered before any action or DAO work.
+        if (ViewValidators.getInstance().isNotModified(request, response)) {
+            System.out.println(this.getClass().getCanonicalName() + ":notModified:" + request.getPathInfo());
+            return;
+        }
         Action action = ActionFactory.getAction(request);
         try {
             ActionResponse actionResponse = action.execute(request, response);
             if (actionResponse.getMethod().equalsIgnoreCase("forward")) {
                 System.out.println(this.getClass().getCanonicalName() + ":forward:" + actionResponse);
                 this.getServletContext().getRequestDispatcher(actionResponse.getViewPath()).forward(request, response);
+            } else if (actionResponse.getMethod().equalsIgnoreCase("render")) {
+                //Java views are compiled with the application, no JSP or EL work per request.
+                System.out.println(this.getClass().getCanonicalName() + ":render:" + actionResponse);
+                response.setContentType("text/html;charset=UTF-8");
+                HtmlWriter out = new HtmlWriter(request, response, VIEW_BUFFER_SIZE);
+                ViewFactory.getView(actionResponse.getViewPath()).render(request, out);
+                out.flush();
             } else if (actionResponse.getMethod().equalsIgnoreCase("redirect")) {
                 System.out.println(this.getClass().getCanonicalName() + ":redirect:" + actionResponse);
                 if (actionResponse.getViewPath().equals(request.getContextPath())) {                    
@@ -66,6 +84,9 @@ public class Main extends HttpServlet {
                     response.setDateHeader("Expires", 0);
                 }
                 response.sendRedirect(actionResponse.getViewPath());
+            } else if (actionResponse.getMethod().equalsIgnoreCase("write")) {
+                //The action has written the response body itself, for example JSON for the API.
+                System.out.println(this.getClass().getCanonicalName() + ":write:" + request.getPathInfo());
             } else if (actionResponse.getMethod().equalsIgnoreCase("error")) {
                 System.out.println(this.getClass().getCanonicalName() + ":error:" + actionResponse);
                 response.sendError(401);
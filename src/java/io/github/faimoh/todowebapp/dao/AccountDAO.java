@@ -27,6 +27,8 @@ package io.github.faimoh.todowebapp.dao;
 
 import java.util.ArrayList;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountList;
+import io.github.faimoh.todowebapp.model.AccountSessionState;
 
 /**
  *
@@ -38,7 +40,12 @@ public interface AccountDAO {
     public Boolean insertAccount(Account accnt);
     public Boolean updateAccount(Account accnt);
     public Boolean updateAccount(Account account, boolean resetPassword);    
+    //Stores account.getPassword(), which the caller has set to the hashed default.
     public Boolean resetPassword(Account account);
     public Boolean changePassword(Account account);
     public ArrayList<Account> getAllAccounts();
+    public AccountList getAccountList();
+    public AccountSessionState findSessionState(int accountID);
+    public Boolean revokeSessions(int accountID, long revokedAt);
+    public Boolean revokeToken(int accountID, String tokenID, long expiresAt);
 }
@@ -26,6 +26,7 @@
 package io.github.faimoh.todowebapp.dao;
 
 import io.github.faimoh.todowebapp.model.AccountSession;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 
 /**
@@ -38,4 +39,5 @@ public interface AccountSessionDAO {
     public AccountSession getAccountSession(String sessionID);
     public AccountSession findLastAccountSession(int accountID);
     public ArrayList<AccountSession> getAllAccountSessions(int accountID);
+    public int rollUpAccountSessions(Timestamp createdBefore, int batchSize);
 }
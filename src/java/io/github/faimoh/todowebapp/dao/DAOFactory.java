@@ -39,6 +39,8 @@ public abstract class DAOFactory {
     public abstract AccountDAO getAccountDAO();
     public abstract TaskDAO getTaskDAO();    
     public abstract AccountSessionDAO getAccountSessionDAO();
+    public abstract RoleDAO getRoleDAO();
+    public abstract LoginStatsDAO getLoginStatsDAO();
 
     public static DAOFactory getDAOFactory(int whichFactory) {
         switch (whichFactory) {
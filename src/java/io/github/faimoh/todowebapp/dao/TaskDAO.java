@@ -25,8 +25,12 @@
  */
 package io.github.faimoh.todowebapp.dao;
 
-import io.github.faimoh.todowebapp.model.Account;
 import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskList;
+import io.github.faimoh.todowebapp.model.TaskStats;
+import io.github.faimoh.todowebapp.model.TasksSummary;
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 
 /**
@@ -35,7 +39,48 @@ import java.util.ArrayList;
  */
 public interface TaskDAO {
     public Task findTask(int id);
+    public ArrayList<Task> findTasks(int accountID, int[] taskIDs);
+    public ArrayList<String> findTaskTags(int taskID);
+    public Boolean forEachTaskTag(int accountID, TaskTagHandler handler);
     public Boolean insertTask(Task task);
     public Boolean updateTask(Task task);    
-    public ArrayList<Task> getAllTasks(Account account);
+    public ArrayList<Task> getAllTasks(int accountID);
+    public TasksSummary getTasksSummary(int accountID);
+    public Boolean forEachTask(int accountID, TaskHandler handler) throws IOException;
+    public ArrayList<Task> getTasksPage(int accountID, boolean isArchived, int afterTaskID, int limit);
+    public Boolean forEachArchivedTask(int accountID, TaskHandler handler) throws IOException;
+    public TaskList getArchivedTasks(int accountID);
+    public ArrayList<Task> getTasksChangedSince(int accountID, Timestamp since, int afterTaskID, int limit);
+    public Boolean forEachTaskOfAllAccounts(TaskHandler handler) throws IOException;
+    public Boolean forEachTaskChangedSince(Timestamp since, TaskHandler handler) throws IOException;
+    public Boolean insertTasks(ArrayList<Task> tasks);
+    public int[] updateTasks(ArrayList<Task> tasks);
+    public Boolean deleteTask(int taskID, int accountID);
+    public int deleteCompletedTasks(int accountID);
+    public int purgeDeletedTasks(Timestamp deletedBefore, int batchSize);
+    public int archiveCompletedTasks(Timestamp completedBefore, int batchSize);
+    public Boolean addArchivePartitions(int fromMonth, int throughMonth);
+    public TaskStats getTaskStats(int accountID);
+    public int countOverdueTasks(int accountID, Timestamp now);
+    public Timestamp findNextDeadline(int accountID, Timestamp after);
+    public int getMaxAccountID();
+    public ArrayList<Integer> reconcileTaskStats(int fromAccountID, int toAccountID);
+    public ArrayList<Integer> getTaskStatusIDs();
+    public ArrayList<Integer> getTaskPriorityIDs();
+
+    /*
+    Receives the tasks of the forEach methods one row at a time. The same Task object
+    is reused for every row, so a handler must not keep it.
+    */
+    public interface TaskHandler {
+        public void handle(Task task) throws IOException;
+    }
+
+    /*
+    Receives each tag of each live task of an account, and a null tag once
+    for a task without tags.
+    */
+    public interface TaskTagHandler {
+        public void handle(int taskID, String tag);
+    }
 }
@@ -25,7 +25,10 @@
  */
 package io.github.faimoh.todowebapp.dao.mysql;
 
+import io.github.faimoh.todowebapp.cache.ViewValidators;
 import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.model.AccountList;
+import io.github.faimoh.todowebapp.model.AccountSessionState;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.mysql.MySQLDataSourceDAOFactory;
@@ -135,6 +138,35 @@ public class MySQLDataSourceAccountDAO implements AccountDAO {
         }
     }
 
+    /*
+    The accounts as the dashboard shows them, without password hashes, in an
+    AccountList.
+    */
+    public AccountList getAccountList() {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT account_id, username, first_name, last_name, created_at, status_id FROM accounts";
+        try {
+            ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+            AccountList accounts = new AccountList();
+            while (rs.next()) {
+                accounts.add(rs.getInt("account_id"), rs.getString("username"), rs.getString("first_name"),
+                        rs.getString("last_name"), rs.getTimestamp("created_at"), rs.getInt("status_id"));
+            }
+            return accounts;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
     public Boolean insertAccount(Account account) {
         MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
         Connection connection = mysqlDSDAOFactory.getConnection();
@@ -165,13 +197,15 @@ public class MySQLDataSourceAccountDAO implements AccountDAO {
         PreparedStatement ps = null;
         ResultSet rs = null;
         
-        String query = "UPDATE ACCOUNTS SET password=DEFAULT WHERE account_id=?";
+        String query = "UPDATE ACCOUNTS SET password=? WHERE account_id=?";
         
         try {
             ps = connection.prepareStatement(query);
-            ps.setInt(1, account.getAccountID());
+            ps.setString(1, account.getPassword());
+            ps.setInt(2, account.getAccountID());
             
             ps.executeUpdate();
+            ViewValidators.getInstance().accountChanged(account.getAccountID());
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -207,6 +241,7 @@ public class MySQLDataSourceAccountDAO implements AccountDAO {
             ps.setString(2, account.getLastName());
             ps.setInt(3, account.getStatusID());
             ps.executeUpdate();
+            ViewValidators.getInstance().accountChanged(account.getAccountID());
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -230,6 +265,106 @@ public class MySQLDataSourceAccountDAO implements AccountDAO {
             ps.setInt(2, account.getAccountID());
             ps.setString(1, account.getPassword());           
             ps.executeUpdate();
+            ViewValidators.getInstance().accountChanged(account.getAccountID());
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Reads the account's revocation time, status and grants version with its
+    logged out tokens that haven't expired, in one query. Returns null if the account
+    doesn't exist or on error.
+    */
+    public AccountSessionState findSessionState(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT a.sessions_revoked_at, a.status_id, a.grants_version, r.token_id FROM accounts a"
+                + " LEFT JOIN revoked_tokens r ON r.account_id=a.account_id AND r.expires_at>?"
+                + " WHERE a.account_id=?";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            ps.setInt(2, accountID);
+            rs = ps.executeQuery();
+            AccountSessionState state = null;
+            long revokedAt = 0;
+            boolean isDisabled = false;
+            int grantsVersion = 0;
+            HashSet<String> tokenIDs = new HashSet<String>();
+            boolean isFound = false;
+            while (rs.next()) {
+                isFound = true;
+                Timestamp sessionsRevokedAt = rs.getTimestamp("sessions_revoked_at");
+                revokedAt = sessionsRevokedAt == null ? 0 : sessionsRevokedAt.getTime();
+                isDisabled = rs.getInt("status_id") == 2;
+                grantsVersion = rs.getInt("grants_version");
+                String tokenID = rs.getString("token_id");
+                if (tokenID != null) {
+                    tokenIDs.add(tokenID);
+                }
+            }
+            if (isFound) {
+                state = new AccountSessionState(revokedAt, isDisabled, tokenIDs, grantsVersion);
+            }
+            return state;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    public Boolean revokeSessions(int accountID, long revokedAt) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        //Never moves back, in case nodes' clocks differ.
+        String query = "UPDATE accounts SET sessions_revoked_at=?"
+                + " WHERE account_id=? AND (sessions_revoked_at IS NULL OR sessions_revoked_at<?)";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, new Timestamp(revokedAt));
+            ps.setInt(2, accountID);
+            ps.setTimestamp(3, new Timestamp(revokedAt));
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Records a logged out stateless token until it would have expired anyway.
+    The account's tokens that expired by now are removed on the way.
+    */
+    public Boolean revokeToken(int accountID, String tokenID, long expiresAt) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        try {
+            ps = connection.prepareStatement("DELETE FROM revoked_tokens WHERE account_id=? AND expires_at<=?");
+            ps.setInt(1, accountID);
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+            ps = connection.prepareStatement("INSERT IGNORE INTO revoked_tokens (token_id, account_id, expires_at) VALUES (?, ?, ?)");
+            ps.setString(1, tokenID);
+            ps.setInt(2, accountID);
+            ps.setTimestamp(3, new Timestamp(expiresAt));
+            ps.executeUpdate();
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
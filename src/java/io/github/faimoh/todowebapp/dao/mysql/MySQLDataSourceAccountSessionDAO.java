@@ -25,9 +25,12 @@
  */
 package io.github.faimoh.todowebapp.dao.mysql;
 
+import io.github.faimoh.todowebapp.cache.ViewValidators;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
 import io.github.faimoh.todowebapp.model.AccountSession;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.sql.*;
 
 /**
@@ -80,6 +83,8 @@ public class MySQLDataSourceAccountSessionDAO implements AccountSessionDAO {
                 ps.setInt(2, accountSession.getAccountID());
                 ps.setTimestamp(3, accountSession.getSessionCreated());
                 ps.executeUpdate();
+                //The profile page shows the previous session, which has just changed.
+                ViewValidators.getInstance().accountChanged(accountSession.getAccountID());
                 return true;
             } catch (Exception e) {
                 e.printStackTrace();
@@ -117,10 +122,143 @@ public class MySQLDataSourceAccountSessionDAO implements AccountSessionDAO {
     }
 
     public AccountSession getAccountSession(String sessionID) {
-        return new AccountSession();
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT * FROM account_sessions WHERE session_id=?";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setString(1, sessionID);
+            rs = ps.executeQuery();
+            AccountSession accountSession = null;
+            if (rs.next()) {
+                accountSession = new AccountSession();
+                accountSession.setAccountID(rs.getInt("account_id"));
+                accountSession.setSessionID(rs.getString("session_id"));
+                accountSession.setSessionCreated(rs.getTimestamp("session_created"));
+                accountSession.setSessionEnd(rs.getTimestamp("session_end"));
+            }
+            return accountSession;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
     }
 
     public ArrayList<AccountSession> getAllAccountSessions(int accountID) {
-        return new ArrayList();
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT * FROM account_sessions WHERE account_id=? ORDER BY session_created DESC";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            rs = ps.executeQuery();
+            ArrayList<AccountSession> accountSessionsList = new ArrayList<AccountSession>();
+            while (rs.next()) {
+                AccountSession accountSession = new AccountSession();
+                accountSession.setAccountID(rs.getInt("account_id"));
+                accountSession.setSessionID(rs.getString("session_id"));
+                accountSession.setSessionCreated(rs.getTimestamp("session_created"));
+                accountSession.setSessionEnd(rs.getTimestamp("session_end"));
+                accountSessionsList.add(accountSession);
+            }
+            return accountSessionsList;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Rolls up to batchSize sessions created before createdBefore into the
+    per-account, per-day totals of account_session_days and deletes them,
+    oldest first. Both happen in one transaction, so a session is counted
+    exactly once even if a run is interrupted. Returns how many sessions were
+    rolled up, or -1 on error.
+    */
+    public int rollUpAccountSessions(Timestamp createdBefore, int batchSize) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT session_id, account_id, session_created, session_end FROM account_sessions"
+                + " WHERE session_created<? ORDER BY session_created LIMIT ? FOR UPDATE";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, createdBefore);
+            ps.setInt(2, batchSize);
+            rs = ps.executeQuery();
+            ArrayList<String> sessionIDs = new ArrayList<String>();
+            //Keyed by account ID and day: logins, ended sessions, seconds.
+            Map<String, long[]> days = new HashMap<String, long[]>();
+            while (rs.next()) {
+                sessionIDs.add(rs.getString("session_id"));
+                Timestamp created = rs.getTimestamp("session_created");
+                Timestamp ended = rs.getTimestamp("session_end");
+                long[] totals = days.computeIfAbsent(rs.getInt("account_id") + " " + created.toLocalDateTime().toLocalDate(),
+                        k -> new long[3]);
+                totals[0]++;
+                if (ended != null && !ended.before(created)) {
+                    totals[1]++;
+                    totals[2] += (ended.getTime() - created.getTime()) / 1000;
+                }
+            }
+            if (sessionIDs.isEmpty()) {
+                connection.commit();
+                return 0;
+            }
+            ps = connection.prepareStatement("INSERT INTO account_session_days"
+                    + " (account_id, day, logins, ended_sessions, session_seconds) VALUES (?, ?, ?, ?, ?)"
+                    + " ON DUPLICATE KEY UPDATE logins=logins+VALUES(logins),"
+                    + " ended_sessions=ended_sessions+VALUES(ended_sessions),"
+                    + " session_seconds=session_seconds+VALUES(session_seconds)");
+            for (Map.Entry<String, long[]> day : days.entrySet()) {
+                String[] key = day.getKey().split(" ");
+                ps.setInt(1, Integer.parseInt(key[0]));
+                ps.setDate(2, java.sql.Date.valueOf(key[1]));
+                ps.setLong(3, day.getValue()[0]);
+                ps.setLong(4, day.getValue()[1]);
+                ps.setLong(5, day.getValue()[2]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            ps = connection.prepareStatement("DELETE FROM account_sessions WHERE session_id=?");
+            for (String sessionID : sessionIDs) {
+                ps.setString(1, sessionID);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            connection.commit();
+            return sessionIDs.size();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                rollbackException.printStackTrace();
+            }
+            return -1;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
     }
 }
@@ -29,6 +29,8 @@ import io.github.faimoh.todowebapp.dao.TaskDAO;
 import io.github.faimoh.todowebapp.dao.AccountDAO;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
+import io.github.faimoh.todowebapp.dao.RoleDAO;
+import io.github.faimoh.todowebapp.dao.LoginStatsDAO;
 import java.sql.*;
 import javax.sql.DataSource;
 import javax.naming.InitialContext;
@@ -86,4 +88,12 @@ public class MySQLDataSourceDAOFactory extends DAOFactory {
     public AccountSessionDAO getAccountSessionDAO() {
         return new MySQLDataSourceAccountSessionDAO();
     }
+    
+    public RoleDAO getRoleDAO() {
+        return new MySQLDataSourceRoleDAO();
+    }
+    
+    public LoginStatsDAO getLoginStatsDAO() {
+        return new MySQLDataSourceLoginStatsDAO();
+    }
 }
@@ -0,0 +1,110 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.dao.mysql;
+
+import io.github.faimoh.todowebapp.dao.LoginStatsDAO;
+import io.github.faimoh.todowebapp.model.LoginStats;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.sql.*;
+
+/**
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class MySQLDataSourceLoginStatsDAO implements LoginStatsDAO {
+
+    public ArrayList<LoginStats> getHourlyLoginStats(Timestamp from) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT hour_start, logins, ended_sessions, session_seconds, active_users"
+                + " FROM login_stats_hourly WHERE hour_start>=? ORDER BY hour_start";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, from);
+            rs = ps.executeQuery();
+            ArrayList<LoginStats> hours = new ArrayList<LoginStats>();
+            while (rs.next()) {
+                LoginStats loginStats = new LoginStats();
+                loginStats.setPeriodStart(rs.getTimestamp("hour_start"));
+                loginStats.setLogins(rs.getInt("logins"));
+                loginStats.setEndedSessions(rs.getInt("ended_sessions"));
+                loginStats.setSessionSeconds(rs.getLong("session_seconds"));
+                loginStats.setActiveUsers(rs.getInt("active_users"));
+                hours.add(loginStats);
+            }
+            return hours;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Each hour holds what a node counted since it last saved that hour, so it is
+    added to the saved row, and every node's counts end up in it. Active users
+    can't be added up, since nodes see some of the same accounts, so the row
+    keeps the most any node has seen.
+    */
+    public Boolean saveHourlyLoginStats(Collection<LoginStats> hours) {
+        if (hours == null || hours.isEmpty()) {
+            return true;
+        }
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        String query = "INSERT INTO login_stats_hourly"
+                + " (hour_start, logins, ended_sessions, session_seconds, active_users) VALUES (?, ?, ?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE logins=logins+VALUES(logins), ended_sessions=ended_sessions+VALUES(ended_sessions),"
+                + " session_seconds=session_seconds+VALUES(session_seconds), active_users=GREATEST(active_users, VALUES(active_users))";
+
+        try {
+            ps = connection.prepareStatement(query);
+            for (LoginStats loginStats : hours) {
+                ps.setTimestamp(1, loginStats.getPeriodStart());
+                ps.setInt(2, loginStats.getLogins());
+                ps.setInt(3, loginStats.getEndedSessions());
+                ps.setLong(4, loginStats.getSessionSeconds());
+                ps.setInt(5, loginStats.getActiveUsers());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.dao.mysql;
+
+import io.github.faimoh.todowebapp.dao.RoleDAO;
+import io.github.faimoh.todowebapp.model.Role;
+import java.sql.*;
+import java.util.ArrayList;
+
+/**
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class MySQLDataSourceRoleDAO implements RoleDAO {
+
+    //Each role with its permissions folded into one bitmask.
+    private static final String ROLES_QUERY = "SELECT r.role_id, r.name,"
+            + " COALESCE(BIT_OR(1 << (rp.permission_id - 1)), 0) AS permissions"
+            + " FROM roles r LEFT JOIN role_permissions rp ON rp.role_id = r.role_id";
+
+    public ArrayList<Role> getAllRoles() {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = ROLES_QUERY + " GROUP BY r.role_id, r.name ORDER BY r.role_id";
+        try {
+            ps = connection.prepareStatement(query);
+            rs = ps.executeQuery();
+            return readRoles(rs);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    public ArrayList<Role> findAccountRoles(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = ROLES_QUERY + " JOIN account_roles ar ON ar.role_id = r.role_id"
+                + " WHERE ar.account_id = ? GROUP BY r.role_id, r.name ORDER BY r.role_id";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            rs = ps.executeQuery();
+            return readRoles(rs);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Replaces the roles of the account with the ones set in the bitmask.
+    */
+    public Boolean updateAccountRoles(int accountID, int roles) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement("DELETE FROM account_roles WHERE account_id=?");
+            ps.setInt(1, accountID);
+            ps.executeUpdate();
+            ps = connection.prepareStatement("INSERT INTO account_roles (account_id, role_id) VALUES (?, ?)");
+            for (int roleID = 1; roleID <= Integer.SIZE; roleID++) {
+                if ((roles & (1 << (roleID - 1))) != 0) {
+                    ps.setInt(1, accountID);
+                    ps.setInt(2, roleID);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+            //Tells every node that principals built from the old roles are stale.
+            ps = connection.prepareStatement("UPDATE accounts SET grants_version=grants_version+1 WHERE account_id=?");
+            ps.setInt(1, accountID);
+            ps.executeUpdate();
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            try {
+                connection.rollback();
+            } catch (SQLException re) {
+                re.printStackTrace();
+            }
+            return false;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    private ArrayList<Role> readRoles(ResultSet rs) throws SQLException {
+        ArrayList<Role> rolesList = new ArrayList<Role>();
+        while (rs.next()) {
+            Role role = new Role();
+            role.setRoleID(rs.getInt("role_id"));
+            role.setName(rs.getString("name"));
+            role.setPermissions(rs.getLong("permissions"));
+            rolesList.add(role);
+        }
+        return rolesList;
+    }
+}
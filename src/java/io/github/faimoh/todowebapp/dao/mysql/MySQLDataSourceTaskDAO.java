@@ -25,16 +25,30 @@
  */
 package io.github.faimoh.todowebapp.dao.mysql;
 
-import io.github.faimoh.todowebapp.model.Account;
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.cache.TaskStatsCache;
+import io.github.faimoh.todowebapp.cache.ViewValidators;
 import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.model.TaskList;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.model.TaskStats;
+import io.github.faimoh.todowebapp.model.TasksSummary;
 import io.github.faimoh.todowebapp.dao.DAOFactory;
 import io.github.faimoh.todowebapp.dao.TaskDAO;
 import io.github.faimoh.todowebapp.dao.mysql.MySQLDataSourceDAOFactory;
+import io.github.faimoh.todowebapp.search.TaskSearchIndex;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.sql.Timestamp;
 
 /**
@@ -43,15 +57,25 @@ import java.sql.Timestamp;
  */
 public class MySQLDataSourceTaskDAO implements TaskDAO {
 
-    public ArrayList<Task> getAllTasks(Account account) {        
+    //The status a new task gets from the column default.
+    private static final int NEW_TASK_STATUS = TaskStatus.TODO.getID();
+    private static final int DONE_STATUS = TaskStatus.DONE.getID();
+    //The columns tasks and tasks_archive have in common.
+    private static final String TASK_COLUMNS = "task_id, account_id, details, status_id, priority_id, created_at, deadline, last_updated";
+    //A task's tag names, separated by spaces, which tags never contain. Append the tags table and the task's table.
+    private static final String TAG_NAMES = "(SELECT GROUP_CONCAT(g.name ORDER BY g.name SEPARATOR ' ') FROM tags g JOIN ";
+    private static final String LIVE_TAG_NAMES = TAG_NAMES
+            + "task_tags tt ON tt.tag_id=g.tag_id WHERE tt.task_id=tasks.task_id) AS tags";
+    private static final String ARCHIVED_TAG_NAMES = TAG_NAMES
+            + "task_tags_archive tt ON tt.tag_id=g.tag_id WHERE tt.task_id=tasks_archive.task_id) AS tags";
+
+    public ArrayList<Task> getAllTasks(int accountID) {        
         MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
         Connection connection = mysqlDSDAOFactory.getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
 
-        int accountID = account.getAccountID();
-
-        String query = "SELECT * FROM tasks WHERE account_id=?";
+        String query = "SELECT * FROM tasks WHERE account_id=? AND deleted_at IS NULL";
         try {
             ps = connection.prepareStatement(query);
             ps.setInt(1, accountID);
@@ -79,13 +103,297 @@ public class MySQLDataSourceTaskDAO implements TaskDAO {
         }
     }
 
+    public TasksSummary getTasksSummary(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT COUNT(*) AS task_count,"
+                + " MAX(GREATEST(created_at, COALESCE(last_updated, created_at))) AS last_modified"
+                + " FROM tasks WHERE account_id=? AND deleted_at IS NULL";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            rs = ps.executeQuery();
+            rs.next();
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            return new TasksSummary(rs.getInt("task_count"), lastModified == null ? 0 : lastModified.getTime());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Streams the account's live tasks without their tags.
+    */
+    public Boolean forEachTask(int accountID, TaskHandler handler) throws IOException {
+        String query = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE account_id=? AND deleted_at IS NULL";
+        return streamTasks(query, accountID, 1, false, handler);
+    }
+
+    /*
+    Reads up to limit of the account's live or archived tasks with their tags,
+    in task ID order after afterTaskID, into memory, so the connection is given
+    back before they are written to what may be a slow client. Archived tasks
+    have the tags they had when they were archived. Returns null on error.
+    */
+    public ArrayList<Task> getTasksPage(int accountID, boolean isArchived, int afterTaskID, int limit) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = isArchived
+                ? "SELECT " + TASK_COLUMNS + ", " + ARCHIVED_TAG_NAMES + " FROM tasks_archive WHERE account_id=? AND task_id>?"
+                : "SELECT " + TASK_COLUMNS + ", " + LIVE_TAG_NAMES + " FROM tasks WHERE account_id=? AND task_id>? AND deleted_at IS NULL";
+        query += " ORDER BY task_id LIMIT ?";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            ps.setInt(2, afterTaskID);
+            ps.setInt(3, limit);
+            rs = ps.executeQuery();
+            ArrayList<Task> tasks = new ArrayList<Task>();
+            while (rs.next()) {
+                Task task = readTask(rs);
+                task.setTags(tagList(rs.getString("tags")));
+                tasks.add(task);
+            }
+            return tasks;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Streams the account's archived tasks with their tags, most recently
+    completed first.
+    */
+    public Boolean forEachArchivedTask(int accountID, TaskHandler handler) throws IOException {
+        String query = "SELECT " + TASK_COLUMNS + ", " + ARCHIVED_TAG_NAMES + " FROM tasks_archive WHERE account_id=?"
+                + " ORDER BY completed_month DESC, last_updated DESC";
+        return streamTasks(query, accountID, 1, true, handler);
+    }
+
+    /*
+    Reads the account's archived tasks with their tags, most recently
+    completed first, into a TaskList, so the page holds them without a Task per
+    row. Returns null on error.
+    */
+    public TaskList getArchivedTasks(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT " + TASK_COLUMNS + ", " + ARCHIVED_TAG_NAMES + " FROM tasks_archive WHERE account_id=?"
+                + " ORDER BY completed_month DESC, last_updated DESC";
+
+        try {
+            ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setInt(1, accountID);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+            TaskList tasks = new TaskList();
+            while (rs.next()) {
+                tasks.add(rs.getInt("task_id"), rs.getInt("account_id"), rs.getString("details"),
+                        rs.getInt("status_id"), rs.getInt("priority_id"), rs.getTimestamp("created_at"),
+                        rs.getTimestamp("deadline"), rs.getTimestamp("last_updated"), rs.getString("tags"));
+            }
+            return tasks;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Runs a query whose parameters are all the account ID and hands each row to
+    the handler. With hasTags, the query reads a tags column of tag names and
+    the tasks carry them.
+    */
+    private Boolean streamTasks(String query, int accountID, int parameters, boolean hasTags, TaskHandler handler) throws IOException {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 1; i <= parameters; i++) {
+                ps.setInt(i, accountID);
+            }
+            //Hint the driver to stream rows instead of reading the whole result first.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+            Task task = new Task();
+            while (rs.next()) {
+                task.setTaskID(rs.getInt("task_id"));
+                task.setAccountID(rs.getInt("account_id"));
+                task.setDetails(rs.getString("details"));
+                task.setStatusID(rs.getInt("status_id"));
+                task.setPriorityID(rs.getInt("priority_id"));
+                task.setCreatedAt(rs.getTimestamp("created_at"));
+                task.setDeadline(rs.getTimestamp("deadline"));
+                task.setLastUpdated(rs.getTimestamp("last_updated"));
+                if (hasTags) {
+                    task.setTags(tagList(rs.getString("tags")));
+                }
+                handler.handle(task);
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    private static Task readTask(ResultSet rs) throws SQLException {
+        Task task = new Task();
+        task.setTaskID(rs.getInt("task_id"));
+        task.setAccountID(rs.getInt("account_id"));
+        task.setDetails(rs.getString("details"));
+        task.setStatusID(rs.getInt("status_id"));
+        task.setPriorityID(rs.getInt("priority_id"));
+        task.setCreatedAt(rs.getTimestamp("created_at"));
+        task.setDeadline(rs.getTimestamp("deadline"));
+        task.setLastUpdated(rs.getTimestamp("last_updated"));
+        return task;
+    }
+
+    private static ArrayList<String> tagList(String tagNames) {
+        ArrayList<String> tags = new ArrayList<String>();
+        if (tagNames != null) {
+            tags.addAll(Arrays.asList(tagNames.split(" ")));
+        }
+        return tags;
+    }
+
+    /*
+    Reads up to limit tasks created, updated or deleted from position on, in
+    the order they changed, into memory, so the connection is given back
+    before they are written to what may be a slow client. A task's change time
+    is its last_updated, or its created_at if it was never updated, and the
+    position is a change time and the task ID after which to go on, 0 to
+    start at that time. The tasks are found along the
+    (account_id, last_updated, created_at) index, the never updated ones in a
+    second range of it. Deleted tasks come with their deletedAt set, until
+    they are purged. Returns null on error.
+    */
+    public ArrayList<Task> getTasksChangedSince(int accountID, Timestamp since, int afterTaskID, int limit) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "(SELECT *, last_updated AS changed_at FROM tasks"
+                + " WHERE account_id=? AND (last_updated>? OR (last_updated=? AND task_id>?))"
+                + " ORDER BY last_updated, task_id LIMIT ?)"
+                + " UNION ALL"
+                + " (SELECT *, created_at AS changed_at FROM tasks"
+                + " WHERE account_id=? AND last_updated IS NULL AND (created_at>? OR (created_at=? AND task_id>?))"
+                + " ORDER BY created_at, task_id LIMIT ?)"
+                + " ORDER BY changed_at, task_id LIMIT ?";
+        try {
+            ps = connection.prepareStatement(query);
+            for (int range = 0; range < 2; range++) {
+                ps.setInt(range * 5 + 1, accountID);
+                ps.setTimestamp(range * 5 + 2, since);
+                ps.setTimestamp(range * 5 + 3, since);
+                ps.setInt(range * 5 + 4, afterTaskID);
+                ps.setInt(range * 5 + 5, limit);
+            }
+            ps.setInt(11, limit);
+            rs = ps.executeQuery();
+            ArrayList<Task> tasks = new ArrayList<Task>();
+            while (rs.next()) {
+                Task task = readTask(rs);
+                task.setDeletedAt(rs.getTimestamp("deleted_at"));
+                tasks.add(task);
+            }
+            return tasks;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Streams the live and archived tasks of every account, for the admin
+    reports. Only the columns the reports use are read; details is left null.
+    */
+    public Boolean forEachTaskOfAllAccounts(TaskHandler handler) throws IOException {
+        String columns = "task_id, account_id, status_id, priority_id, created_at, deadline, last_updated, NULL AS deleted_at";
+        return streamAllTasks("SELECT " + columns + " FROM tasks WHERE deleted_at IS NULL"
+                + " UNION ALL SELECT " + columns + " FROM tasks_archive", null, handler);
+    }
+
+    /*
+    Streams the tasks of every account created, updated or deleted at or after
+    since, along the (last_updated, created_at) index, with the never updated
+    ones in a second range of it. details is left null.
+    */
+    public Boolean forEachTaskChangedSince(Timestamp since, TaskHandler handler) throws IOException {
+        String columns = "task_id, account_id, status_id, priority_id, created_at, deadline, last_updated, deleted_at";
+        return streamAllTasks("SELECT " + columns + " FROM tasks WHERE last_updated>=?"
+                + " UNION ALL SELECT " + columns + " FROM tasks WHERE last_updated IS NULL AND created_at>=?", since, handler);
+    }
+
+    private Boolean streamAllTasks(String query, Timestamp since, TaskHandler handler) throws IOException {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (since != null) {
+                ps.setTimestamp(1, since);
+                ps.setTimestamp(2, since);
+            }
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+            Task task = new Task();
+            while (rs.next()) {
+                task.setTaskID(rs.getInt("task_id"));
+                task.setAccountID(rs.getInt("account_id"));
+                task.setStatusID(rs.getInt("status_id"));
+                task.setPriorityID(rs.getInt("priority_id"));
+                task.setCreatedAt(rs.getTimestamp("created_at"));
+                task.setDeadline(rs.getTimestamp("deadline"));
+                task.setLastUpdated(rs.getTimestamp("last_updated"));
+                task.setDeletedAt(rs.getTimestamp("deleted_at"));
+                handler.handle(task);
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
     public Task findTask(int id) {
         MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
         Connection connection = mysqlDSDAOFactory.getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         
-        String query = "SELECT * FROM tasks WHERE task_id=?";
+        String query = "SELECT * FROM tasks WHERE task_id=? AND deleted_at IS NULL";
         try {
             ps = connection.prepareStatement(query);
             ps.setInt(1, id);
@@ -111,6 +419,104 @@ public class MySQLDataSourceTaskDAO implements TaskDAO {
         }
     }
 
+    /*
+    Reads the account's live tasks among taskIDs, in no particular order.
+    IDs of tasks that are gone or belong to another account are skipped.
+    */
+    public ArrayList<Task> findTasks(int accountID, int[] taskIDs) {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        if (taskIDs.length == 0) {
+            return tasks;
+        }
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE account_id=? AND task_id IN ("
+                + placeholders(taskIDs.length) + ") AND deleted_at IS NULL";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            for (int i = 0; i < taskIDs.length; i++) {
+                ps.setInt(i + 2, taskIDs[i]);
+            }
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Task task = new Task();
+                task.setTaskID(rs.getInt("task_id"));
+                task.setAccountID(rs.getInt("account_id"));
+                task.setDetails(rs.getString("details"));
+                task.setStatusID(rs.getInt("status_id"));
+                task.setPriorityID(rs.getInt("priority_id"));
+                task.setCreatedAt(rs.getTimestamp("created_at"));
+                task.setDeadline(rs.getTimestamp("deadline"));
+                task.setLastUpdated(rs.getTimestamp("last_updated"));
+                tasks.add(task);
+            }
+            return tasks;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    public ArrayList<String> findTaskTags(int taskID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT g.name FROM task_tags tt JOIN tags g ON g.tag_id=tt.tag_id WHERE tt.task_id=? ORDER BY g.name";
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, taskID);
+            rs = ps.executeQuery();
+            ArrayList<String> tags = new ArrayList<String>();
+            while (rs.next()) {
+                tags.add(rs.getString("name"));
+            }
+            return tags;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Streams the tags of the account's live tasks, one row per tag, for
+    TaskTagIndex. Tasks without tags come once with a null tag.
+    */
+    public Boolean forEachTaskTag(int accountID, TaskTagHandler handler) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT t.task_id, g.name FROM tasks t"
+                + " LEFT JOIN task_tags tt ON tt.task_id=t.task_id LEFT JOIN tags g ON g.tag_id=tt.tag_id"
+                + " WHERE t.account_id=? AND t.deleted_at IS NULL";
+        try {
+            ps = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setInt(1, accountID);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                handler.handle(rs.getInt("task_id"), rs.getString("name"));
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
     public Boolean insertTask(Task task) {
         MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
         Connection connection = mysqlDSDAOFactory.getConnection();
@@ -120,18 +526,37 @@ public class MySQLDataSourceTaskDAO implements TaskDAO {
         String query = "INSERT INTO TASKS (account_id, details, deadline, priority_id) VALUES (?, ?, ?, ?)";
 
         try {
-            ps = connection.prepareStatement(query);
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
             ps.setInt(1, task.getAccountID());
             ps.setString(2, task.getDetails());
             ps.setTimestamp(3, task.getDeadline());
             ps.setInt(4, task.getPriorityID());
 
             ps.executeUpdate();
+            rs = ps.getGeneratedKeys();
+            if (rs.next()) {
+                task.setTaskID(rs.getInt(1));
+            }
+            if (task.getTags() != null) {
+                saveTaskTags(connection, task.getAccountID(), task.getTaskID(), task.getTags());
+            }
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            statsChanges.add(task.getAccountID(), NEW_TASK_STATUS, task.getPriorityID(), 1);
+            statsChanges.save(connection);
+            connection.commit();
+            statsChanges.publish();
+            ViewValidators.getInstance().tasksChanged(task.getAccountID());
+            TaskSearchIndex.getInstance().taskChanged(task);
+            TaskTagIndex.getInstance().taskTagged(task.getAccountID(), task.getTaskID(),
+                    task.getTags() != null ? task.getTags() : new ArrayList<String>());
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
+            rollback(connection);
             return false;
         } finally {
+            resetAutoCommit(connection);
             mysqlDSDAOFactory.freeConnection(connection);
         }
     }
@@ -142,12 +567,24 @@ public class MySQLDataSourceTaskDAO implements TaskDAO {
         PreparedStatement ps = null;
         ResultSet rs = null;
 
-        String query = "UPDATE TASKS SET last_updated=?, details=?, status_id=?, deadline=?, priority_id=? WHERE task_id=?";
+        String query = "UPDATE TASKS SET last_updated=?, details=?, status_id=?, deadline=?, priority_id=? WHERE task_id=? AND deleted_at IS NULL";
 
         try {
             if (task == null) {
                 return false;
             } else {
+                //The old status and priority are locked with the row, so the counters move from them.
+                connection.setAutoCommit(false);
+                ps = connection.prepareStatement("SELECT account_id, status_id, priority_id FROM tasks"
+                        + " WHERE task_id=? AND deleted_at IS NULL FOR UPDATE");
+                ps.setInt(1, task.getTaskID());
+                rs = ps.executeQuery();
+                TaskStatsChanges statsChanges = new TaskStatsChanges();
+                boolean isFound = rs.next();
+                if (isFound) {
+                    statsChanges.add(rs.getInt("account_id"), rs.getInt("status_id"), rs.getInt("priority_id"), -1);
+                    statsChanges.add(rs.getInt("account_id"), task.getStatusID(), task.getPriorityID(), 1);
+                }
                 ps = connection.prepareStatement(query);
                 ps.setInt(6, task.getTaskID());                
                 ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
@@ -156,13 +593,739 @@ public class MySQLDataSourceTaskDAO implements TaskDAO {
                 ps.setTimestamp(4, task.getDeadline());
                 ps.setInt(5, task.getPriorityID());
                 ps.executeUpdate();
+                if (isFound && task.getTags() != null) {
+                    saveTaskTags(connection, task.getAccountID(), task.getTaskID(), task.getTags());
+                }
+                statsChanges.save(connection);
+                connection.commit();
+                statsChanges.publish();
+                TaskRowCache.getInstance().taskChanged(task.getTaskID());
+                ViewValidators.getInstance().tasksChanged(task.getAccountID());
+                if (isFound) {
+                    TaskSearchIndex.getInstance().taskChanged(task);
+                    if (task.getTags() != null) {
+                        TaskTagIndex.getInstance().taskTagged(task.getAccountID(), task.getTaskID(), task.getTags());
+                    }
+                }
                 return true;
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            rollback(connection);
+            return false;
+        } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Inserts all tasks in one batch and one transaction. Sets the new task IDs.
+    */
+    public Boolean insertTasks(ArrayList<Task> tasks) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "INSERT INTO TASKS (account_id, details, deadline, priority_id) VALUES (?, ?, ?, ?)";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            for (Task task : tasks) {
+                ps.setInt(1, task.getAccountID());
+                ps.setString(2, task.getDetails());
+                ps.setTimestamp(3, task.getDeadline());
+                ps.setInt(4, task.getPriorityID());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            rs = ps.getGeneratedKeys();
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            for (Task task : tasks) {
+                if (rs.next()) {
+                    task.setTaskID(rs.getInt(1));
+                }
+                statsChanges.add(task.getAccountID(), NEW_TASK_STATUS, task.getPriorityID(), 1);
+            }
+            for (Task task : tasks) {
+                if (task.getTags() != null) {
+                    saveTaskTags(connection, task.getAccountID(), task.getTaskID(), task.getTags());
+                }
+            }
+            statsChanges.save(connection);
+            connection.commit();
+            statsChanges.publish();
+            tasksChanged(tasks);
+            for (Task task : tasks) {
+                TaskSearchIndex.getInstance().taskChanged(task);
+                TaskTagIndex.getInstance().taskTagged(task.getAccountID(), task.getTaskID(),
+                        task.getTags() != null ? task.getTags() : new ArrayList<String>());
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
             return false;
         } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Updates all tasks in one batch and one transaction. A task is only updated
+    if it belongs to its accountID, so the counts returned tell which tasks
+    were not found or not owned (0).
+    */
+    public int[] updateTasks(ArrayList<Task> tasks) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        String query = "UPDATE TASKS SET last_updated=?, details=?, status_id=?, deadline=?, priority_id=? WHERE task_id=? AND account_id=? AND deleted_at IS NULL";
+
+        try {
+            connection.setAutoCommit(false);
+            //Lock the tasks and read their current status and priority for the counters.
+            HashMap<Integer, int[]> current = new HashMap<Integer, int[]>();
+            if (!tasks.isEmpty()) {
+                ps = connection.prepareStatement("SELECT task_id, account_id, status_id, priority_id FROM tasks"
+                        + " WHERE task_id IN (" + placeholders(tasks.size()) + ") AND deleted_at IS NULL FOR UPDATE");
+                for (int i = 0; i < tasks.size(); i++) {
+                    ps.setInt(i + 1, tasks.get(i).getTaskID());
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    current.put(rs.getInt("task_id"),
+                            new int[]{rs.getInt("account_id"), rs.getInt("status_id"), rs.getInt("priority_id")});
+                }
+            }
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            ps = connection.prepareStatement(query);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (Task task : tasks) {
+                //Same condition as the UPDATE: the task exists and belongs to its account.
+                int[] old = current.get(task.getTaskID());
+                if (old != null && old[0] == task.getAccountID()) {
+                    statsChanges.add(old[0], old[1], old[2], -1);
+                    statsChanges.add(old[0], task.getStatusID(), task.getPriorityID(), 1);
+                    old[1] = task.getStatusID();
+                    old[2] = task.getPriorityID();
+                }
+                ps.setTimestamp(1, now);
+                ps.setString(2, task.getDetails());
+                ps.setInt(3, task.getStatusID());
+                ps.setTimestamp(4, task.getDeadline());
+                ps.setInt(5, task.getPriorityID());
+                ps.setInt(6, task.getTaskID());
+                ps.setInt(7, task.getAccountID());
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            for (Task task : tasks) {
+                int[] old = current.get(task.getTaskID());
+                if (old != null && old[0] == task.getAccountID() && task.getTags() != null) {
+                    saveTaskTags(connection, task.getAccountID(), task.getTaskID(), task.getTags());
+                }
+            }
+            statsChanges.save(connection);
+            connection.commit();
+            statsChanges.publish();
+            for (Task task : tasks) {
+                TaskRowCache.getInstance().taskChanged(task.getTaskID());
+                //Only tasks the account owns were updated.
+                int[] old = current.get(task.getTaskID());
+                if (old != null && old[0] == task.getAccountID()) {
+                    TaskSearchIndex.getInstance().taskChanged(task);
+                    if (task.getTags() != null) {
+                        TaskTagIndex.getInstance().taskTagged(task.getAccountID(), task.getTaskID(), task.getTags());
+                    }
+                }
+            }
+            tasksChanged(tasks);
+            return counts;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
+            return null;
+        } finally {
+            resetAutoCommit(connection);
             mysqlDSDAOFactory.freeConnection(connection);
         }
     }
+
+    /*
+    Soft deletes the task if it belongs to accountID. The row stays until the
+    TaskPurger removes it, but no listing shows it anymore. last_updated is set
+    too, so delta sync reports the deletion.
+    */
+    public Boolean deleteTask(int taskID, int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        String query = "UPDATE TASKS SET deleted_at=?, last_updated=? WHERE task_id=? AND account_id=? AND deleted_at IS NULL";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement("SELECT status_id, priority_id FROM tasks"
+                    + " WHERE task_id=? AND account_id=? AND deleted_at IS NULL FOR UPDATE");
+            ps.setInt(1, taskID);
+            ps.setInt(2, accountID);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                connection.commit();
+                return false;
+            }
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            statsChanges.add(accountID, rs.getInt("status_id"), rs.getInt("priority_id"), -1);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setInt(3, taskID);
+            ps.setInt(4, accountID);
+            boolean isDeleted = ps.executeUpdate() == 1;
+            if (isDeleted) {
+                statsChanges.save(connection);
+            }
+            connection.commit();
+            if (isDeleted) {
+                statsChanges.publish();
+                TaskRowCache.getInstance().taskChanged(taskID);
+                ViewValidators.getInstance().tasksChanged(accountID);
+                TaskSearchIndex.getInstance().taskRemoved(accountID, taskID);
+                TaskTagIndex.getInstance().taskRemoved(accountID, taskID);
+            }
+            return isDeleted;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
+            return false;
+        } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Soft deletes all done tasks of the account, the same way as deleteTask().
+    Returns how many were deleted, or -1 on error.
+    */
+    public int deleteCompletedTasks(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        String query = "UPDATE TASKS SET deleted_at=?, last_updated=? WHERE account_id=? AND status_id=? AND deleted_at IS NULL";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement("SELECT priority_id, COUNT(*) AS task_count FROM tasks"
+                    + " WHERE account_id=? AND status_id=? AND deleted_at IS NULL GROUP BY priority_id FOR UPDATE");
+            ps.setInt(1, accountID);
+            ps.setInt(2, DONE_STATUS);
+            ResultSet rs = ps.executeQuery();
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            while (rs.next()) {
+                statsChanges.add(accountID, DONE_STATUS, rs.getInt("priority_id"), -rs.getInt("task_count"));
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setInt(3, accountID);
+            ps.setInt(4, DONE_STATUS);
+            int count = ps.executeUpdate();
+            statsChanges.save(connection);
+            connection.commit();
+            statsChanges.publish();
+            //Deleted rows are never shown again, so their cached rows just age out.
+            ViewValidators.getInstance().tasksChanged(accountID);
+            if (count > 0) {
+                TaskSearchIndex.getInstance().accountChanged(accountID);
+                TaskTagIndex.getInstance().accountChanged(accountID);
+            }
+            return count;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
+            return -1;
+        } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Removes up to batchSize tasks soft deleted before deletedBefore, oldest
+    first along the (deleted_at, task_id) index, so each batch locks only the
+    rows it removes. Returns how many were removed, or -1 on error.
+    */
+    public int purgeDeletedTasks(Timestamp deletedBefore, int batchSize) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+
+        String query = "DELETE FROM TASKS WHERE deleted_at<? ORDER BY deleted_at, task_id LIMIT ?";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setTimestamp(1, deletedBefore);
+            ps.setInt(2, batchSize);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Moves up to batchSize done tasks last updated before completedBefore to
+    tasks_archive, oldest first, and their tags to task_tags_archive. The rows
+    are locked, copied and deleted in one short transaction, so a task and its
+    tags are always in exactly one of the two places. Returns how many were
+    moved, or -1 on error.
+    */
+    public int archiveCompletedTasks(Timestamp completedBefore, int batchSize) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT task_id, account_id, priority_id FROM tasks WHERE status_id=? AND deleted_at IS NULL AND last_updated<?"
+                + " ORDER BY last_updated, task_id LIMIT ? FOR UPDATE";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, DONE_STATUS);
+            ps.setTimestamp(2, completedBefore);
+            ps.setInt(3, batchSize);
+            rs = ps.executeQuery();
+            ArrayList<Integer> taskIDs = new ArrayList<Integer>();
+            ArrayList<Integer> taskAccountIDs = new ArrayList<Integer>();
+            HashSet<Integer> accountIDs = new HashSet<Integer>();
+            //Archived tasks no longer count as the account's tasks.
+            TaskStatsChanges statsChanges = new TaskStatsChanges();
+            while (rs.next()) {
+                taskIDs.add(rs.getInt("task_id"));
+                taskAccountIDs.add(rs.getInt("account_id"));
+                accountIDs.add(rs.getInt("account_id"));
+                statsChanges.add(rs.getInt("account_id"), DONE_STATUS, rs.getInt("priority_id"), -1);
+            }
+            if (taskIDs.isEmpty()) {
+                connection.commit();
+                return 0;
+            }
+            String placeholders = placeholders(taskIDs.size());
+            ps = connection.prepareStatement("INSERT INTO tasks_archive (" + TASK_COLUMNS + ", completed_month, archived_at)"
+                    + " SELECT " + TASK_COLUMNS + ", EXTRACT(YEAR_MONTH FROM last_updated), ?"
+                    + " FROM tasks WHERE task_id IN (" + placeholders + ")");
+            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            for (int i = 0; i < taskIDs.size(); i++) {
+                ps.setInt(i + 2, taskIDs.get(i));
+            }
+            ps.executeUpdate();
+            //Deleting the tasks deletes their task_tags rows, so copy them first.
+            ps = connection.prepareStatement("INSERT INTO task_tags_archive (task_id, tag_id)"
+                    + " SELECT task_id, tag_id FROM task_tags WHERE task_id IN (" + placeholders + ")");
+            for (int i = 0; i < taskIDs.size(); i++) {
+                ps.setInt(i + 1, taskIDs.get(i));
+            }
+            ps.executeUpdate();
+            ps = connection.prepareStatement("DELETE FROM tasks WHERE task_id IN (" + placeholders + ")");
+            for (int i = 0; i < taskIDs.size(); i++) {
+                ps.setInt(i + 1, taskIDs.get(i));
+            }
+            ps.executeUpdate();
+            statsChanges.save(connection);
+            connection.commit();
+            statsChanges.publish();
+            for (Integer accountID : accountIDs) {
+                ViewValidators.getInstance().tasksChanged(accountID);
+            }
+            //Search and tag filters cover live tasks only.
+            for (int i = 0; i < taskIDs.size(); i++) {
+                TaskSearchIndex.getInstance().taskRemoved(taskAccountIDs.get(i), taskIDs.get(i));
+                TaskTagIndex.getInstance().taskRemoved(taskAccountIDs.get(i), taskIDs.get(i));
+            }
+            return taskIDs.size();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
+            return -1;
+        } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    tasks_archive is partitioned by RANGE on completed_month (yyyymm), with a
+    catch-all partition pmax at the end. Splits pmax so that every month from
+    fromMonth through throughMonth has its own partition. Months below the
+    lowest partition already go to that partition.
+    */
+    public Boolean addArchivePartitions(int fromMonth, int throughMonth) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT MAX(CAST(PARTITION_DESCRIPTION AS UNSIGNED)) AS highest FROM information_schema.PARTITIONS"
+                + " WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME='tasks_archive' AND PARTITION_DESCRIPTION<>'MAXVALUE'";
+
+        try {
+            ps = connection.prepareStatement(query);
+            rs = ps.executeQuery();
+            //A partition "less than" a month holds the months before it.
+            int month = fromMonth;
+            if (rs.next() && rs.getInt("highest") > 0) {
+                month = Math.max(month, rs.getInt("highest"));
+            }
+            StringBuilder partitions = new StringBuilder();
+            for (; month <= throughMonth; month = nextMonth(month)) {
+                partitions.append("PARTITION p").append(month)
+                        .append(" VALUES LESS THAN (").append(nextMonth(month)).append("), ");
+            }
+            if (partitions.length() == 0) {
+                return true;
+            }
+            ps = connection.prepareStatement("ALTER TABLE tasks_archive REORGANIZE PARTITION pmax INTO ("
+                    + partitions + "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Reads the account's counters from task_stats. Returns null on error.
+    */
+    public TaskStats getTaskStats(int accountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT status_id, priority_id, task_count FROM task_stats WHERE account_id=?";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            rs = ps.executeQuery();
+            TaskStats taskStats = new TaskStats();
+            while (rs.next()) {
+                taskStats.add(rs.getInt("status_id"), rs.getInt("priority_id"), rs.getInt("task_count"));
+            }
+            return taskStats;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Counts the open tasks whose deadline is before now, along the
+    (account_id, status_id, deadline) index. Returns -1 on error.
+    */
+    public int countOverdueTasks(int accountID, Timestamp now) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT COUNT(*) AS overdue FROM tasks"
+                + " WHERE account_id=? AND status_id<>? AND deadline<? AND deleted_at IS NULL";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            ps.setInt(2, DONE_STATUS);
+            ps.setTimestamp(3, now);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getInt("overdue") : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    The earliest deadline at or after the given time among the account's open
+    tasks, or null if there is none.
+    */
+    public Timestamp findNextDeadline(int accountID, Timestamp after) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT MIN(deadline) AS next_deadline FROM tasks"
+                + " WHERE account_id=? AND status_id<>? AND deadline>=? AND deleted_at IS NULL";
+
+        try {
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, accountID);
+            ps.setInt(2, DONE_STATUS);
+            ps.setTimestamp(3, after);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getTimestamp("next_deadline") : null;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    public int getMaxAccountID() {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT MAX(account_id) AS max_account_id FROM accounts";
+
+        try {
+            ps = connection.prepareStatement(query);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getInt("max_account_id") : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    public ArrayList<Integer> getTaskStatusIDs() {
+        return getReferenceIDs("SELECT status_id AS id FROM task_statuses ORDER BY status_id");
+    }
+
+    public ArrayList<Integer> getTaskPriorityIDs() {
+        return getReferenceIDs("SELECT priority_id AS id FROM task_priorities ORDER BY priority_id");
+    }
+
+    private ArrayList<Integer> getReferenceIDs(String query) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = connection.prepareStatement(query);
+            rs = ps.executeQuery();
+            ArrayList<Integer> ids = new ArrayList<Integer>();
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
+            }
+            return ids;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    /*
+    Recounts the tasks of the accounts fromAccountID through toAccountID and
+    overwrites any task_stats row that drifted. The task_stats rows of the
+    range are locked first, so writers that change tasks meanwhile wait for
+    this transaction and then add their change to the corrected count.
+    Returns the IDs of the accounts that were repaired, or null on error.
+    */
+    public ArrayList<Integer> reconcileTaskStats(int fromAccountID, int toAccountID) {
+        MySQLDataSourceDAOFactory mysqlDSDAOFactory = MySQLDataSourceDAOFactory.getInstance();
+        Connection connection = mysqlDSDAOFactory.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        String query = "SELECT account_id, status_id, priority_id, task_count FROM task_stats"
+                + " WHERE account_id BETWEEN ? AND ? FOR UPDATE";
+
+        try {
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setInt(1, fromAccountID);
+            ps.setInt(2, toAccountID);
+            rs = ps.executeQuery();
+            HashMap<Long, Integer> stored = new HashMap<Long, Integer>();
+            while (rs.next()) {
+                stored.put(TaskStatsChanges.key(rs.getInt("account_id"), rs.getInt("status_id"), rs.getInt("priority_id")),
+                        rs.getInt("task_count"));
+            }
+            ps = connection.prepareStatement("SELECT account_id, status_id, priority_id, COUNT(*) AS task_count FROM tasks"
+                    + " WHERE account_id BETWEEN ? AND ? AND deleted_at IS NULL GROUP BY account_id, status_id, priority_id");
+            ps.setInt(1, fromAccountID);
+            ps.setInt(2, toAccountID);
+            rs = ps.executeQuery();
+            HashMap<Long, Integer> actual = new HashMap<Long, Integer>();
+            while (rs.next()) {
+                actual.put(TaskStatsChanges.key(rs.getInt("account_id"), rs.getInt("status_id"), rs.getInt("priority_id")),
+                        rs.getInt("task_count"));
+            }
+            for (Long key : stored.keySet()) {
+                actual.putIfAbsent(key, 0);
+            }
+            ps = connection.prepareStatement("INSERT INTO task_stats (account_id, status_id, priority_id, task_count)"
+                    + " VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE task_count=VALUES(task_count)");
+            HashSet<Integer> repaired = new HashSet<Integer>();
+            for (Map.Entry<Long, Integer> count : actual.entrySet()) {
+                if (!count.getValue().equals(stored.get(count.getKey()))) {
+                    long key = count.getKey();
+                    ps.setInt(1, (int) (key >>> 32));
+                    ps.setInt(2, (int) (key >>> 16) & 0xFFFF);
+                    ps.setInt(3, (int) key & 0xFFFF);
+                    ps.setInt(4, count.getValue());
+                    ps.addBatch();
+                    repaired.add((int) (key >>> 32));
+                }
+            }
+            if (!repaired.isEmpty()) {
+                ps.executeBatch();
+            }
+            connection.commit();
+            for (Integer accountID : repaired) {
+                TaskStatsCache.getInstance().accountRepaired(accountID);
+            }
+            return new ArrayList<Integer>(repaired);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            rollback(connection);
+            return null;
+        } finally {
+            resetAutoCommit(connection);
+            mysqlDSDAOFactory.freeConnection(connection);
+        }
+    }
+
+    private static int nextMonth(int month) {
+        return month % 100 == 12 ? (month / 100 + 1) * 100 + 1 : month + 1;
+    }
+
+    private static void tasksChanged(ArrayList<Task> tasks) {
+        int lastAccountID = -1;
+        for (Task task : tasks) {
+            if (task.getAccountID() != lastAccountID) {
+                lastAccountID = task.getAccountID();
+                ViewValidators.getInstance().tasksChanged(lastAccountID);
+            }
+        }
+    }
+
+    /*
+    Replaces the task's tags in the caller's transaction. A tag is added to
+    the account's tags the first time it is used.
+    */
+    private static void saveTaskTags(Connection connection, int accountID, int taskID, ArrayList<String> tags) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement("DELETE FROM task_tags WHERE task_id=?");
+        ps.setInt(1, taskID);
+        ps.executeUpdate();
+        if (tags.isEmpty()) {
+            return;
+        }
+        StringBuilder values = new StringBuilder("(?, ?)");
+        for (int i = 1; i < tags.size(); i++) {
+            values.append(", (?, ?)");
+        }
+        ps = connection.prepareStatement("INSERT IGNORE INTO tags (account_id, name) VALUES " + values);
+        for (int i = 0; i < tags.size(); i++) {
+            ps.setInt(2 * i + 1, accountID);
+            ps.setString(2 * i + 2, tags.get(i));
+        }
+        ps.executeUpdate();
+        ps = connection.prepareStatement("INSERT INTO task_tags (task_id, tag_id) SELECT ?, tag_id FROM tags"
+                + " WHERE account_id=? AND name IN (" + placeholders(tags.size()) + ")");
+        ps.setInt(1, taskID);
+        ps.setInt(2, accountID);
+        for (int i = 0; i < tags.size(); i++) {
+            ps.setString(i + 3, tags.get(i));
+        }
+        ps.executeUpdate();
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder("?");
+        for (int i = 1; i < count; i++) {
+            placeholders.append(",?");
+        }
+        return placeholders.toString();
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void resetAutoCommit(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /*
+    Changes to the task_stats counters made by one transaction, keyed by
+    account, status and priority. save() writes them in the transaction,
+    publish() hands them to TaskStatsCache once it has committed.
+    */
+    private static class TaskStatsChanges {
+        private final HashMap<Long, Integer> deltas = new HashMap<Long, Integer>();
+
+        static long key(int accountID, int statusID, int priorityID) {
+            return ((long) accountID << 32) | ((statusID & 0xFFFF) << 16) | (priorityID & 0xFFFF);
+        }
+
+        void add(int accountID, int statusID, int priorityID, int delta) {
+            deltas.merge(key(accountID, statusID, priorityID), delta, Integer::sum);
+        }
+
+        void save(Connection connection) throws SQLException {
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO task_stats"
+                    + " (account_id, status_id, priority_id, task_count) VALUES (?, ?, ?, ?)"
+                    + " ON DUPLICATE KEY UPDATE task_count=task_count+VALUES(task_count)");
+            boolean isEmpty = true;
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    long key = delta.getKey();
+                    ps.setInt(1, (int) (key >>> 32));
+                    ps.setInt(2, (int) (key >>> 16) & 0xFFFF);
+                    ps.setInt(3, (int) key & 0xFFFF);
+                    ps.setInt(4, delta.getValue());
+                    ps.addBatch();
+                    isEmpty = false;
+                }
+            }
+            if (!isEmpty) {
+                ps.executeBatch();
+            }
+        }
+
+        void publish() {
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                long key = delta.getKey();
+                TaskStatsCache.getInstance().taskCountChanged((int) (key >>> 32), (int) (key >>> 16) & 0xFFFF,
+                        (int) key & 0xFFFF, delta.getValue());
+            }
+        }
+    }
 }
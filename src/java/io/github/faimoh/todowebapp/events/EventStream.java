@@ -0,0 +1,145 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.events;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+/**
+ * One open text/event-stream connection. It holds no thread: events are queued
+ * and written with non-blocking I/O, either right away by the thread that
+ * sends them or later by the container when the socket can take more. The
+ * queue is bounded. A client that falls that far behind is disconnected, and
+ * its browser reconnects and loads the dashboard again.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class EventStream implements WriteListener, AsyncListener {
+
+    private final int accountID;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final ArrayBlockingQueue<byte[]> pending;
+    private boolean listening = false;
+    private volatile boolean closed = false;
+
+    public EventStream(int accountID, AsyncContext asyncContext, int bufferSize) throws IOException {
+        this.accountID = accountID;
+        this.asyncContext = asyncContext;
+        this.out = asyncContext.getResponse().getOutputStream();
+        this.pending = new ArrayBlockingQueue<byte[]>(Math.max(1, bufferSize));
+    }
+
+    public int getAccountID() {
+        return accountID;
+    }
+
+    public synchronized void start() {
+        asyncContext.addListener(this);
+        out.setWriteListener(this);
+        listening = true;
+    }
+
+    /*
+    Queues an event and writes what the socket takes now. Returns false if the
+    stream is closed or was closed because its queue is full.
+    */
+    public boolean send(byte[] event) {
+        if (closed) {
+            TaskEventHub.getInstance().unsubscribe(this);
+            return false;
+        }
+        if (!pending.offer(event)) {
+            System.out.println(this.getClass().getCanonicalName() + ":slowClient:" + accountID);
+            close();
+            return false;
+        }
+        drain();
+        return !closed;
+    }
+
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        TaskEventHub.getInstance().unsubscribe(this);
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            //The container already ended the request.
+        }
+    }
+
+    private synchronized void drain() {
+        if (!listening || closed) {
+            return;
+        }
+        try {
+            while (out.isReady()) {
+                byte[] event = pending.poll();
+                if (event == null) {
+                    out.flush();
+                    return;
+                }
+                out.write(event);
+            }
+            //The container calls onWritePossible() once the socket drains.
+        } catch (IOException | IllegalStateException e) {
+            close();
+        }
+    }
+
+    public void onWritePossible() {
+        drain();
+    }
+
+    public void onError(Throwable t) {
+        close();
+    }
+
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    public void onStartAsync(AsyncEvent event) {
+
+    }
+}
@@ -0,0 +1,188 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.events;
+
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.model.Task;
+import io.github.faimoh.todowebapp.serialization.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans task changes out to the open tasks dashboards of the account, through
+ * their EventStreams. Streams are indexed by account ID, so a change costs
+ * nothing when the account has no dashboard open. Otherwise the task is read
+ * once, its row is taken from TaskRowCache, and the same event bytes are
+ * queued on each stream.
+ *
+ * A comment line is sent to every stream every heartbeat seconds. It keeps
+ * proxies from dropping idle connections and lets us notice clients that went
+ * away without closing.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskEventHub {
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final TaskEventHub taskEventHub = new TaskEventHub();
+
+    private final Map<Integer, Set<EventStream>> streams = new ConcurrentHashMap<Integer, Set<EventStream>>();
+    private ScheduledExecutorService heartbeat = null;
+    private volatile long timeoutMillis = 5 * 60 * 1000L;
+    private volatile int bufferSize = 64;
+
+    private TaskEventHub() {
+
+    }
+
+    public static TaskEventHub getInstance() {
+        return taskEventHub;
+    }
+
+    public static synchronized void configure(int timeoutSeconds, int bufferSize, int heartbeatSeconds) {
+        taskEventHub.timeoutMillis = timeoutSeconds * 1000L;
+        taskEventHub.bufferSize = bufferSize;
+        if (taskEventHub.heartbeat == null) {
+            taskEventHub.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "TaskEventHub-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            taskEventHub.heartbeat.scheduleWithFixedDelay(taskEventHub::sendHeartbeat,
+                    heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void subscribe(EventStream stream) {
+        streams.computeIfAbsent(stream.getAccountID(), k -> ConcurrentHashMap.newKeySet()).add(stream);
+    }
+
+    public void unsubscribe(EventStream stream) {
+        Set<EventStream> accountStreams = streams.get(stream.getAccountID());
+        if (accountStreams != null) {
+            accountStreams.remove(stream);
+            if (accountStreams.isEmpty()) {
+                streams.remove(stream.getAccountID(), accountStreams);
+            }
+        }
+    }
+
+    /*
+    Sends the current row of the task to the open dashboards of the account.
+    Called by the actions after the task was written.
+    */
+    public void taskChanged(int accountID, int taskID) {
+        if (!hasStreams(accountID)) {
+            return;
+        }
+        Task task = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO().findTask(taskID);
+        if (task == null) {
+            return;
+        }
+        StringWriter data = new StringWriter();
+        try {
+            new JsonWriter(data).beginObject()
+                    .name("taskID").value(taskID)
+                    .name("row").value(TaskRowCache.getInstance().getRow(task))
+                    .endObject()
+                    .flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        send(accountID, "task", data.toString());
+    }
+
+    public void taskDeleted(int accountID, int taskID) {
+        if (hasStreams(accountID)) {
+            send(accountID, "delete", "{\"taskID\":" + taskID + "}");
+        }
+    }
+
+    /*
+    Tells the open dashboards of the account to reload, after a change to more
+    tasks than it is worth sending one by one.
+    */
+    public void tasksChanged(int accountID) {
+        if (hasStreams(accountID)) {
+            send(accountID, "reload", "{}");
+        }
+    }
+
+    private boolean hasStreams(int accountID) {
+        Set<EventStream> accountStreams = streams.get(accountID);
+        return accountStreams != null && !accountStreams.isEmpty();
+    }
+
+    private void send(int accountID, String name, String json) {
+        Set<EventStream> accountStreams = streams.get(accountID);
+        if (accountStreams == null) {
+            return;
+        }
+        //JSON has no raw line breaks, so the data fits on one line.
+        byte[] event = ("event: " + name + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (EventStream stream : accountStreams) {
+            stream.send(event);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+        for (Set<EventStream> accountStreams : streams.values()) {
+            for (EventStream stream : accountStreams) {
+                stream.close();
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        for (Set<EventStream> accountStreams : streams.values()) {
+            for (EventStream stream : accountStreams) {
+                stream.send(HEARTBEAT);
+            }
+        }
+    }
+}
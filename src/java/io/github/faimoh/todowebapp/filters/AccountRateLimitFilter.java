@@ -1,4 +1,4 @@
-/*
+/* 
  * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  * All rights reserved.
  *
@@ -25,31 +25,37 @@
  */
 package io.github.faimoh.todowebapp.filters;
 
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.security.RateLimiter;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
-import javax.servlet.http.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 /**
+ * Throttles requests per logged in account, after AuthorizationFilter has
+ * identified it. The limits are the "account" rules of RateLimitFilter, which
+ * parses them and publishes them as a context attribute, so they are
+ * configured in one place. Requests without a logged in user pass untouched.
  *
  * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
  */
-public class AuthenticationFilter implements Filter {
+public class AccountRateLimitFilter implements Filter {
 
     // The filter configuration object we are associated with.  If
     // this value is null, this filter instance is not currently
     // configured. 
     private FilterConfig filterConfig = null;
 
-    public AuthenticationFilter() {
-        
+    public AccountRateLimitFilter() {
+
     }
 
     /**
@@ -64,32 +70,35 @@ public class AuthenticationFilter implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response,
             FilterChain chain)
             throws IOException, ServletException {
-        Throwable problem = null;
-        try {
-            HttpServletRequest httpRequest = (HttpServletRequest) request;
-            HttpServletResponse httpResponse = (HttpServletResponse) response;
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-            String loginActionURI = httpRequest.getServletContext().getContextPath() + "/app/login";
+        String route = httpRequest.getMethod() + httpRequest.getPathInfo();
+        AccountPrincipal sessionUser = (AccountPrincipal) httpRequest.getAttribute("sessionUser");
+        RateLimiter accountLimiter = getAccountLimiters().get(route);
+        long waitMillis = 0;
+        if (sessionUser != null && accountLimiter != null) {
+            waitMillis = accountLimiter.tryAcquire("id:" + sessionUser.getAccountID());
+        }
 
-            HttpSession session = httpRequest.getSession(false);
-            boolean isLoggedIn = (session != null) && (session.getAttribute("account") != null);
-            boolean isLoginActionURI = loginActionURI.equals(httpRequest.getRequestURI());
-            /*
-            If the user is already logged in or user is requesting login action,
-            we allow through the filter. Else, we redirect to the app context.
-            When the user submits the login form, the POST request should be allowed through
-            the filter for the login action to process it.
-            */
-            if (isLoggedIn || isLoginActionURI) {
-                chain.doFilter(request, response);
-            } else {
-                httpResponse.sendRedirect(httpRequest.getServletContext().getContextPath());
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (waitMillis == 0) {
+            chain.doFilter(request, response);
+        } else {
+            RateLimitFilter.throttle(httpRequest, httpResponse, route, waitMillis);
         }
     }
 
+    /*
+    Read on every request, since RateLimitFilter may be initialized after this
+    filter. None if RateLimitFilter isn't configured.
+    */
+    @SuppressWarnings("unchecked")
+    private Map<String, RateLimiter> getAccountLimiters() {
+        Map<String, RateLimiter> accountLimiters = (Map<String, RateLimiter>) filterConfig.getServletContext()
+                .getAttribute(RateLimitFilter.ACCOUNT_LIMITERS);
+        return accountLimiters == null ? Collections.<String, RateLimiter>emptyMap() : accountLimiters;
+    }
+
     /**
      * Return the filter configuration object for this filter.
      */
@@ -116,7 +125,7 @@ public class AuthenticationFilter implements Filter {
      * Init method for this filter
      */
     public void init(FilterConfig filterConfig) {
-        this.filterConfig = filterConfig;        
+        this.filterConfig = filterConfig;
     }
 
     /**
@@ -125,9 +134,9 @@ public class AuthenticationFilter implements Filter {
     @Override
     public String toString() {
         if (filterConfig == null) {
-            return ("AuthenticationFilter()");
+            return ("AccountRateLimitFilter()");
         }
-        StringBuffer sb = new StringBuffer("AuthenticationFilter(");
+        StringBuffer sb = new StringBuffer("AccountRateLimitFilter(");
         sb.append(filterConfig);
         sb.append(")");
         return (sb.toString());
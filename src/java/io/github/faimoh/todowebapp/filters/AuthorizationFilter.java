@@ -0,0 +1,315 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.filters;
+
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.security.AccountGrants;
+import io.github.faimoh.todowebapp.security.Permissions;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import io.github.faimoh.todowebapp.security.SessionToken;
+import io.github.faimoh.todowebapp.security.SessionTokens;
+import io.github.faimoh.todowebapp.serialization.JsonWriter;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Decides who may call which part of the application. It resolves the logged
+ * in user once, from the session or the signed cookie, and hands it on as the
+ * request attribute 'sessionUser'.
+ *
+ * The permissions needed for a route are configured through init parameters
+ * named either like the ActionFactory keys or after the first segment of the
+ * path, for example:
+ *
+ *   POST/admin/accounts/update = accounts.write
+ *   /admin = accounts.read
+ *   /users = profile.edit
+ *   /login = public
+ *
+ * Any one of the listed permissions is enough. They are compiled at startup
+ * into tables of permission bitmasks, so a request costs at most two map
+ * lookups and one AND against AccountPrincipal.getPermissions(). Routes that
+ * aren't listed, or are listed as 'any', need a logged in user but no
+ * permission, so even an account without roles can reach them.
+ *
+ * A principal whose grants were changed by an admin since it was built is
+ * reloaded here before the check.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AuthorizationFilter implements Filter {
+
+    //Not a permission mask: no user needed at all.
+    private static final long PUBLIC = -1;
+    private static final long LOGGED_IN = 0;
+    private static final String API_SEGMENT = "/api";
+
+    // The filter configuration object we are associated with.  If
+    // this value is null, this filter instance is not currently
+    // configured. 
+    private FilterConfig filterConfig = null;
+
+    private Map<String, Long> routePermissions = new HashMap<String, Long>();
+    private Map<String, Long> segmentPermissions = new HashMap<String, Long>();
+
+    public AuthorizationFilter() {
+
+    }
+
+    /**
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String context = httpRequest.getContextPath();
+
+        String segment = getSegment(httpRequest.getPathInfo());
+        Long permissions = routePermissions.get(httpRequest.getMethod() + httpRequest.getPathInfo());
+        if (permissions == null) {
+            permissions = segmentPermissions.get(segment);
+        }
+        long required = permissions == null ? LOGGED_IN : permissions.longValue();
+        if (required == PUBLIC) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AccountPrincipal sessionUser;
+        try {
+            sessionUser = getSessionUser(httpRequest, httpResponse);
+        } catch (IllegalStateException e) {
+            //Whether the login still holds can't be told, so it is neither let through nor ended.
+            System.out.println(this.getClass().getCanonicalName() + ":" + e.getMessage());
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Technical error. Please try again later.");
+            return;
+        }
+        if (API_SEGMENT.equals(segment) && (sessionUser == null || !isAllowed(sessionUser, required))) {
+            //API clients get a status code and JSON, not a redirect to an HTML page.
+            httpResponse.setStatus(sessionUser == null
+                    ? HttpServletResponse.SC_UNAUTHORIZED : HttpServletResponse.SC_FORBIDDEN);
+            httpResponse.setContentType("application/json;charset=UTF-8");
+            JsonWriter writer = new JsonWriter(httpResponse.getWriter());
+            writer.beginObject().name("error").value(sessionUser == null ? "Not logged in." : "Forbidden.").endObject();
+            writer.flush();
+        } else if (sessionUser == null) {
+            httpResponse.sendRedirect(context);
+        } else if (!isAllowed(sessionUser, required)) {
+            //Logged in, but not allowed here. Send them home, unless they aren't allowed there either.
+            String homePath = context + getHomePath(sessionUser);
+            if (homePath.equals(httpRequest.getRequestURI())) {
+                httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN);
+            } else {
+                httpResponse.sendRedirect(homePath);
+            }
+        } else {
+            httpRequest.setAttribute("sessionUser", sessionUser);
+            chain.doFilter(request, response);
+        }
+    }
+
+    /*
+    In stateless mode the user comes from the signed cookie, otherwise from the
+    HttpSession. An administrator may have disabled the account or reset its
+    password after the user logged in, on any node. The registry answers that
+    from its copy of the account's state, and reads the state again before a
+    cookie is renewed. Throws IllegalStateException if the state can't be read.
+    */
+    private AccountPrincipal getSessionUser(HttpServletRequest httpRequest, HttpServletResponse httpResponse) {
+        SessionTokens sessionTokens = SessionTokens.getInstance();
+        if (sessionTokens.isStateless()) {
+            SessionToken sessionToken = sessionTokens.read(httpRequest);
+            if (sessionToken == null) {
+                return null;
+            }
+            boolean isRenewing = sessionTokens.needsRefresh(sessionToken);
+            if (SessionRegistry.getInstance().isRevoked(sessionToken.getAccountID(), sessionToken.getIssuedAt(),
+                    sessionToken.getTokenID(), isRenewing)) {
+                sessionTokens.clear(httpRequest, httpResponse);
+                return null;
+            }
+            if (AccountGrants.getInstance().isStale(sessionToken.getPrincipal())) {
+                AccountPrincipal refreshed = AccountGrants.getInstance().refresh(sessionToken.getPrincipal());
+                sessionToken = sessionTokens.reissue(httpRequest, httpResponse, sessionToken, refreshed);
+            } else if (isRenewing) {
+                sessionToken = sessionTokens.reissue(httpRequest, httpResponse, sessionToken, sessionToken.getPrincipal());
+            }
+            httpRequest.setAttribute("sessionToken", sessionToken);
+            return sessionToken.getPrincipal();
+        }
+        HttpSession session = httpRequest.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        AccountPrincipal sessionUser;
+        long createdAt;
+        try {
+            sessionUser = (AccountPrincipal) session.getAttribute("principal");
+            createdAt = session.getCreationTime();
+        } catch (IllegalStateException e) {
+            //The session was invalidated by another request in the meantime.
+            return null;
+        }
+        if (sessionUser == null) {
+            return null;
+        }
+        if (SessionRegistry.getInstance().isRevoked(sessionUser.getAccountID(), createdAt)) {
+            try {
+                session.invalidate();
+            } catch (IllegalStateException e) {
+                //Already invalidated.
+            }
+            return null;
+        }
+        if (AccountGrants.getInstance().isStale(sessionUser)) {
+            sessionUser = AccountGrants.getInstance().refresh(sessionUser);
+            try {
+                session.setAttribute("principal", sessionUser);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        }
+        return sessionUser;
+    }
+
+    private static boolean isAllowed(AccountPrincipal sessionUser, long required) {
+        return required == LOGGED_IN || sessionUser.hasPermission(required);
+    }
+
+    /*
+    Where a logged in user lands after login or when they go somewhere their
+    permissions don't allow. An account without the task or admin
+    permissions still has its profile page.
+    */
+    public static String getHomePath(AccountPrincipal sessionUser) {
+        if (sessionUser.hasPermission(Permissions.ACCOUNTS_READ)) {
+            return "/app/admin/accounts/dashboard";
+        }
+        if (sessionUser.hasPermission(Permissions.TASKS_OWN)) {
+            return "/app/tasks/dashboard";
+        }
+        return "/app/users/profile";
+    }
+
+    private static String getSegment(String pathInfo) {
+        if (pathInfo == null) {
+            return "/";
+        }
+        int end = pathInfo.indexOf('/', 1);
+        return end < 0 ? pathInfo : pathInfo.substring(0, end);
+    }
+
+    private static long parsePermissions(String value) {
+        long permissions = 0;
+        for (String permission : value.split(",")) {
+            permission = permission.trim();
+            if (permission.equals("public")) {
+                return PUBLIC;
+            } else if (permission.equals("any")) {
+                return LOGGED_IN;
+            }
+            permissions |= Permissions.parse(permission);
+        }
+        return permissions;
+    }
+
+    /**
+     * Return the filter configuration object for this filter.
+     */
+    public FilterConfig getFilterConfig() {
+        return (this.filterConfig);
+    }
+
+    /**
+     * Set the filter configuration object for this filter.
+     *
+     * @param filterConfig The filter configuration object
+     */
+    public void setFilterConfig(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    public void destroy() {
+    }
+
+    /**
+     * Init method for this filter
+     */
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        Map<String, Long> routes = new HashMap<String, Long>();
+        Map<String, Long> segments = new HashMap<String, Long>();
+        Enumeration<String> names = filterConfig.getInitParameterNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            long permissions = parsePermissions(filterConfig.getInitParameter(name));
+            if (name.startsWith("/")) {
+                segments.put(name, permissions);
+            } else {
+                routes.put(name, permissions);
+            }
+        }
+        this.routePermissions = routes;
+        this.segmentPermissions = segments;
+        System.out.println(this.getClass().getCanonicalName() + ":routes:" + routes + ", segments:" + segments);
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("AuthorizationFilter()");
+        }
+        StringBuffer sb = new StringBuffer("AuthorizationFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+}
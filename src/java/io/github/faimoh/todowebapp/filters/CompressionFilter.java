@@ -0,0 +1,181 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.filters;
+
+import io.github.faimoh.todowebapp.compression.AcceptEncoding;
+import io.github.faimoh.todowebapp.compression.CompressionResponseWrapper;
+import io.github.faimoh.todowebapp.compression.DeflaterPool;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Compresses the responses of the controller with gzip for clients that accept
+ * it. Bodies shorter than the threshold init parameter (bytes) are sent as
+ * they are, since compressing them gains little. Deflaters come from a pool of
+ * poolSize, configured with the compression level. The ETags of
+ * ViewValidators are weak, so they stay valid for the compressed page.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class CompressionFilter implements Filter {
+
+    // The filter configuration object we are associated with.  If
+    // this value is null, this filter instance is not currently
+    // configured. 
+    private FilterConfig filterConfig = null;
+
+    private DeflaterPool deflaterPool = null;
+    private int threshold = 1024;
+
+    public CompressionFilter() {
+
+    }
+
+    /**
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        //Caches must keep the compressed and plain responses apart.
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        //Event streams are written with non-blocking I/O, which the wrapper doesn't do.
+        String accept = httpRequest.getHeader("Accept");
+        if (httpRequest.getMethod().equals("HEAD")
+                || (accept != null && accept.contains("text/event-stream"))
+                || !AcceptEncoding.acceptsGzip(httpRequest.getHeader("Accept-Encoding"))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressionResponseWrapper compressedResponse = new CompressionResponseWrapper(httpRequest, httpResponse, deflaterPool, threshold);
+        boolean isChainDone = false;
+        try {
+            chain.doFilter(request, compressedResponse);
+            isChainDone = true;
+        } finally {
+            //If the action threw after gzip started, nothing will finish the stream, so give its Deflater back.
+            if (!isChainDone) {
+                compressedResponse.abort();
+            }
+        }
+        if (!httpRequest.isAsyncStarted()) {
+            compressedResponse.finish();
+        } else if (!compressedResponse.passThrough()) {
+            //Already compressing, so the gzip stream is ended with the response.
+            httpRequest.getAsyncContext().addListener(new AsyncListener() {
+                public void onComplete(AsyncEvent event) throws IOException {
+                    compressedResponse.finish();
+                }
+
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                public void onError(AsyncEvent event) {
+                }
+
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        }
+    }
+
+    /**
+     * Return the filter configuration object for this filter.
+     */
+    public FilterConfig getFilterConfig() {
+        return (this.filterConfig);
+    }
+
+    /**
+     * Set the filter configuration object for this filter.
+     *
+     * @param filterConfig The filter configuration object
+     */
+    public void setFilterConfig(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    public void destroy() {
+        if (deflaterPool != null) {
+            deflaterPool.close();
+        }
+    }
+
+    /**
+     * Init method for this filter
+     */
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        threshold = getIntParameter(filterConfig, "threshold", 1024);
+        deflaterPool = new DeflaterPool(
+                getIntParameter(filterConfig, "poolSize", Runtime.getRuntime().availableProcessors() * 2),
+                getIntParameter(filterConfig, "level", Deflater.DEFAULT_COMPRESSION));
+    }
+
+    private static int getIntParameter(FilterConfig filterConfig, String name, int defaultValue) {
+        String value = filterConfig.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("CompressionFilter()");
+        }
+        StringBuffer sb = new StringBuffer("CompressionFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+}
@@ -0,0 +1,212 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.filters;
+
+import io.github.faimoh.todowebapp.compression.AcceptEncoding;
+import io.github.faimoh.todowebapp.compression.DeflaterPool;
+import io.github.faimoh.todowebapp.compression.GzipOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the static files of the application gzipped to clients that accept
+ * it. Each file is compressed once, at the best compression level, on its
+ * first request, and the result is kept in memory until the file changes.
+ * Files that don't get smaller, and clients without gzip, are left to the
+ * container's default servlet.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class PrecompressedResourceFilter implements Filter {
+
+    // The filter configuration object we are associated with.  If
+    // this value is null, this filter instance is not currently
+    // configured. 
+    private FilterConfig filterConfig = null;
+
+    private final ConcurrentHashMap<String, Precompressed> resources = new ConcurrentHashMap<String, Precompressed>();
+    private DeflaterPool deflaterPool = null;
+
+    public PrecompressedResourceFilter() {
+
+    }
+
+    /**
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        if (!httpRequest.getMethod().equals("GET")
+                || !AcceptEncoding.acceptsGzip(httpRequest.getHeader("Accept-Encoding"))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Precompressed resource = getResource(httpRequest.getServletPath());
+        if (resource == null || resource.gzip == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        httpResponse.setHeader("ETag", resource.etag);
+        httpResponse.setDateHeader("Last-Modified", resource.lastModified);
+        String ifNoneMatch = httpRequest.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.contains(resource.etag) || ifNoneMatch.trim().equals("*"))) {
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        httpResponse.setContentType(resource.contentType);
+        httpResponse.setHeader("Content-Encoding", "gzip");
+        httpResponse.setContentLength(resource.gzip.length);
+        httpResponse.getOutputStream().write(resource.gzip);
+    }
+
+    /*
+    Returns the compressed copy of the file, making it if there is none yet or
+    the file has changed since. Returns null for paths that aren't files.
+    */
+    private Precompressed getResource(String path) throws IOException {
+        ServletContext context = filterConfig.getServletContext();
+        URL url = context.getResource(path);
+        if (url == null) {
+            return null;
+        }
+        URLConnection connection = url.openConnection();
+        long lastModified = connection.getLastModified();
+        Precompressed resource = resources.get(path);
+        if (resource != null && resource.lastModified == lastModified) {
+            return resource;
+        }
+
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                original.write(buffer, 0, count);
+            }
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(original.size() / 2 + 64);
+        try (GzipOutputStream gzip = new GzipOutputStream(compressed, deflaterPool)) {
+            original.writeTo(gzip);
+        }
+        String contentType = context.getMimeType(path);
+        resource = new Precompressed(
+                compressed.size() < original.size() ? compressed.toByteArray() : null,
+                contentType != null ? contentType : "application/octet-stream",
+                lastModified,
+                "\"gz-" + Long.toString(lastModified, 36) + "-" + Integer.toString(original.size(), 36) + "\"");
+        resources.put(path, resource);
+        System.out.println(this.getClass().getCanonicalName() + ":precompressed:" + path + ":" + original.size() + "->" + compressed.size());
+        return resource;
+    }
+
+    /**
+     * Return the filter configuration object for this filter.
+     */
+    public FilterConfig getFilterConfig() {
+        return (this.filterConfig);
+    }
+
+    /**
+     * Set the filter configuration object for this filter.
+     *
+     * @param filterConfig The filter configuration object
+     */
+    public void setFilterConfig(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    public void destroy() {
+        if (deflaterPool != null) {
+            deflaterPool.close();
+        }
+    }
+
+    /**
+     * Init method for this filter
+     */
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        //Each file is compressed only once, so it's worth the best compression.
+        deflaterPool = new DeflaterPool(1, Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("PrecompressedResourceFilter()");
+        }
+        StringBuffer sb = new StringBuffer("PrecompressedResourceFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+
+    private static class Precompressed {
+        final byte[] gzip;
+        final String contentType;
+        final long lastModified;
+        final String etag;
+
+        Precompressed(byte[] gzip, String contentType, long lastModified, String etag) {
+            this.gzip = gzip;
+            this.contentType = contentType;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+    }
+}
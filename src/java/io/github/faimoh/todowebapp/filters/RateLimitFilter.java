@@ -0,0 +1,204 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.filters;
+
+import io.github.faimoh.todowebapp.security.RateLimiter;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles requests per client IP, and login attempts per submitted
+ * username, before AuthorizationFilter runs, so a throttled request never
+ * reaches the session checks or the database. Limits are configured per route
+ * through init parameters named like the ActionFactory keys, for example:
+ *
+ *   POST/login = username=5/60, ip=20/60
+ *   POST/tasks/create = account=30/60, ip=120/60
+ *
+ * Per-account limits need the logged in user, so they are applied by
+ * AccountRateLimitFilter after AuthorizationFilter. This filter parses them
+ * too and hands them over as the context attribute ACCOUNT_LIMITERS.
+ * Throttled requests get 429 with a Retry-After header. Nothing here touches
+ * the database.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class RateLimitFilter implements Filter {
+
+    public static final String ACCOUNT_LIMITERS = RateLimitFilter.class.getName() + ".accountLimiters";
+
+    // The filter configuration object we are associated with.  If
+    // this value is null, this filter instance is not currently
+    // configured. 
+    private FilterConfig filterConfig = null;
+
+    private Map<String, RateLimiter> accountLimiters = new HashMap<String, RateLimiter>();
+    private Map<String, RateLimiter> usernameLimiters = new HashMap<String, RateLimiter>();
+    private Map<String, RateLimiter> ipLimiters = new HashMap<String, RateLimiter>();
+    private ScheduledExecutorService evictor = null;
+
+    public RateLimitFilter() {
+
+    }
+
+    /**
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String route = httpRequest.getMethod() + httpRequest.getPathInfo();
+        long waitMillis = 0;
+        RateLimiter ipLimiter = ipLimiters.get(route);
+        if (ipLimiter != null) {
+            waitMillis = ipLimiter.tryAcquire(httpRequest.getRemoteAddr());
+        }
+        //Guessing one account's password from many addresses is limited too.
+        RateLimiter usernameLimiter = usernameLimiters.get(route);
+        if (waitMillis == 0 && usernameLimiter != null) {
+            String username = httpRequest.getParameter("username");
+            if (username != null && !username.isEmpty()) {
+                waitMillis = usernameLimiter.tryAcquire(username.toLowerCase());
+            }
+        }
+
+        if (waitMillis == 0) {
+            chain.doFilter(request, response);
+        } else {
+            throttle(httpRequest, httpResponse, route, waitMillis);
+        }
+    }
+
+    static void throttle(HttpServletRequest httpRequest, HttpServletResponse httpResponse, String route, long waitMillis)
+            throws IOException {
+        System.out.println(RateLimitFilter.class.getCanonicalName() + ":throttled:" + route + ":" + httpRequest.getRemoteAddr());
+        httpResponse.setHeader("Retry-After", String.valueOf((waitMillis + 999) / 1000));
+        httpResponse.sendError(429, "Too many requests. Please try again later.");
+    }
+
+    /**
+     * Return the filter configuration object for this filter.
+     */
+    public FilterConfig getFilterConfig() {
+        return (this.filterConfig);
+    }
+
+    /**
+     * Set the filter configuration object for this filter.
+     *
+     * @param filterConfig The filter configuration object
+     */
+    public void setFilterConfig(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    public void destroy() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    /**
+     * Init method for this filter
+     */
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        Enumeration<String> names = filterConfig.getInitParameterNames();
+        while (names.hasMoreElements()) {
+            String route = names.nextElement();
+            for (String rule : filterConfig.getInitParameter(route).split(",")) {
+                String[] keyAndRate = rule.split("=");
+                if (keyAndRate.length != 2) {
+                    continue;
+                }
+                String key = keyAndRate[0].trim();
+                if (key.equals("account")) {
+                    accountLimiters.put(route, RateLimiter.parse(keyAndRate[1]));
+                } else if (key.equals("username")) {
+                    usernameLimiters.put(route, RateLimiter.parse(keyAndRate[1]));
+                } else if (key.equals("ip")) {
+                    ipLimiters.put(route, RateLimiter.parse(keyAndRate[1]));
+                }
+            }
+        }
+        filterConfig.getServletContext().setAttribute(ACCOUNT_LIMITERS, accountLimiters);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RateLimitFilter-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            for (RateLimiter rateLimiter : accountLimiters.values()) {
+                rateLimiter.evictIdle();
+            }
+            for (RateLimiter rateLimiter : usernameLimiters.values()) {
+                rateLimiter.evictIdle();
+            }
+            for (RateLimiter rateLimiter : ipLimiters.values()) {
+                rateLimiter.evictIdle();
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("RateLimitFilter()");
+        }
+        StringBuffer sb = new StringBuffer("RateLimitFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+}
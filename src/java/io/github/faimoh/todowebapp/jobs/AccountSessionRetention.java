@@ -0,0 +1,67 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.jobs;
+
+import io.github.faimoh.todowebapp.dao.AccountSessionDAO;
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import java.sql.Timestamp;
+
+/**
+ * Keeps account_sessions to the retention window. Once a day, sessions older
+ * than that are rolled up into per-account, per-day totals in
+ * account_session_days and removed, in the batches of BatchJob, so the
+ * login path is never blocked for long.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AccountSessionRetention extends BatchJob {
+
+    private static final AccountSessionRetention accountSessionRetention = new AccountSessionRetention();
+
+    private volatile long retentionMillis = 90 * 24 * 3600 * 1000L;
+
+    private AccountSessionRetention() {
+        super("rolledUp", 1000, 200);
+    }
+
+    public static AccountSessionRetention getInstance() {
+        return accountSessionRetention;
+    }
+
+    public static synchronized void configure(int retentionDays, int batchSize, int pauseMillis) {
+        accountSessionRetention.retentionMillis = retentionDays * 24 * 3600 * 1000L;
+        accountSessionRetention.setBatches(batchSize, pauseMillis);
+        if (retentionDays > 0) {
+            accountSessionRetention.schedule(15, 24 * 60);
+        }
+    }
+
+    protected Batch startRun() {
+        AccountSessionDAO accountSessionDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getAccountSessionDAO();
+        Timestamp createdBefore = new Timestamp(System.currentTimeMillis() - retentionMillis);
+        return batchSize -> accountSessionDAO.rollUpAccountSessions(createdBefore, batchSize);
+    }
+}
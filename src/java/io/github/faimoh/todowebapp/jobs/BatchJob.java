@@ -0,0 +1,129 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.jobs;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A background job that works through the database in small batches. Each
+ * run repeats its batch, with a pause after every batch that changed
+ * something, until a batch comes back less than full, so no batch holds locks
+ * for long and replicas can keep up. Runs are scheduled with a fixed delay on
+ * a daemon thread named after the job, and a run that fails is logged and
+ * retried by the next one.
+ *
+ * A job only provides startRun(), which reads the settings of the run and
+ * returns its batch, usually a single DAO call.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public abstract class BatchJob {
+
+    private final String action;
+    private ScheduledExecutorService scheduler = null;
+    private volatile int batchSize;
+    private volatile long pauseMillis;
+
+    /*
+    action names what the job does to a row in its log line, like purged.
+    */
+    protected BatchJob(String action, int batchSize, long pauseMillis) {
+        this.action = action;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    protected void setBatches(int batchSize, long pauseMillis) {
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMillis = pauseMillis;
+    }
+
+    /*
+    Starts the schedule, unless it is already running.
+    */
+    protected synchronized void schedule(long initialDelayMinutes, long intervalMinutes) {
+        if (scheduler == null) {
+            String name = this.getClass().getSimpleName();
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::run, initialDelayMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /*
+    Called at the start of every run. Returns the batch to repeat, or null to
+    skip the run.
+    */
+    protected abstract Batch startRun();
+
+    private void run() {
+        int total = 0;
+        try {
+            Batch batch = startRun();
+            if (batch == null) {
+                return;
+            }
+            int size = batchSize;
+            int count;
+            do {
+                count = batch.run(size);
+                if (count > 0) {
+                    total += count;
+                    Thread.sleep(pauseMillis);
+                }
+            } while (count == size);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            //Keep the schedule going, the next run tries again.
+            e.printStackTrace();
+        } finally {
+            if (total > 0) {
+                System.out.println(this.getClass().getCanonicalName() + ":" + action + ":" + total);
+            }
+        }
+    }
+
+    /*
+    One batch of a run. Returns how many rows it went through, at most
+    batchSize, or -1 on error, which ends the run.
+    */
+    protected interface Batch {
+        public int run(int batchSize);
+    }
+}
@@ -0,0 +1,77 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.jobs;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Moves done tasks that haven't changed for a while from tasks to
+ * tasks_archive, so the live table stays about the size of the work in
+ * progress. Tasks are moved in the batches of BatchJob, each copied and
+ * deleted in its own short transaction. Before moving anything
+ * the archiver makes sure tasks_archive has a partition for every month up to
+ * the next one.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskArchiver extends BatchJob {
+
+    //The lowest partition in the schema holds everything before this month.
+    private static final int FIRST_MONTH = 202001;
+
+    private static final TaskArchiver taskArchiver = new TaskArchiver();
+
+    private volatile long ageMillis = 90 * 24 * 3600 * 1000L;
+
+    private TaskArchiver() {
+        super("archived", 500, 200);
+    }
+
+    public static TaskArchiver getInstance() {
+        return taskArchiver;
+    }
+
+    public static synchronized void configure(int ageDays, int batchSize, int pauseMillis, int intervalMinutes) {
+        taskArchiver.ageMillis = ageDays * 24 * 3600 * 1000L;
+        taskArchiver.setBatches(batchSize, pauseMillis);
+        if (ageDays > 0) {
+            taskArchiver.schedule(intervalMinutes, intervalMinutes);
+        }
+    }
+
+    protected Batch startRun() {
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        LocalDate nextMonth = LocalDate.now().plusMonths(1);
+        if (!taskDAO.addArchivePartitions(FIRST_MONTH, nextMonth.getYear() * 100 + nextMonth.getMonthValue())) {
+            return null;
+        }
+        Timestamp completedBefore = new Timestamp(System.currentTimeMillis() - ageMillis);
+        return batchSize -> taskDAO.archiveCompletedTasks(completedBefore, batchSize);
+    }
+}
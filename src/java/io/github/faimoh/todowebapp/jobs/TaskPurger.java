@@ -0,0 +1,73 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.jobs;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import java.sql.Timestamp;
+
+/**
+ * Removes soft deleted tasks from the database in the background. Deleted
+ * tasks are kept for the purge delay first, so delta sync clients can still
+ * be told about the deletion. Rows are then removed in index order in the
+ * batches of BatchJob.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskPurger extends BatchJob {
+
+    private static final TaskPurger taskPurger = new TaskPurger();
+
+    private volatile long delayMillis = 7 * 24 * 3600 * 1000L;
+
+    private TaskPurger() {
+        super("purged", 500, 200);
+    }
+
+    public static TaskPurger getInstance() {
+        return taskPurger;
+    }
+
+    public static synchronized void configure(int delayHours, int batchSize, int pauseMillis, int intervalMinutes) {
+        taskPurger.delayMillis = delayHours * 3600 * 1000L;
+        taskPurger.setBatches(batchSize, pauseMillis);
+        taskPurger.schedule(intervalMinutes, intervalMinutes);
+    }
+
+    /*
+    How long deleted tasks are kept. Delta sync tokens older than this may
+    have missed deletions.
+    */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    protected Batch startRun() {
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        Timestamp deletedBefore = new Timestamp(System.currentTimeMillis() - delayMillis);
+        return batchSize -> taskDAO.purgeDeletedTasks(deletedBefore, batchSize);
+    }
+}
@@ -0,0 +1,83 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.jobs;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import java.util.ArrayList;
+
+/**
+ * Periodically recounts every account's tasks and repairs task_stats where
+ * the counters drifted, for example after tasks were changed directly in the
+ * database. Accounts are reconciled in ranges of batchSize account IDs, the
+ * batches of BatchJob. The first run also fills task_stats for tasks that
+ * existed before the counters did.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskStatsReconciler extends BatchJob {
+
+    private static final TaskStatsReconciler taskStatsReconciler = new TaskStatsReconciler();
+
+    private TaskStatsReconciler() {
+        super("checked", 100, 200);
+    }
+
+    public static TaskStatsReconciler getInstance() {
+        return taskStatsReconciler;
+    }
+
+    public static synchronized void configure(int intervalMinutes, int batchSize, int pauseMillis) {
+        taskStatsReconciler.setBatches(batchSize, pauseMillis);
+        if (intervalMinutes > 0) {
+            taskStatsReconciler.schedule(1, intervalMinutes);
+        }
+    }
+
+    /*
+    Each batch goes through the next range of account IDs and counts as the
+    whole range, up to the highest account ID there was when the run started.
+    */
+    protected Batch startRun() {
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        int maxAccountID = taskDAO.getMaxAccountID();
+        return new Batch() {
+            private int from = 0;
+
+            public int run(int batchSize) {
+                if (from > maxAccountID) {
+                    return 0;
+                }
+                ArrayList<Integer> accountIDs = taskDAO.reconcileTaskStats(from, from + batchSize - 1);
+                if (accountIDs != null && !accountIDs.isEmpty()) {
+                    System.out.println(TaskStatsReconciler.class.getCanonicalName() + ":repaired:" + accountIDs.size());
+                }
+                from += batchSize;
+                return batchSize;
+            }
+        };
+    }
+}
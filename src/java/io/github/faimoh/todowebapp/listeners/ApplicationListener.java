@@ -0,0 +1,179 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.listeners;
+
+import io.github.faimoh.todowebapp.analytics.LoginAnalytics;
+import io.github.faimoh.todowebapp.analytics.TaskReports;
+import io.github.faimoh.todowebapp.cache.TaskRowCache;
+import io.github.faimoh.todowebapp.cache.ViewValidators;
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.events.TaskEventHub;
+import io.github.faimoh.todowebapp.jobs.AccountSessionRetention;
+import io.github.faimoh.todowebapp.jobs.TaskArchiver;
+import io.github.faimoh.todowebapp.jobs.TaskPurger;
+import io.github.faimoh.todowebapp.jobs.TaskStatsReconciler;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import io.github.faimoh.todowebapp.search.TaskSearchIndex;
+import io.github.faimoh.todowebapp.search.TaskTagIndex;
+import io.github.faimoh.todowebapp.security.PasswordHasher;
+import io.github.faimoh.todowebapp.security.SessionRegistry;
+import io.github.faimoh.todowebapp.security.SessionTokens;
+import java.util.ArrayList;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+
+/**
+ * Web application listener. Configures the application's services from the
+ * context parameters in web.xml and keeps the SessionRegistry in step with the
+ * container when sessions end through logout, timeout or invalidation.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class ApplicationListener implements ServletContextListener, HttpSessionListener {
+
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        //The task pages render their options and labels from these.
+        context.setAttribute("taskStatuses", TaskStatus.values());
+        context.setAttribute("taskPriorities", TaskPriority.values());
+        context.setAttribute("taskStatusLabels", TaskStatus.getLabels());
+        context.setAttribute("taskPriorityLabels", TaskPriority.getLabels());
+        checkReferenceData();
+        PasswordHasher.configure(
+                getIntParameter(context, "passwordHashIterations", 310000),
+                getIntParameter(context, "passwordHashThreads", Runtime.getRuntime().availableProcessors()),
+                getIntParameter(context, "passwordHashQueueDepth", 64),
+                getIntParameter(context, "passwordHashTimeout", 5));
+        SessionTokens.configure(
+                context.getInitParameter("sessionMode"),
+                context.getInitParameter("sessionTokenKeys"),
+                getIntParameter(context, "sessionTokenMaxAge", 30 * 60),
+                getIntParameter(context, "sessionTokenMaxLifetime", 12 * 60 * 60));
+        SessionRegistry.configure(getIntParameter(context, "sessionStateMaxAge", 30));
+        ViewValidators.configure(getIntParameter(context, "viewValidatorMaxAge", 30));
+        TaskRowCache.configure(getIntParameter(context, "taskRowCacheSize", 50000));
+        TaskEventHub.configure(
+                getIntParameter(context, "taskStreamTimeout", 5 * 60),
+                getIntParameter(context, "taskStreamBufferSize", 64),
+                getIntParameter(context, "taskStreamHeartbeat", 20));
+        TaskPurger.configure(
+                getIntParameter(context, "taskPurgeDelay", 7 * 24),
+                getIntParameter(context, "taskPurgeBatchSize", 500),
+                getIntParameter(context, "taskPurgePause", 200),
+                getIntParameter(context, "taskPurgeInterval", 10));
+        TaskArchiver.configure(
+                getIntParameter(context, "taskArchiveAge", 90),
+                getIntParameter(context, "taskArchiveBatchSize", 500),
+                getIntParameter(context, "taskArchivePause", 200),
+                getIntParameter(context, "taskArchiveInterval", 60));
+        AccountSessionRetention.configure(
+                getIntParameter(context, "accountSessionRetention", 90),
+                getIntParameter(context, "accountSessionRetentionBatchSize", 1000),
+                getIntParameter(context, "accountSessionRetentionPause", 200));
+        TaskStatsReconciler.configure(
+                getIntParameter(context, "taskStatsReconcileInterval", 60),
+                getIntParameter(context, "taskStatsReconcileBatchSize", 100),
+                getIntParameter(context, "taskStatsReconcilePause", 200));
+        LoginAnalytics.configure(getIntParameter(context, "loginAnalyticsPersistInterval", 5));
+        TaskReports.configure(
+                getIntParameter(context, "taskReportsParallelism", 0),
+                getIntParameter(context, "taskReportsMaxAge", 60));
+        TaskSearchIndex.configure(
+                getIntParameter(context, "taskSearchIndexSize", 64),
+                getIntParameter(context, "taskSearchMaxResults", 50));
+        TaskTagIndex.configure(getIntParameter(context, "taskTagIndexSize", 1000));
+    }
+
+    public void contextDestroyed(ServletContextEvent event) {
+        PasswordHasher.getInstance().shutdown();
+        TaskEventHub.getInstance().shutdown();
+        TaskPurger.getInstance().shutdown();
+        TaskArchiver.getInstance().shutdown();
+        AccountSessionRetention.getInstance().shutdown();
+        TaskStatsReconciler.getInstance().shutdown();
+        LoginAnalytics.getInstance().shutdown();
+        TaskReports.getInstance().shutdown();
+    }
+
+    public void sessionCreated(HttpSessionEvent event) {
+        //Sessions are registered by LoginAction once the user is authenticated.
+    }
+
+    public void sessionDestroyed(HttpSessionEvent event) {
+        HttpSession session = event.getSession();
+        AccountPrincipal sessionUser = (AccountPrincipal) session.getAttribute("principal");
+        if (sessionUser != null) {
+            SessionRegistry.getInstance().unregister(sessionUser.getAccountID(), session.getId());
+            //Logout invalidates the session, so this sees every session end, timeouts included.
+            LoginAnalytics.getInstance().sessionEnded(sessionUser.getAccountID(),
+                    session.getCreationTime(), session.getLastAccessedTime());
+        }
+    }
+
+    /*
+    The statuses and priorities the application knows are fixed in TaskStatus
+    and TaskPriority. Tasks reference task_statuses and task_priorities, so
+    warn at startup if the tables and the enums disagree.
+    */
+    private static void checkReferenceData() {
+        TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+        ArrayList<Integer> statusIDs = taskDAO.getTaskStatusIDs();
+        ArrayList<Integer> priorityIDs = taskDAO.getTaskPriorityIDs();
+        if (statusIDs == null || priorityIDs == null) {
+            System.out.println(ApplicationListener.class.getCanonicalName() + ":checkReferenceData:unavailable");
+            return;
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            if (!statusIDs.remove(Integer.valueOf(status.getID()))) {
+                System.out.println(ApplicationListener.class.getCanonicalName() + ":checkReferenceData:missing task_statuses " + status.getID());
+            }
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            if (!priorityIDs.remove(Integer.valueOf(priority.getID()))) {
+                System.out.println(ApplicationListener.class.getCanonicalName() + ":checkReferenceData:missing task_priorities " + priority.getID());
+            }
+        }
+        if (!statusIDs.isEmpty() || !priorityIDs.isEmpty()) {
+            System.out.println(ApplicationListener.class.getCanonicalName() + ":checkReferenceData:unknown task_statuses "
+                    + statusIDs + " task_priorities " + priorityIDs);
+        }
+    }
+
+    private static int getIntParameter(ServletContext context, String name, int defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+}
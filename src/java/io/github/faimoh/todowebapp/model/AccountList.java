@@ -0,0 +1,149 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of accounts for the accounts dashboard, stored column by column like
+ * TaskList. It holds only what the dashboard shows, so password hashes are
+ * never read for it. Like TaskList it is a read-only List whose iterator
+ * reuses one Row for all accounts; use get() to keep a row.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AccountList extends AbstractList<AccountList.Row> {
+
+    private int size;
+    private int[] accountIDs;
+    private String[] usernames;
+    private String[] firstNames;
+    private String[] lastNames;
+    private long[] createdAt;
+    private byte[] statusIDs;
+
+    public AccountList() {
+        this(16);
+    }
+
+    public AccountList(int capacity) {
+        capacity = Math.max(capacity, 1);
+        accountIDs = new int[capacity];
+        usernames = new String[capacity];
+        firstNames = new String[capacity];
+        lastNames = new String[capacity];
+        createdAt = new long[capacity];
+        statusIDs = new byte[capacity];
+    }
+
+    public void add(int accountID, String username, String firstName, String lastName, Timestamp createdAt, int statusID) {
+        if (size == accountIDs.length) {
+            int capacity = size + (size >> 1) + 1;
+            accountIDs = Arrays.copyOf(accountIDs, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            this.createdAt = Arrays.copyOf(this.createdAt, capacity);
+            statusIDs = Arrays.copyOf(statusIDs, capacity);
+        }
+        this.accountIDs[size] = accountID;
+        this.usernames[size] = username;
+        this.firstNames[size] = firstName;
+        this.lastNames[size] = lastName;
+        this.createdAt[size] = createdAt == null ? 0 : createdAt.getTime();
+        this.statusIDs[size] = (byte) statusID;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Row get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Row(this, index);
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        Row row = new Row(this, -1);
+        return new Iterator<Row>() {
+            public boolean hasNext() {
+                return row.index + 1 < size;
+            }
+
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                row.index++;
+                return row;
+            }
+        };
+    }
+
+    public static class Row {
+        private final AccountList list;
+        private int index;
+
+        Row(AccountList list, int index) {
+            this.list = list;
+            this.index = index;
+        }
+
+        public int getAccountID() {
+            return list.accountIDs[index];
+        }
+
+        public String getUsername() {
+            return list.usernames[index];
+        }
+
+        public String getFirstName() {
+            return list.firstNames[index];
+        }
+
+        public String getLastName() {
+            return list.lastNames[index];
+        }
+
+        public Timestamp getCreatedAt() {
+            return list.createdAt[index] == 0 ? null : new Timestamp(list.createdAt[index]);
+        }
+
+        public int getStatusID() {
+            return list.statusIDs[index];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.io.Serializable;
+
+/**
+ * The logged in user as kept in the session: who they are and what roles and
+ * permissions they have, and nothing else. It is immutable, so a changed name
+ * or changed grants mean a new principal. Anything more about the account is
+ * read through the AccountDAO when an action needs it.
+ *
+ * The grants are resolved by AccountGrants at login. grantsVersion tells
+ * whether they are still current.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public final class AccountPrincipal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int ROLE_USER = 1;
+    public static final int ROLE_ADMIN = 1 << 1;
+
+    private final int accountID;
+    private final String username;
+    private final String displayName;
+    private final int roles;
+    private final long permissions;
+    private final int grantsVersion;
+
+    public AccountPrincipal(int accountID, String username, String displayName,
+            int roles, long permissions, int grantsVersion) {
+        this.accountID = accountID;
+        this.username = username;
+        this.displayName = displayName;
+        this.roles = roles;
+        this.permissions = permissions;
+        this.grantsVersion = grantsVersion;
+    }
+
+    public int getAccountID() {
+        return this.accountID;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    public int getRoles() {
+        return this.roles;
+    }
+
+    public long getPermissions() {
+        return this.permissions;
+    }
+
+    public int getGrantsVersion() {
+        return this.grantsVersion;
+    }
+
+    public boolean hasPermission(long permission) {
+        return (this.permissions & permission) != 0;
+    }
+
+    public boolean hasRole(int role) {
+        return (this.roles & role) != 0;
+    }
+
+    public boolean isAdmin() {
+        return hasRole(ROLE_ADMIN);
+    }
+
+    public AccountPrincipal withDisplayName(String displayName) {
+        return new AccountPrincipal(this.accountID, this.username, displayName,
+                this.roles, this.permissions, this.grantsVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "AccountPrincipal[id=" + this.accountID
+                + ", username=" + this.username
+                + ", displayName=" + this.displayName
+                + ", roles=" + this.roles
+                + ", permissions=" + this.permissions
+                + ", grantsVersion=" + this.grantsVersion
+                + "]";
+    }
+}
@@ -0,0 +1,84 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * What decides whether an account's logins are still valid, as stored with
+ * the account: the time its sessions were last revoked, whether it is
+ * disabled, the stateless tokens that were logged out and haven't expired
+ * yet, and the version of its roles. Every node reads the same values, so a
+ * revocation or role change made on one node holds on all of them.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AccountSessionState {
+
+    private final long sessionsRevokedAt;
+    private final boolean isDisabled;
+    private final Set<String> revokedTokenIDs;
+    private final int grantsVersion;
+
+    public AccountSessionState(long sessionsRevokedAt, boolean isDisabled, Set<String> revokedTokenIDs, int grantsVersion) {
+        this.sessionsRevokedAt = sessionsRevokedAt;
+        this.isDisabled = isDisabled;
+        this.revokedTokenIDs = Collections.unmodifiableSet(revokedTokenIDs);
+        this.grantsVersion = grantsVersion;
+    }
+
+    /*
+    Sessions and tokens created before this time, in epoch milliseconds, are
+    no longer valid. 0 if they were never revoked.
+    */
+    public long getSessionsRevokedAt() {
+        return this.sessionsRevokedAt;
+    }
+
+    public boolean isDisabled() {
+        return this.isDisabled;
+    }
+
+    public Set<String> getRevokedTokenIDs() {
+        return this.revokedTokenIDs;
+    }
+
+    /*
+    Bumped every time the account's roles change.
+    */
+    public int getGrantsVersion() {
+        return this.grantsVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountSessionState[sessionsRevokedAt=" + this.sessionsRevokedAt
+                + ", isDisabled=" + this.isDisabled
+                + ", revokedTokenIDs=" + this.revokedTokenIDs.size()
+                + ", grantsVersion=" + this.grantsVersion + "]";
+    }
+}
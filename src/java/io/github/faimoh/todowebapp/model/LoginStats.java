@@ -0,0 +1,103 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Login totals for one minute, hour or day: how many logins there were, how
+ * many sessions ended and how long they lasted, and how many distinct accounts
+ * were active.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class LoginStats {
+
+    private Timestamp periodStart;
+    private int logins;
+    private int endedSessions;
+    private long sessionSeconds;
+    private int activeUsers;
+
+    public LoginStats() {
+
+    }
+
+    public void setPeriodStart(Timestamp periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public Timestamp getPeriodStart() {
+        return this.periodStart;
+    }
+
+    public void setLogins(int logins) {
+        this.logins = logins;
+    }
+
+    public int getLogins() {
+        return this.logins;
+    }
+
+    public void setEndedSessions(int endedSessions) {
+        this.endedSessions = endedSessions;
+    }
+
+    public int getEndedSessions() {
+        return this.endedSessions;
+    }
+
+    public void setSessionSeconds(long sessionSeconds) {
+        this.sessionSeconds = sessionSeconds;
+    }
+
+    public long getSessionSeconds() {
+        return this.sessionSeconds;
+    }
+
+    public void setActiveUsers(int activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+
+    public int getActiveUsers() {
+        return this.activeUsers;
+    }
+
+    public long getAverageSessionSeconds() {
+        return this.endedSessions == 0 ? 0 : this.sessionSeconds / this.endedSessions;
+    }
+
+    @Override
+    public String toString() {
+        return "LoginStats["
+                + this.periodStart + ", "
+                + this.logins + ", "
+                + this.endedSessions + ", "
+                + this.sessionSeconds + ", "
+                + this.activeUsers
+                + "]";
+    }
+}
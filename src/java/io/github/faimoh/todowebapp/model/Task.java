@@ -26,6 +26,7 @@
 package io.github.faimoh.todowebapp.model;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 
 /**
  *
@@ -41,6 +42,9 @@ public class Task {
     private Timestamp createdAt;
     private Timestamp deadline;
     private Timestamp lastUpdated;
+    private Timestamp deletedAt;
+    //null when the tags were not read or are not to be changed.
+    private ArrayList<String> tags;
 
     public Task() {
 
@@ -110,6 +114,22 @@ public class Task {
         this.lastUpdated = lastUpdated;
     }
 
+    public Timestamp getDeletedAt() {
+        return this.deletedAt;
+    }
+
+    public void setDeletedAt(Timestamp deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public ArrayList<String> getTags() {
+        return this.tags;
+    }
+
+    public void setTags(ArrayList<String> tags) {
+        this.tags = tags;
+    }
+
     @Override
     public String toString() {
         return "Task[id=" + this.taskID
@@ -0,0 +1,225 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of tasks stored column by column: primitive arrays for the IDs and
+ * epoch millisecond times, bytes for status and priority, and the details
+ * and tag name strings. A task takes about 40 bytes plus its details, where a Task with
+ * its boxed IDs and three Timestamps takes about 150 to 170; the
+ * TaskListFootprint harness under src/bench measures both.
+ *
+ * Tasks are read through a Row, which has the getters of Task, so JSPs and
+ * views use it the same way. It is a read-only List, so c:forEach takes it
+ * like any other. Iterating reuses one Row for all tasks, which suits
+ * c:forEach and for-each loops; use get() to keep a row. Times that are not
+ * set are 0, and their Timestamp getters return null.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskList extends AbstractList<TaskList.Row> {
+
+    private int size;
+    private int[] taskIDs;
+    private int[] accountIDs;
+    private String[] details;
+    private byte[] statusIDs;
+    private byte[] priorityIDs;
+    private long[] createdAt;
+    private long[] deadlines;
+    private long[] lastUpdated;
+    private String[] tags;
+
+    public TaskList() {
+        this(16);
+    }
+
+    public TaskList(int capacity) {
+        capacity = Math.max(capacity, 1);
+        taskIDs = new int[capacity];
+        accountIDs = new int[capacity];
+        details = new String[capacity];
+        statusIDs = new byte[capacity];
+        priorityIDs = new byte[capacity];
+        createdAt = new long[capacity];
+        deadlines = new long[capacity];
+        lastUpdated = new long[capacity];
+        tags = new String[capacity];
+    }
+
+    public void add(int taskID, int accountID, String details, int statusID, int priorityID,
+            Timestamp createdAt, Timestamp deadline, Timestamp lastUpdated) {
+        add(taskID, accountID, details, statusID, priorityID, createdAt, deadline, lastUpdated, null);
+    }
+
+    /*
+    tags holds the task's tag names separated by spaces, or null if it has
+    none.
+    */
+    public void add(int taskID, int accountID, String details, int statusID, int priorityID,
+            Timestamp createdAt, Timestamp deadline, Timestamp lastUpdated, String tags) {
+        if (size == taskIDs.length) {
+            grow();
+        }
+        this.taskIDs[size] = taskID;
+        this.accountIDs[size] = accountID;
+        this.details[size] = details;
+        this.statusIDs[size] = (byte) statusID;
+        this.priorityIDs[size] = (byte) priorityID;
+        this.createdAt[size] = millis(createdAt);
+        this.deadlines[size] = millis(deadline);
+        this.lastUpdated[size] = millis(lastUpdated);
+        this.tags[size] = tags;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Row get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Row(this, index);
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        Row row = new Row(this, -1);
+        return new Iterator<Row>() {
+            public boolean hasNext() {
+                return row.index + 1 < size;
+            }
+
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                row.index++;
+                return row;
+            }
+        };
+    }
+
+    private void grow() {
+        int capacity = taskIDs.length + (taskIDs.length >> 1) + 1;
+        taskIDs = Arrays.copyOf(taskIDs, capacity);
+        accountIDs = Arrays.copyOf(accountIDs, capacity);
+        details = Arrays.copyOf(details, capacity);
+        statusIDs = Arrays.copyOf(statusIDs, capacity);
+        priorityIDs = Arrays.copyOf(priorityIDs, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        lastUpdated = Arrays.copyOf(lastUpdated, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp == null ? 0 : timestamp.getTime();
+    }
+
+    private static Timestamp timestamp(long millis) {
+        return millis == 0 ? null : new Timestamp(millis);
+    }
+
+    /*
+    One task of the list. Reads go straight to the columns.
+    */
+    public static class Row {
+        private final TaskList list;
+        private int index;
+
+        Row(TaskList list, int index) {
+            this.list = list;
+            this.index = index;
+        }
+
+        public int getTaskID() {
+            return list.taskIDs[index];
+        }
+
+        public int getAccountID() {
+            return list.accountIDs[index];
+        }
+
+        public String getDetails() {
+            return list.details[index];
+        }
+
+        public int getStatusID() {
+            return list.statusIDs[index];
+        }
+
+        public int getPriorityID() {
+            return list.priorityIDs[index];
+        }
+
+        public long getCreatedAtMillis() {
+            return list.createdAt[index];
+        }
+
+        public long getDeadlineMillis() {
+            return list.deadlines[index];
+        }
+
+        public long getLastUpdatedMillis() {
+            return list.lastUpdated[index];
+        }
+
+        public Timestamp getCreatedAt() {
+            return timestamp(list.createdAt[index]);
+        }
+
+        public Timestamp getDeadline() {
+            return timestamp(list.deadlines[index]);
+        }
+
+        public Timestamp getLastUpdated() {
+            return timestamp(list.lastUpdated[index]);
+        }
+
+        public List<String> getTags() {
+            String tags = list.tags[index];
+            return tags == null ? Collections.<String>emptyList() : Arrays.asList(tags.split(" "));
+        }
+
+        @Override
+        public String toString() {
+            return "TaskList.Row[id=" + getTaskID() + ", index=" + index + "]";
+        }
+    }
+}
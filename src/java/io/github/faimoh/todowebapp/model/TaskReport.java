@@ -0,0 +1,119 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+/**
+ * One row of the admin task reports: the tasks of one priority, or of all of
+ * them, across all accounts.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskReport {
+
+    private String label;
+    private long tasks;
+    private long completedTasks;
+    private long medianMillisToComplete;
+    private long tasksWithDeadline;
+    private long missedDeadlines;
+
+    public TaskReport() {
+
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    public long getTasks() {
+        return this.tasks;
+    }
+
+    public void setCompletedTasks(long completedTasks) {
+        this.completedTasks = completedTasks;
+    }
+
+    public long getCompletedTasks() {
+        return this.completedTasks;
+    }
+
+    public void setMedianMillisToComplete(long medianMillisToComplete) {
+        this.medianMillisToComplete = medianMillisToComplete;
+    }
+
+    public long getMedianMillisToComplete() {
+        return this.medianMillisToComplete;
+    }
+
+    public long getMedianHoursToComplete() {
+        return this.medianMillisToComplete / (3600 * 1000L);
+    }
+
+    public void setTasksWithDeadline(long tasksWithDeadline) {
+        this.tasksWithDeadline = tasksWithDeadline;
+    }
+
+    public long getTasksWithDeadline() {
+        return this.tasksWithDeadline;
+    }
+
+    public void setMissedDeadlines(long missedDeadlines) {
+        this.missedDeadlines = missedDeadlines;
+    }
+
+    public long getMissedDeadlines() {
+        return this.missedDeadlines;
+    }
+
+    //Percentages with one decimal.
+    public double getCompletionRate() {
+        return this.tasks == 0 ? 0 : Math.round(this.completedTasks * 1000.0 / this.tasks) / 10.0;
+    }
+
+    public double getDeadlineMissRate() {
+        return this.tasksWithDeadline == 0 ? 0 : Math.round(this.missedDeadlines * 1000.0 / this.tasksWithDeadline) / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskReport["
+                + this.label + ", "
+                + this.tasks + ", "
+                + this.completedTasks + ", "
+                + this.medianMillisToComplete + ", "
+                + this.tasksWithDeadline + ", "
+                + this.missedDeadlines
+                + "]";
+    }
+}
@@ -0,0 +1,113 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+/**
+ * Task counts of one account by status and priority, and how many open tasks
+ * are past their deadline. The arrays are indexed by status and priority ID.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskStats {
+
+    private int[][] counts = new int[4][5];
+    private int overdueTasks;
+
+    public TaskStats() {
+
+    }
+
+    public void add(int statusID, int priorityID, int count) {
+        if (statusID < 0 || priorityID < 0) {
+            return;
+        }
+        if (statusID >= counts.length || priorityID >= counts[0].length) {
+            int[][] grown = new int[Math.max(statusID + 1, counts.length)][Math.max(priorityID + 1, counts[0].length)];
+            for (int i = 0; i < counts.length; i++) {
+                System.arraycopy(counts[i], 0, grown[i], 0, counts[i].length);
+            }
+            counts = grown;
+        }
+        counts[statusID][priorityID] += count;
+    }
+
+    public int getCount(int statusID, int priorityID) {
+        return statusID < counts.length && priorityID < counts[0].length ? counts[statusID][priorityID] : 0;
+    }
+
+    public int[] getStatusCounts() {
+        int[] statusCounts = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            for (int count : counts[i]) {
+                statusCounts[i] += count;
+            }
+        }
+        return statusCounts;
+    }
+
+    public int[] getPriorityCounts() {
+        int[] priorityCounts = new int[counts[0].length];
+        for (int[] row : counts) {
+            for (int i = 0; i < row.length; i++) {
+                priorityCounts[i] += row[i];
+            }
+        }
+        return priorityCounts;
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int[] row : counts) {
+            for (int count : row) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    public void setOverdueTasks(int overdueTasks) {
+        this.overdueTasks = overdueTasks;
+    }
+
+    public int getOverdueTasks() {
+        return this.overdueTasks;
+    }
+
+    public TaskStats copy() {
+        TaskStats copy = new TaskStats();
+        copy.counts = new int[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            copy.counts[i] = counts[i].clone();
+        }
+        copy.overdueTasks = overdueTasks;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStats[total=" + getTotal() + ", overdue=" + this.overdueTasks + "]";
+    }
+}
@@ -0,0 +1,93 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The rows of the task_statuses table. The IDs are the ones stored in
+ * tasks.status_id. Lookups by ID read an array indexed by ID that is built
+ * once when the class is loaded.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public enum TaskStatus {
+
+    TODO(1, "To do"),
+    IN_PROGRESS(2, "In progress"),
+    DONE(3, "Done");
+
+    private static final TaskStatus[] BY_ID = new TaskStatus[4];
+    private static final List<String> LABELS;
+
+    static {
+        String[] labels = new String[BY_ID.length];
+        for (TaskStatus status : values()) {
+            BY_ID[status.id] = status;
+            labels[status.id] = status.label;
+        }
+        LABELS = Collections.unmodifiableList(Arrays.asList(labels));
+    }
+
+    private final int id;
+    private final String label;
+
+    private TaskStatus(int id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public int getID() {
+        return this.id;
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public static TaskStatus forID(Integer id) {
+        return id != null && id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    public static boolean isValid(Integer id) {
+        return forID(id) != null;
+    }
+
+    public static String label(Integer id) {
+        TaskStatus status = forID(id);
+        return status != null ? status.label : "";
+    }
+
+    /*
+    The labels indexed by ID, for the JSPs to look up with
+    ${taskStatusLabels[task.statusID]}. Index 0 is null.
+    */
+    public static List<String> getLabels() {
+        return LABELS;
+    }
+}
@@ -0,0 +1,256 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of the task details of one account. Each task is a document
+ * with an ordinal; each term maps to its postings, the ordinals of the tasks
+ * that contain it with how often they do. Terms are kept sorted, so a prefix
+ * is a range of terms and search-as-you-type needs no extra structure.
+ *
+ * Every query term must match, as a whole term or as a prefix. Matches are
+ * ranked with BM25, a prefix match counting for PREFIX_WEIGHT of a whole one.
+ *
+ * Not thread safe. TaskSearchIndex guards every instance.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+class AccountIndex {
+
+    static final int MAX_TERM_LENGTH = 32;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    //Rough sizes for the memory estimate: a map entry with its term, a posting, a document.
+    private static final int TERM_BYTES = 96;
+    private static final int POSTING_BYTES = 8;
+    private static final int DOCUMENT_BYTES = 64;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<String, Postings>();
+    private final HashMap<Integer, Integer> ordinals = new HashMap<Integer, Integer>();
+    private int[] taskIDs = new int[16];
+    private String[][] documentTerms = new String[16][];
+    private int[] documentLengths = new int[16];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+    private long totalLength;
+    private long estimatedBytes;
+
+    /*
+    Indexes the task, replacing what was indexed for it before.
+    */
+    void put(int taskID, String details) {
+        remove(taskID);
+        HashMap<String, Integer> counts = new HashMap<String, Integer>();
+        ArrayList<String> tokens = tokenize(details);
+        for (String token : tokens) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        int ordinal = newOrdinal();
+        String[] keys = new String[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            String term = count.getKey();
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+                estimatedBytes += TERM_BYTES + 2 * term.length();
+            } else {
+                //Share the map's copy of the term.
+                term = terms.ceilingKey(term);
+            }
+            postings.add(ordinal, count.getValue());
+            keys[i++] = term;
+        }
+        taskIDs[ordinal] = taskID;
+        documentTerms[ordinal] = keys;
+        documentLengths[ordinal] = tokens.size();
+        totalLength += tokens.size();
+        ordinals.put(taskID, ordinal);
+        estimatedBytes += DOCUMENT_BYTES + (long) keys.length * (8 + POSTING_BYTES);
+    }
+
+    void remove(int taskID) {
+        Integer ordinal = ordinals.remove(taskID);
+        if (ordinal == null) {
+            return;
+        }
+        String[] keys = documentTerms[ordinal];
+        for (String term : keys) {
+            Postings postings = terms.get(term);
+            postings.remove(ordinal);
+            if (postings.size == 0) {
+                terms.remove(term);
+                estimatedBytes -= TERM_BYTES + 2 * term.length();
+            }
+        }
+        estimatedBytes -= DOCUMENT_BYTES + (long) keys.length * (8 + POSTING_BYTES);
+        totalLength -= documentLengths[ordinal];
+        documentTerms[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    /*
+    Returns the IDs of up to maxResults tasks that match every term of the
+    query, best first. Ties go to the newer task.
+    */
+    int[] search(String query, int maxResults) {
+        ArrayList<String> queryTerms = new ArrayList<String>();
+        for (String token : tokenize(query)) {
+            if (!queryTerms.contains(token) && queryTerms.size() < MAX_QUERY_TERMS) {
+                queryTerms.add(token);
+            }
+        }
+        int documents = ordinals.size();
+        if (queryTerms.isEmpty() || documents == 0) {
+            return new int[0];
+        }
+        float averageLength = Math.max(1f, (float) totalLength / documents);
+        float[] scores = new float[nextOrdinal];
+        int[] matched = new int[nextOrdinal];
+        float[] best = new float[nextOrdinal];
+        for (String prefix : queryTerms) {
+            Arrays.fill(best, 0f);
+            for (Map.Entry<String, Postings> entry : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).entrySet()) {
+                float weight = entry.getKey().length() == prefix.length() ? 1f : PREFIX_WEIGHT;
+                Postings postings = entry.getValue();
+                float idf = (float) Math.log(1 + (documents - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int ordinal = postings.ordinals[i];
+                    int frequency = postings.frequencies[i];
+                    float norm = K1 * (1 - B + B * documentLengths[ordinal] / averageLength);
+                    float score = weight * idf * frequency * (K1 + 1) / (frequency + norm);
+                    if (score > best[ordinal]) {
+                        best[ordinal] = score;
+                    }
+                }
+            }
+            //A term counts once per task, by its best matching term.
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (best[ordinal] > 0) {
+                    scores[ordinal] += best[ordinal];
+                    matched[ordinal]++;
+                }
+            }
+        }
+        ArrayList<Integer> hits = new ArrayList<Integer>();
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (matched[ordinal] == queryTerms.size()) {
+                hits.add(ordinal);
+            }
+        }
+        hits.sort((a, b) -> scores[a] != scores[b] ? Float.compare(scores[b], scores[a])
+                : Integer.compare(taskIDs[b], taskIDs[a]));
+        int[] results = new int[Math.min(maxResults, hits.size())];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = taskIDs[hits.get(i)];
+        }
+        return results;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    long getEstimatedBytes() {
+        return estimatedBytes + 16L * taskIDs.length;
+    }
+
+    /*
+    Lower case runs of letters and digits, cut to MAX_TERM_LENGTH.
+    */
+    static ArrayList<String> tokenize(String text) {
+        ArrayList<String> tokens = new ArrayList<String>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private int newOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (nextOrdinal == taskIDs.length) {
+            int capacity = taskIDs.length * 2;
+            taskIDs = Arrays.copyOf(taskIDs, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+        }
+        return nextOrdinal++;
+    }
+
+    private static class Postings {
+        int[] ordinals = new int[2];
+        short[] frequencies = new short[2];
+        int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = (short) Math.min(frequency, Short.MAX_VALUE);
+            size++;
+        }
+
+        //Order doesn't matter, so the last posting takes the removed one's place.
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
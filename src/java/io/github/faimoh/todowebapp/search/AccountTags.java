@@ -0,0 +1,249 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bitmap index of the tags of one account's live tasks. Each task gets a
+ * small ordinal, reused after the task is removed, so the ordinals stay dense
+ * and a BitSet over them takes a bit per task. Each tag has the BitSet of the
+ * tasks carrying it, and 'live' has every task, for NOT.
+ *
+ * A filter like "work AND urgent NOT waiting" is evaluated with BitSet and,
+ * or and andNot, a machine word of 64 tasks at a time. Adjacent terms are
+ * ANDed, AND binds tighter than OR, and parentheses group. A filter has at
+ * most MAX_FILTER_TOKENS words and parentheses, nested at most
+ * MAX_FILTER_DEPTH deep, so the recursive parser can't run out of stack.
+ *
+ * Not thread safe. TaskTagIndex guards every instance.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+class AccountTags {
+
+    private static final Pattern TOKENS = Pattern.compile("\\(|\\)|[^\\s()]+");
+    private static final int MAX_FILTER_TOKENS = 100;
+    private static final int MAX_FILTER_DEPTH = 16;
+
+    private final HashMap<Integer, Integer> ordinals = new HashMap<Integer, Integer>();
+    private final HashMap<String, BitSet> tasksByTag = new HashMap<String, BitSet>();
+    private final BitSet live = new BitSet();
+    private int[] taskIDs = new int[16];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+
+    void addTask(int taskID) {
+        ordinal(taskID);
+    }
+
+    void addTag(int taskID, String tag) {
+        tasksByTag.computeIfAbsent(tag, t -> new BitSet()).set(ordinal(taskID));
+    }
+
+    /*
+    Replaces the task's tags, adding the task if it is new.
+    */
+    void setTags(int taskID, List<String> tags) {
+        int ordinal = ordinal(taskID);
+        clearTags(ordinal);
+        for (String tag : tags) {
+            tasksByTag.computeIfAbsent(tag, t -> new BitSet()).set(ordinal);
+        }
+    }
+
+    void removeTask(int taskID) {
+        Integer ordinal = ordinals.remove(taskID);
+        if (ordinal == null) {
+            return;
+        }
+        clearTags(ordinal);
+        live.clear(ordinal);
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    /*
+    Returns the IDs of the tasks the filter selects, in ascending order.
+    Throws IllegalArgumentException if the filter can't be parsed.
+    */
+    int[] filter(String expression) {
+        ArrayList<String> tokens = new ArrayList<String>();
+        Matcher matcher = TOKENS.matcher(expression);
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+            if (tokens.size() > MAX_FILTER_TOKENS) {
+                throw new IllegalArgumentException("The filter is too long.");
+            }
+        }
+        Parser parser = new Parser(tokens);
+        BitSet selected = parser.parseOr();
+        if (parser.position < tokens.size()) {
+            throw new IllegalArgumentException("Unexpected " + tokens.get(parser.position) + " in the filter.");
+        }
+        int[] selectedIDs = new int[selected.cardinality()];
+        int i = 0;
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            selectedIDs[i++] = taskIDs[ordinal];
+        }
+        Arrays.sort(selectedIDs);
+        return selectedIDs;
+    }
+
+    TreeSet<String> getTags() {
+        return new TreeSet<String>(tasksByTag.keySet());
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    private int ordinal(int taskID) {
+        Integer ordinal = ordinals.get(taskID);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int newOrdinal;
+        if (freeCount > 0) {
+            newOrdinal = freeOrdinals[--freeCount];
+        } else {
+            if (nextOrdinal == taskIDs.length) {
+                taskIDs = Arrays.copyOf(taskIDs, taskIDs.length * 2);
+            }
+            newOrdinal = nextOrdinal++;
+        }
+        taskIDs[newOrdinal] = taskID;
+        ordinals.put(taskID, newOrdinal);
+        live.set(newOrdinal);
+        return newOrdinal;
+    }
+
+    //An account has a handful of tags, so clearing the bit in each is cheap.
+    private void clearTags(int ordinal) {
+        Iterator<Map.Entry<String, BitSet>> iterator = tasksByTag.entrySet().iterator();
+        while (iterator.hasNext()) {
+            BitSet tasks = iterator.next().getValue();
+            tasks.clear(ordinal);
+            if (tasks.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /*
+    or := and (OR and)*
+    and := not ([AND] not)*
+    not := NOT not | ( or ) | tag
+    Every method returns a BitSet of its own that the caller may change.
+    */
+    private class Parser {
+        final List<String> tokens;
+        int position;
+        //NOTs and parentheses open around the current token.
+        int depth;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        BitSet parseOr() {
+            BitSet result = parseAnd();
+            while (isNext("OR")) {
+                position++;
+                result.or(parseAnd());
+            }
+            return result;
+        }
+
+        BitSet parseAnd() {
+            BitSet result = parseNot();
+            while (position < tokens.size() && !isNext("OR") && !tokens.get(position).equals(")")) {
+                if (isNext("AND")) {
+                    position++;
+                }
+                if (isNext("NOT")) {
+                    position++;
+                    result.andNot(parseNot());
+                } else {
+                    result.and(parseNot());
+                }
+            }
+            return result;
+        }
+
+        BitSet parseNot() {
+            if (position == tokens.size()) {
+                throw new IllegalArgumentException("The filter ends too early.");
+            }
+            String token = tokens.get(position++);
+            if (token.equalsIgnoreCase("NOT")) {
+                enter();
+                BitSet result = (BitSet) live.clone();
+                result.andNot(parseNot());
+                depth--;
+                return result;
+            }
+            if (token.equals("(")) {
+                enter();
+                BitSet result = parseOr();
+                if (!isNext(")")) {
+                    throw new IllegalArgumentException("Missing ) in the filter.");
+                }
+                position++;
+                depth--;
+                return result;
+            }
+            if (token.equals(")") || token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR")) {
+                throw new IllegalArgumentException("Unexpected " + token + " in the filter.");
+            }
+            BitSet tasks = tasksByTag.get(token.toLowerCase(Locale.ROOT));
+            return tasks == null ? new BitSet() : (BitSet) tasks.clone();
+        }
+
+        private void enter() {
+            if (++depth > MAX_FILTER_DEPTH) {
+                throw new IllegalArgumentException("The filter is nested too deeply.");
+            }
+        }
+
+        private boolean isNext(String keyword) {
+            return position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword);
+        }
+    }
+}
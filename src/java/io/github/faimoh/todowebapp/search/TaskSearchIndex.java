@@ -0,0 +1,230 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.search;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import io.github.faimoh.todowebapp.model.Task;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over the details of the user's live tasks, answered from
+ * an in-memory AccountIndex per account instead of scanning tasks with LIKE.
+ *
+ * An account's index is built the first time the account searches, by
+ * streaming its tasks from the DAO. From then on the DAO reports every task
+ * it writes once the write has committed, and the index is updated in place.
+ * Changes that arrive while an index is being built are kept and applied on
+ * top of it, so a task written during the build is never lost.
+ *
+ * The indexes together are kept under maxBytes, by an estimate of their size.
+ * When a new index pushes them over, the indexes of the accounts that haven't
+ * searched for the longest are dropped, and rebuilt if they search again.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskSearchIndex {
+
+    private static final TaskSearchIndex taskSearchIndex = new TaskSearchIndex();
+
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+    private volatile long maxBytes = 64L * 1024 * 1024;
+    private volatile int maxResults = 50;
+
+    private TaskSearchIndex() {
+
+    }
+
+    public static TaskSearchIndex getInstance() {
+        return taskSearchIndex;
+    }
+
+    public static void configure(int maxMegabytes, int maxResults) {
+        taskSearchIndex.maxBytes = maxMegabytes * 1024L * 1024L;
+        taskSearchIndex.maxResults = maxResults;
+    }
+
+    /*
+    Returns the IDs of the account's tasks that match the query, best first,
+    or null if the tasks could not be read.
+    */
+    public int[] search(int accountID, String query) throws IOException {
+        Entry entry = entries.computeIfAbsent(accountID, id -> new Entry());
+        entry.lastSearched = System.currentTimeMillis();
+        synchronized (entry) {
+            while (entry.pending != null) {
+                try {
+                    entry.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            if (entry.index != null) {
+                return entry.index.search(query, maxResults);
+            }
+            entry.pending = new ArrayList<Change>();
+        }
+        AccountIndex index = new AccountIndex();
+        boolean isRead = false;
+        try {
+            TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+            isRead = taskDAO.forEachTask(accountID, task -> index.put(task.getTaskID(), task.getDetails()));
+        } finally {
+            synchronized (entry) {
+                if (isRead && !entry.isStale) {
+                    for (Change change : entry.pending) {
+                        change.applyTo(index);
+                    }
+                    entry.index = index;
+                }
+                entry.pending = null;
+                entry.isStale = false;
+                entry.notifyAll();
+            }
+        }
+        if (!isRead) {
+            return null;
+        }
+        System.out.println(this.getClass().getCanonicalName() + ":build:" + accountID + ":" + index.size());
+        evict(entry);
+        synchronized (entry) {
+            return entry.index != null ? entry.index.search(query, maxResults) : null;
+        }
+    }
+
+    /*
+    Called by the DAO for every task it inserts or updates, after the commit.
+    */
+    public void taskChanged(Task task) {
+        apply(task.getAccountID(), new Change(task.getTaskID(), task.getDetails()));
+    }
+
+    public void taskRemoved(int accountID, int taskID) {
+        apply(accountID, new Change(taskID, null));
+    }
+
+    /*
+    Drops the account's index, for changes that don't say which tasks they
+    touched. The next search builds it again.
+    */
+    public void accountChanged(int accountID) {
+        Entry entry = entries.get(accountID);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.index = null;
+                entry.estimatedBytes = 0;
+                if (entry.pending != null) {
+                    entry.isStale = true;
+                }
+            }
+        }
+    }
+
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            bytes += entry.estimatedBytes;
+        }
+        return bytes;
+    }
+
+    private void apply(int accountID, Change change) {
+        Entry entry = entries.get(accountID);
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.pending != null) {
+                    entry.pending.add(change);
+                } else if (entry.index != null) {
+                    change.applyTo(entry.index);
+                    entry.estimatedBytes = entry.index.getEstimatedBytes();
+                }
+            }
+        }
+    }
+
+    /*
+    Drops the least recently searched indexes until the rest fit into
+    maxBytes. The index just built is kept even if it doesn't fit alone.
+    */
+    private synchronized void evict(Entry keep) {
+        synchronized (keep) {
+            keep.estimatedBytes = keep.index != null ? keep.index.getEstimatedBytes() : 0;
+        }
+        long bytes = getEstimatedBytes();
+        if (bytes <= maxBytes) {
+            return;
+        }
+        ArrayList<Map.Entry<Integer, Entry>> byLastSearched = new ArrayList<Map.Entry<Integer, Entry>>(entries.entrySet());
+        byLastSearched.sort((a, b) -> Long.compare(a.getValue().lastSearched, b.getValue().lastSearched));
+        for (Map.Entry<Integer, Entry> candidate : byLastSearched) {
+            if (bytes <= maxBytes) {
+                break;
+            }
+            Entry entry = candidate.getValue();
+            synchronized (entry) {
+                //An entry being built is left to finish, it is counted once it is.
+                if (entry == keep || entry.pending != null) {
+                    continue;
+                }
+                entries.remove(candidate.getKey(), entry);
+                bytes -= entry.estimatedBytes;
+                System.out.println(this.getClass().getCanonicalName() + ":evict:" + candidate.getKey());
+            }
+        }
+    }
+
+    private static class Entry {
+        AccountIndex index;
+        //Changes that arrived while the index is being built, null when not building.
+        ArrayList<Change> pending;
+        boolean isStale;
+        volatile long estimatedBytes;
+        volatile long lastSearched;
+    }
+
+    private static class Change {
+        final int taskID;
+        //null if the task was removed.
+        final String details;
+
+        Change(int taskID, String details) {
+            this.taskID = taskID;
+            this.details = details;
+        }
+
+        void applyTo(AccountIndex index) {
+            if (details == null) {
+                index.remove(taskID);
+            } else {
+                index.put(taskID, details);
+            }
+        }
+    }
+}
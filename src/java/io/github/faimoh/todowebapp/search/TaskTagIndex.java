@@ -0,0 +1,285 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.search;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.TaskDAO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filters the tasks dashboard by tags without joining task_tags. Each
+ * account that filters gets an AccountTags bitmap index, built by streaming
+ * its live tasks with their tags from the DAO. The DAO then reports every
+ * task it writes once the write has committed, the same way as for
+ * TaskSearchIndex, and changes that arrive during a build are applied on top.
+ *
+ * At most maxAccounts indexes are kept. When a new one goes over, the
+ * indexes of the accounts that haven't filtered for the longest are dropped.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskTagIndex {
+
+    public static final int MAX_TAGS = 16;
+    public static final int MAX_TAG_LENGTH = 32;
+
+    private static final TaskTagIndex taskTagIndex = new TaskTagIndex();
+
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+    private volatile int maxAccounts = 1000;
+
+    private TaskTagIndex() {
+
+    }
+
+    public static TaskTagIndex getInstance() {
+        return taskTagIndex;
+    }
+
+    public static void configure(int maxAccounts) {
+        taskTagIndex.maxAccounts = maxAccounts;
+    }
+
+    /*
+    Returns the IDs of the account's live tasks the filter selects, in
+    ascending order, or null if the tasks could not be read. Throws
+    IllegalArgumentException if the filter can't be parsed.
+    */
+    public int[] filter(int accountID, String expression) {
+        Entry entry = getEntry(accountID);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.tags != null ? entry.tags.filter(expression) : null;
+        }
+    }
+
+    /*
+    Returns the tags in use on the account's live tasks, or null if the tasks
+    could not be read.
+    */
+    public TreeSet<String> getTags(int accountID) {
+        Entry entry = getEntry(accountID);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.tags != null ? entry.tags.getTags() : null;
+        }
+    }
+
+    /*
+    Called by the DAO, after the commit, with the tags of every task it
+    inserts and of every task whose tags it replaces.
+    */
+    public void taskTagged(int accountID, int taskID, List<String> tags) {
+        apply(accountID, new Change(taskID, new ArrayList<String>(tags)));
+    }
+
+    public void taskRemoved(int accountID, int taskID) {
+        apply(accountID, new Change(taskID, null));
+    }
+
+    /*
+    Drops the account's index, for changes that don't say which tasks they
+    touched. The next filter builds it again.
+    */
+    public void accountChanged(int accountID) {
+        Entry entry = entries.get(accountID);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.tags = null;
+                if (entry.pending != null) {
+                    entry.isStale = true;
+                }
+            }
+        }
+    }
+
+    /*
+    Splits the text at spaces and commas into at most MAX_TAGS tags, lower
+    case and without duplicates. Throws IllegalArgumentException if a tag is
+    too long, has other characters than letters, digits, '-' and '_', or is
+    one of the filter keywords.
+    */
+    public static ArrayList<String> parseTags(String text) {
+        ArrayList<String> tags = new ArrayList<String>();
+        if (text == null) {
+            return tags;
+        }
+        for (String name : text.split("[\\s,]+")) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            String tag = name.toLowerCase(Locale.ROOT);
+            if (tag.length() > MAX_TAG_LENGTH) {
+                throw new IllegalArgumentException("Tags can have at most " + MAX_TAG_LENGTH + " characters.");
+            }
+            for (int i = 0; i < tag.length(); i++) {
+                char c = tag.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                    throw new IllegalArgumentException("Tags can only have letters, digits, '-' and '_'.");
+                }
+            }
+            if (tag.equals("and") || tag.equals("or") || tag.equals("not")) {
+                throw new IllegalArgumentException("AND, OR and NOT can't be tags.");
+            }
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        if (tags.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("A task can have at most " + MAX_TAGS + " tags.");
+        }
+        return tags;
+    }
+
+    /*
+    Returns the account's entry with its index built, or null if the tasks
+    could not be read.
+    */
+    private Entry getEntry(int accountID) {
+        Entry entry = entries.computeIfAbsent(accountID, id -> new Entry());
+        entry.lastUsed = System.currentTimeMillis();
+        synchronized (entry) {
+            while (entry.pending != null) {
+                try {
+                    entry.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            if (entry.tags != null) {
+                return entry;
+            }
+            entry.pending = new ArrayList<Change>();
+        }
+        AccountTags tags = new AccountTags();
+        boolean isRead = false;
+        try {
+            TaskDAO taskDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getTaskDAO();
+            isRead = taskDAO.forEachTaskTag(accountID, (taskID, tag) -> {
+                if (tag == null) {
+                    tags.addTask(taskID);
+                } else {
+                    tags.addTag(taskID, tag);
+                }
+            });
+        } finally {
+            synchronized (entry) {
+                if (isRead && !entry.isStale) {
+                    for (Change change : entry.pending) {
+                        change.applyTo(tags);
+                    }
+                    entry.tags = tags;
+                }
+                entry.pending = null;
+                entry.isStale = false;
+                entry.notifyAll();
+            }
+        }
+        if (!isRead) {
+            return null;
+        }
+        System.out.println(this.getClass().getCanonicalName() + ":build:" + accountID + ":" + tags.size());
+        evict(entry);
+        return entry;
+    }
+
+    private void apply(int accountID, Change change) {
+        Entry entry = entries.get(accountID);
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.pending != null) {
+                    entry.pending.add(change);
+                } else if (entry.tags != null) {
+                    change.applyTo(entry.tags);
+                }
+            }
+        }
+    }
+
+    /*
+    Drops the least recently used indexes until at most maxAccounts are
+    left. The index just built is kept.
+    */
+    private synchronized void evict(Entry keep) {
+        int excess = entries.size() - maxAccounts;
+        if (excess <= 0) {
+            return;
+        }
+        ArrayList<Map.Entry<Integer, Entry>> byLastUsed = new ArrayList<Map.Entry<Integer, Entry>>(entries.entrySet());
+        byLastUsed.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+        for (Map.Entry<Integer, Entry> candidate : byLastUsed) {
+            if (excess <= 0) {
+                break;
+            }
+            Entry entry = candidate.getValue();
+            synchronized (entry) {
+                if (entry == keep || entry.pending != null) {
+                    continue;
+                }
+                if (entries.remove(candidate.getKey(), entry)) {
+                    excess--;
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        AccountTags tags;
+        //Changes that arrived while the index is being built, null when not building.
+        ArrayList<Change> pending;
+        boolean isStale;
+        volatile long lastUsed;
+    }
+
+    private static class Change {
+        final int taskID;
+        //null if the task was removed.
+        final List<String> tags;
+
+        Change(int taskID, List<String> tags) {
+            this.taskID = taskID;
+            this.tags = tags;
+        }
+
+        void applyTo(AccountTags accountTags) {
+            if (tags == null) {
+                accountTags.removeTask(taskID);
+            } else {
+                accountTags.setTags(taskID, tags);
+            }
+        }
+    }
+}
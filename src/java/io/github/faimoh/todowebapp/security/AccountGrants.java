@@ -0,0 +1,106 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.dao.RoleDAO;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.AccountSessionState;
+import io.github.faimoh.todowebapp.model.Role;
+import java.util.ArrayList;
+
+/**
+ * Resolves the roles and permissions of an account into the AccountPrincipal,
+ * once at login. After that, permission checks are a bitwise AND on the
+ * principal and never go to the database.
+ *
+ * When an admin changes an account's roles, the RoleDAO bumps the account's
+ * grants_version in the same transaction. Each principal remembers the
+ * version it was built with, and the authorization filter compares it with
+ * the version in the account's state that SessionRegistry keeps, so a stale
+ * principal is reloaded on the next request on this node, and within
+ * sessionStateMaxAge on the others. A renewed stateless cookie always gets
+ * the current version.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AccountGrants {
+
+    private static final AccountGrants accountGrants = new AccountGrants();
+    //Never matches a stored version, so a principal built without one is reloaded.
+    private static final int UNKNOWN_VERSION = -1;
+
+    private AccountGrants() {
+
+    }
+
+    public static AccountGrants getInstance() {
+        return accountGrants;
+    }
+
+    public AccountPrincipal resolve(int accountID, String username, String displayName) {
+        //Read before the roles, so a change in between makes the principal stale rather than lost.
+        AccountSessionState state = SessionRegistry.getInstance().getState(accountID, true);
+        int version = state == null ? UNKNOWN_VERSION : state.getGrantsVersion();
+        int roles = 0;
+        long permissions = 0;
+        RoleDAO roleDAO = DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getRoleDAO();
+        ArrayList<Role> accountRoles = roleDAO.findAccountRoles(accountID);
+        if (accountRoles == null) {
+            //Reloaded once the roles can be read.
+            version = UNKNOWN_VERSION;
+        } else {
+            for (Role role : accountRoles) {
+                roles |= role.getRoleBit();
+                permissions |= role.getPermissions();
+            }
+        }
+        return new AccountPrincipal(accountID, username, displayName, roles, permissions, version);
+    }
+
+    public AccountPrincipal refresh(AccountPrincipal principal) {
+        return resolve(principal.getAccountID(), principal.getUsername(), principal.getDisplayName());
+    }
+
+    /*
+    A principal is only stale against a version that could be read. While the
+    state can't be read the current principal is kept, so a failing database
+    isn't asked for every account's roles on every request.
+    */
+    public boolean isStale(AccountPrincipal principal) {
+        AccountSessionState state = SessionRegistry.getInstance().getState(principal.getAccountID(), false);
+        return state != null && principal.getGrantsVersion() != state.getGrantsVersion();
+    }
+
+    /*
+    Called after the account's roles were changed on this node, so its
+    principals are reloaded here on their next request.
+    */
+    public void changed(int accountID) {
+        SessionRegistry.getInstance().forget(accountID);
+        System.out.println(this.getClass().getCanonicalName() + ":changed:" + accountID);
+    }
+}
@@ -0,0 +1,192 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes and verifies passwords with PBKDF2-HMAC-SHA256. A stored hash looks like:
+ *
+ *   pbkdf2-sha256$iterations$salt$hash
+ *
+ * The work runs on a fixed pool with one thread per core and a bounded queue.
+ * The calling container thread waits for its result, but at most threads plus
+ * queueDepth of them wait at any time, each for at most timeoutSeconds. During
+ * a login storm the extra requests are rejected straight away, so hashing can
+ * never hold more than that share of the container's threads. Passwords stored
+ * in plain text or with fewer iterations than configured are still accepted;
+ * needsRehash() tells the caller to store a fresh hash. A stored hash that
+ * can't be parsed never verifies.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    //What an admin's password reset sets, hashed like any other password.
+    public static final String DEFAULT_PASSWORD = "password";
+
+    private static PasswordHasher passwordHasher = null;
+
+    private final int iterations;
+    private final int timeoutSeconds;
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+
+    private PasswordHasher(int iterations, int threads, int queueDepth, int timeoutSeconds) {
+        this.iterations = iterations;
+        this.timeoutSeconds = timeoutSeconds;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueDepth),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PasswordHasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /*
+    Called once at startup with the values from web.xml.
+    */
+    public static synchronized void configure(int iterations, int threads, int queueDepth, int timeoutSeconds) {
+        if (passwordHasher != null) {
+            passwordHasher.shutdown();
+        }
+        passwordHasher = new PasswordHasher(iterations, threads, queueDepth, timeoutSeconds);
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (passwordHasher == null) {
+            passwordHasher = new PasswordHasher(310000, Runtime.getRuntime().availableProcessors(), 64, 5);
+        }
+        return passwordHasher;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /*
+    Throws RejectedExecutionException when the queue is full or the hash took
+    too long, IllegalStateException when hashing itself failed.
+    */
+    public String hash(String password) throws RejectedExecutionException {
+        return await(executor.submit(() -> {
+            byte[] salt = new byte[SALT_LENGTH];
+            random.nextBytes(salt);
+            byte[] hash = pbkdf2(password, salt, iterations);
+            Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+            return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+        }));
+    }
+
+    /*
+    Throws RejectedExecutionException when the queue is full or the hash took
+    too long, IllegalStateException when hashing itself failed.
+    */
+    public boolean verify(String password, String storedPassword) throws RejectedExecutionException {
+        if (password == null || storedPassword == null) {
+            return false;
+        }
+        if (!storedPassword.startsWith(PREFIX)) {
+            //Legacy plain text password. It gets hashed after this login succeeds.
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = storedPassword.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        int storedIterations;
+        byte[] salt;
+        byte[] expected;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            //NumberFormatException included. A damaged hash fails like a wrong password.
+            return false;
+        }
+        if (storedIterations < 1 || salt.length == 0 || expected.length == 0) {
+            return false;
+        }
+        return await(executor.submit(() -> MessageDigest.isEqual(expected, pbkdf2(password, salt, storedIterations))));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        if (storedPassword == null || !storedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        String[] parts = storedPassword.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) throws Exception {
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * 8);
+        return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        } catch (TimeoutException e) {
+            //The pool is too far behind, the same as a full queue.
+            future.cancel(true);
+            throw new RejectedExecutionException(e);
+        } catch (ExecutionException e) {
+            //Not overload but a real failure, so the caller reports a technical error.
+            e.getCause().printStackTrace();
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+}
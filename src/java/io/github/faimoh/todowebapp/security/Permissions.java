@@ -0,0 +1,60 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+/**
+ * The permission bits, one per row of the permissions table. Permission n is
+ * the bit 1 &lt;&lt; (n - 1). The names are the ones in the permissions table and
+ * in the AuthorizationFilter configuration.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public final class Permissions {
+
+    public static final long TASKS_OWN = 1L;
+    public static final long PROFILE_EDIT = 1L << 1;
+    public static final long ACCOUNTS_READ = 1L << 2;
+    public static final long ACCOUNTS_WRITE = 1L << 3;
+    public static final long SESSIONS_MANAGE = 1L << 4;
+    public static final long ROLES_ASSIGN = 1L << 5;
+
+    private static final String[] NAMES = {
+        "tasks.own", "profile.edit", "accounts.read", "accounts.write", "sessions.manage", "roles.assign"
+    };
+
+    private Permissions() {
+
+    }
+
+    public static long parse(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return 1L << i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown permission: " + name);
+    }
+}
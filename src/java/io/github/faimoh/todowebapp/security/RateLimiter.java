@@ -0,0 +1,105 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for one rate limit rule, one bucket per key (client IP, username or account).
+ * A bucket allows up to 'limit' requests in a burst and refills at limit/period.
+ *
+ * Every bucket is a single AtomicLong holding the theoretical arrival time of the
+ * next request (GCRA). Taking a token is one compare-and-set, so there is no
+ * locking on the request path. A bucket whose arrival time is in the past is full
+ * again and carries no state, so evicting it loses nothing.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class RateLimiter {
+
+    private final long interval;
+    private final long period;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(int limit, long periodMillis) {
+        this.period = periodMillis;
+        this.interval = Math.max(1, periodMillis / Math.max(1, limit));
+    }
+
+    /*
+    Parses a rate written as "<requests>/<seconds>", for example "10/60".
+    */
+    public static RateLimiter parse(String rate) {
+        String[] parts = rate.trim().split("/");
+        int limit = Integer.parseInt(parts[0].trim());
+        long seconds = Long.parseLong(parts[1].trim());
+        return new RateLimiter(limit, seconds * 1000);
+    }
+
+    /*
+    Returns 0 if the request may proceed. Otherwise returns the number of
+    milliseconds the client has to wait.
+    */
+    public long tryAcquire(String key) {
+        long now = System.currentTimeMillis();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(0));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long nextArrival = Math.max(arrival, now) + interval;
+            long excess = nextArrival - now - period;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    /*
+    Removes the buckets that have refilled completely.
+    */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, AtomicLong>> iterator = buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, AtomicLong> entry = iterator.next();
+            if (entry.getValue().get() <= now) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,216 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import io.github.faimoh.todowebapp.dao.AccountDAO;
+import io.github.faimoh.todowebapp.dao.DAOFactory;
+import io.github.faimoh.todowebapp.model.AccountSession;
+import io.github.faimoh.todowebapp.model.AccountSessionState;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpSession;
+
+/**
+ * In-memory registry of the live sessions on this node, indexed by account ID.
+ * LoginAction registers a session after a successful login and the session
+ * listener removes it again when the container destroys it.
+ *
+ * Revoking an account stores the revocation time with the account in the
+ * database, and a logged out stateless token is recorded there until it
+ * expires, so every node and every restart sees them. AuthorizationFilter
+ * compares the login time against the account's AccountSessionState, which is
+ * kept here for maxAge seconds. A revocation made on another node therefore
+ * holds here within maxAge, and one made on this node at once. Renewing a
+ * stateless cookie always reads the state fresh. If the state can't be read
+ * and there is no copy to fall back on, isRevoked() throws
+ * IllegalStateException rather than guess, and the request gets an error.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class SessionRegistry {
+
+    private static final SessionRegistry sessionRegistry = new SessionRegistry();
+
+    private final Map<Integer, Map<String, HttpSession>> sessionsByAccount = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CachedState> states = new ConcurrentHashMap<Integer, CachedState>();
+    private volatile long maxAgeMillis = 30 * 1000L;
+
+    private SessionRegistry() {
+
+    }
+
+    public static SessionRegistry getInstance() {
+        return sessionRegistry;
+    }
+
+    public static void configure(int maxAgeSeconds) {
+        sessionRegistry.maxAgeMillis = maxAgeSeconds * 1000L;
+    }
+
+    public void register(int accountID, HttpSession session) {
+        sessionsByAccount.computeIfAbsent(accountID, k -> new ConcurrentHashMap<>())
+                .put(session.getId(), session);
+    }
+
+    public void unregister(int accountID, String sessionID) {
+        Map<String, HttpSession> sessions = sessionsByAccount.get(accountID);
+        if (sessions != null) {
+            sessions.remove(sessionID);
+            if (sessions.isEmpty()) {
+                sessionsByAccount.remove(accountID, sessions);
+            }
+        }
+    }
+
+    /*
+    Revokes every session of the account created up to now. The live sessions we
+    know about are invalidated right away. Anything we missed, on this node or
+    another, gets caught by isRevoked() on its next request. Returns false if
+    the revocation could not be stored.
+    */
+    public boolean revoke(int accountID) {
+        boolean isStored = getAccountDAO().revokeSessions(accountID, System.currentTimeMillis());
+        states.remove(accountID);
+        Map<String, HttpSession> sessions = sessionsByAccount.remove(accountID);
+        if (sessions != null) {
+            for (HttpSession session : sessions.values()) {
+                try {
+                    session.invalidate();
+                } catch (IllegalStateException e) {
+                    //Already invalidated by the container or by logout.
+                }
+            }
+        }
+        System.out.println(this.getClass().getCanonicalName() + ":revoke:" + accountID + ":" + isStored);
+        return isStored;
+    }
+
+    /*
+    Called when a stateless token is logged out. It stays revoked until
+    expiresAt, after which it isn't accepted anyway.
+    */
+    public boolean revokeToken(int accountID, String tokenID, long expiresAt) {
+        boolean isStored = getAccountDAO().revokeToken(accountID, tokenID, expiresAt);
+        states.remove(accountID);
+        return isStored;
+    }
+
+    public boolean isRevoked(int accountID, long createdAt) {
+        return isRevoked(accountID, createdAt, null, false);
+    }
+
+    /*
+    True if the account is disabled, its sessions were revoked after
+    createdAt, or the token was logged out. With isFresh the state is read from
+    the database instead of the copy kept here. Throws IllegalStateException if
+    the state can't be read, so neither answer would be safe.
+    */
+    public boolean isRevoked(int accountID, long createdAt, String tokenID, boolean isFresh) {
+        AccountSessionState state = getState(accountID, isFresh);
+        if (state == null) {
+            throw new IllegalStateException("The session state of account " + accountID + " can't be read.");
+        }
+        return state.isDisabled() || createdAt < state.getSessionsRevokedAt()
+                || (tokenID != null && state.getRevokedTokenIDs().contains(tokenID));
+    }
+
+    /*
+    Drops this node's copy of the account's state, after a change to it.
+    */
+    void forget(int accountID) {
+        states.remove(accountID);
+    }
+
+    /*
+    Returns the account's state, read again if it is older than maxAge or
+    isFresh is set. If it can't be read, the last one read is used, unless
+    isFresh is set. Returns null if there is none.
+    */
+    AccountSessionState getState(int accountID, boolean isFresh) {
+        CachedState cached = states.get(accountID);
+        if (!isFresh && cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.state;
+        }
+        AccountSessionState state = getAccountDAO().findSessionState(accountID);
+        if (state == null) {
+            return isFresh || cached == null ? null : cached.state;
+        }
+        states.put(accountID, new CachedState(state, System.currentTimeMillis() + maxAgeMillis));
+        return state;
+    }
+
+    private static AccountDAO getAccountDAO() {
+        return DAOFactory.getDAOFactory(DAOFactory.MySQLDataSource).getAccountDAO();
+    }
+
+    public ArrayList<AccountSession> getActiveSessions() {
+        ArrayList<AccountSession> activeSessions = new ArrayList<AccountSession>();
+        for (Map.Entry<Integer, Map<String, HttpSession>> entry : sessionsByAccount.entrySet()) {
+            collectSessions(entry.getKey(), entry.getValue(), activeSessions);
+        }
+        return activeSessions;
+    }
+
+    public ArrayList<AccountSession> getActiveSessions(int accountID) {
+        ArrayList<AccountSession> activeSessions = new ArrayList<AccountSession>();
+        Map<String, HttpSession> sessions = sessionsByAccount.get(accountID);
+        if (sessions != null) {
+            collectSessions(accountID, sessions, activeSessions);
+        }
+        return activeSessions;
+    }
+
+    public int getActiveAccountsCount() {
+        return sessionsByAccount.size();
+    }
+
+    private void collectSessions(int accountID, Map<String, HttpSession> sessions, ArrayList<AccountSession> activeSessions) {
+        for (HttpSession session : sessions.values()) {
+            try {
+                AccountSession accountSession = new AccountSession();
+                accountSession.setSessionID(session.getId());
+                accountSession.setAccountID(accountID);
+                accountSession.setSessionCreated(new Timestamp(session.getCreationTime()));
+                accountSession.setLastAccessed(new Timestamp(session.getLastAccessedTime()));
+                activeSessions.add(accountSession);
+            } catch (IllegalStateException e) {
+                //The session got invalidated while we were reading it.
+            }
+        }
+    }
+
+    private static class CachedState {
+        final AccountSessionState state;
+        final long expiresAt;
+
+        CachedState(AccountSessionState state, long expiresAt) {
+            this.state = state;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
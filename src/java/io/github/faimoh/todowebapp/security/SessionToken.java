@@ -0,0 +1,80 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+
+/**
+ * The claims carried by a signed session cookie in stateless mode.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class SessionToken {
+
+    private final String tokenID;
+    private final AccountPrincipal principal;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public SessionToken(String tokenID, AccountPrincipal principal, long issuedAt, long expiresAt) {
+        this.tokenID = tokenID;
+        this.principal = principal;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenID() {
+        return this.tokenID;
+    }
+
+    public int getAccountID() {
+        return this.principal.getAccountID();
+    }
+
+    public AccountPrincipal getPrincipal() {
+        return this.principal;
+    }
+
+    /*
+    Time of the login. Refreshing the cookie keeps it, so revocation still applies.
+    */
+    public long getIssuedAt() {
+        return this.issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionToken[id=" + this.tokenID
+                + ", principal=" + this.principal
+                + ", issuedAt=" + this.issuedAt
+                + ", expiresAt=" + this.expiresAt
+                + "]";
+    }
+}
@@ -0,0 +1,241 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.security;
+
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed session cookies for the optional
+ * stateless mode. In this mode no HttpSession is created. Any node that has the
+ * keys can authenticate any request, so neither sticky load balancing nor
+ * session replication is needed.
+ *
+ * A token looks like keyID.payload.signature, where the payload carries the
+ * AccountPrincipal, the login time and the expiry. Keys are configured as
+ * "keyID:base64Secret" pairs. The first key signs new tokens and the others are
+ * only accepted, which allows keys to be rotated without logging users out.
+ * Revocation is checked against the SessionRegistry by login time and token
+ * ID. A cookie is renewed while the user is active, but never past
+ * maxLifetime after the login, so every login ends up asking for the password
+ * again.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class SessionTokens {
+
+    public static final String COOKIE_NAME = "todo_token";
+
+    private static SessionTokens sessionTokens = new SessionTokens(false, new LinkedHashMap<String, byte[]>(), 30 * 60, 12 * 60 * 60);
+
+    private final boolean stateless;
+    private final Map<String, byte[]> keys;
+    private final String activeKeyID;
+    private final int maxAgeSeconds;
+    private final long maxLifetimeMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    private SessionTokens(boolean stateless, Map<String, byte[]> keys, int maxAgeSeconds, int maxLifetimeSeconds) {
+        this.stateless = stateless;
+        this.keys = keys;
+        this.activeKeyID = keys.isEmpty() ? null : keys.keySet().iterator().next();
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.maxLifetimeMillis = maxLifetimeSeconds * 1000L;
+    }
+
+    /*
+    Called once at startup with the values from web.xml. 'keys' is a list of
+    keyID:base64Secret pairs separated by spaces or commas.
+    */
+    public static synchronized void configure(String sessionMode, String keys, int maxAgeSeconds, int maxLifetimeSeconds) {
+        boolean stateless = "stateless".equalsIgnoreCase(sessionMode);
+        Map<String, byte[]> keyMap = new LinkedHashMap<String, byte[]>();
+        if (keys != null) {
+            for (String key : keys.trim().split("[\\s,]+")) {
+                int separator = key.indexOf(':');
+                if (separator > 0) {
+                    keyMap.put(key.substring(0, separator), Base64.getDecoder().decode(key.substring(separator + 1)));
+                }
+            }
+        }
+        if (stateless && keyMap.isEmpty()) {
+            //Good enough for a single node. Every node needs the same keys otherwise.
+            System.out.println(SessionTokens.class.getCanonicalName() + ":no sessionTokenKeys configured, using a random key");
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            keyMap.put("generated", secret);
+        }
+        sessionTokens = new SessionTokens(stateless, keyMap, maxAgeSeconds, maxLifetimeSeconds);
+    }
+
+    public static SessionTokens getInstance() {
+        return sessionTokens;
+    }
+
+    public boolean isStateless() {
+        return this.stateless;
+    }
+
+    public String newTokenID() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public SessionToken issue(HttpServletRequest request, HttpServletResponse response,
+            String tokenID, AccountPrincipal principal, long issuedAt) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + maxAgeSeconds * 1000L, issuedAt + maxLifetimeMillis);
+        SessionToken token = new SessionToken(tokenID, principal, issuedAt, expiresAt);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = encoder.encodeToString((principal.getAccountID()
+                + ":" + principal.getRoles()
+                + ":" + token.getIssuedAt()
+                + ":" + token.getExpiresAt()
+                + ":" + token.getTokenID()
+                + ":" + encode(encoder, principal.getUsername())
+                + ":" + encode(encoder, principal.getDisplayName())
+                + ":" + principal.getPermissions()
+                + ":" + principal.getGrantsVersion())
+                .getBytes(StandardCharsets.UTF_8));
+        String signed = activeKeyID + "." + payload;
+        String value = signed + "." + encoder.encodeToString(sign(keys.get(activeKeyID), signed));
+        response.addCookie(createCookie(request, value, (int) Math.max(0, (expiresAt - now) / 1000)));
+        return token;
+    }
+
+    /*
+    Issues a fresh cookie for the same login, for example after the user changed
+    their name or when the cookie is half way to its expiry. The caller checks
+    the login against the database first.
+    */
+    public SessionToken reissue(HttpServletRequest request, HttpServletResponse response, SessionToken token, AccountPrincipal principal) {
+        return issue(request, response, token.getTokenID(), principal, token.getIssuedAt());
+    }
+
+    public boolean needsRefresh(SessionToken token) {
+        return token.getExpiresAt() < getLifetimeEnd(token)
+                && token.getExpiresAt() - System.currentTimeMillis() < maxAgeSeconds * 500L;
+    }
+
+    /*
+    No cookie of this login is accepted after this time, however often it
+    was renewed.
+    */
+    public long getLifetimeEnd(SessionToken token) {
+        return token.getIssuedAt() + maxLifetimeMillis;
+    }
+
+    public void clear(HttpServletRequest request, HttpServletResponse response) {
+        response.addCookie(createCookie(request, "", 0));
+    }
+
+    /*
+    Returns the verified token of the request, or null if there is none or it is
+    forged or expired.
+    */
+    public SessionToken read(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    private SessionToken verify(String value) {
+        try {
+            String[] parts = value.split("\\.");
+            if (parts.length != 3) {
+                return null;
+            }
+            byte[] key = keys.get(parts[0]);
+            if (key == null) {
+                return null;
+            }
+            byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+            if (!MessageDigest.isEqual(signature, sign(key, parts[0] + "." + parts[1]))) {
+                return null;
+            }
+            String[] claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8).split(":", -1);
+            long expiresAt = Long.parseLong(claims[3]);
+            long issuedAt = Long.parseLong(claims[2]);
+            long now = System.currentTimeMillis();
+            //The second check holds when maxLifetime was lowered since the cookie was issued.
+            if (expiresAt < now || issuedAt + maxLifetimeMillis < now) {
+                return null;
+            }
+            AccountPrincipal principal = new AccountPrincipal(Integer.parseInt(claims[0]),
+                    decode(claims[5]), decode(claims[6]), Integer.parseInt(claims[1]),
+                    Long.parseLong(claims[7]), Integer.parseInt(claims[8]));
+            return new SessionToken(claims[4], principal, issuedAt, expiresAt);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static String encode(Base64.Encoder encoder, String value) {
+        return encoder.encodeToString(value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] sign(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Cookie createCookie(HttpServletRequest request, String value, int maxAge) {
+        Cookie cookie = new Cookie(COOKIE_NAME, value);
+        String path = request.getContextPath();
+        cookie.setPath(path.isEmpty() ? "/" : path);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+}
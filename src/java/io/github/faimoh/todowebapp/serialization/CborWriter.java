@@ -0,0 +1,183 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes CBOR (RFC 8949) straight to the response. Integers take 1 to 9
+ * bytes depending on their size, strings are length-prefixed UTF-8 and need
+ * no escaping, and times are written as epoch milliseconds. Objects and
+ * arrays use the indefinite-length form, so nothing has to be counted or
+ * buffered before it is written.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class CborWriter implements StructuredWriter {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1 << 5;
+    private static final int MAJOR_TEXT = 3 << 5;
+    private static final int INDEFINITE_ARRAY = 0x9f;
+    private static final int INDEFINITE_MAP = 0xbf;
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int BREAK = 0xff;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int count = 0;
+
+    public CborWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public CborWriter beginObject() throws IOException {
+        write(INDEFINITE_MAP);
+        return this;
+    }
+
+    public CborWriter endObject() throws IOException {
+        write(BREAK);
+        return this;
+    }
+
+    public CborWriter beginArray() throws IOException {
+        write(INDEFINITE_ARRAY);
+        return this;
+    }
+
+    public CborWriter endArray() throws IOException {
+        write(BREAK);
+        return this;
+    }
+
+    public CborWriter name(String name) throws IOException {
+        return value(name);
+    }
+
+    public CborWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeHead(MAJOR_TEXT, bytes.length);
+        write(bytes);
+        return this;
+    }
+
+    public CborWriter value(long value) throws IOException {
+        if (value < 0) {
+            //-1 - n is stored as n.
+            writeHead(MAJOR_NEGATIVE, -1 - value);
+        } else {
+            writeHead(MAJOR_UNSIGNED, value);
+        }
+        return this;
+    }
+
+    public CborWriter value(boolean value) throws IOException {
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public CborWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.longValue());
+    }
+
+    public CborWriter value(java.util.Date value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.getTime());
+    }
+
+    public CborWriter nullValue() throws IOException {
+        write(NULL);
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.write(buffer, 0, count);
+        count = 0;
+        out.flush();
+    }
+
+    /*
+    The major type goes in the top three bits. Values below 24 fit in the rest
+    of the byte, bigger ones follow in 1, 2, 4 or 8 bytes.
+    */
+    private void writeHead(int major, long value) throws IOException {
+        if (value < 24) {
+            write(major | (int) value);
+        } else if (value <= 0xffL) {
+            write(major | 24);
+            write((int) value);
+        } else if (value <= 0xffffL) {
+            write(major | 25);
+            writeBytes(value, 2);
+        } else if (value <= 0xffffffffL) {
+            write(major | 26);
+            writeBytes(value, 4);
+        } else {
+            write(major | 27);
+            writeBytes(value, 8);
+        }
+    }
+
+    private void writeBytes(long value, int length) throws IOException {
+        for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+            write((int) (value >>> shift));
+        }
+    }
+
+    private void write(int b) throws IOException {
+        if (count == buffer.length) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - count) {
+            out.write(buffer, 0, count);
+            count = 0;
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+}
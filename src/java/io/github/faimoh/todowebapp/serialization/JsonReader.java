@@ -0,0 +1,297 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.serialization;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A small pull parser for the JSON bodies the API accepts. The caller walks
+ * the document with beginObject()/nextName()/nextString() and so on, and
+ * skipValue() for anything it doesn't know. Malformed input throws
+ * IllegalArgumentException, and so does nesting deeper than MAX_DEPTH, so a
+ * hostile body can't run the stack out.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class JsonReader {
+
+    public static final int STRING = 1;
+    public static final int NUMBER = 2;
+    public static final int BOOLEAN = 3;
+    public static final int NULL = 4;
+    public static final int OBJECT = 5;
+    public static final int ARRAY = 6;
+    public static final int END = 7;
+    public static final int MAX_DEPTH = 32;
+
+    private final Reader in;
+    private int peeked = -2;
+    //members[depth] counts the members read so far in each open object or array.
+    private final int[] members = new int[MAX_DEPTH + 1];
+    private int depth;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+        open();
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+        depth--;
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+        open();
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+        depth--;
+    }
+
+    /*
+    True if the current object or array has another member. Every member but
+    the first must follow a comma, which is skipped.
+    */
+    public boolean hasNext() throws IOException {
+        int c = peekChar();
+        if (c == '}' || c == ']' || c == -1) {
+            return false;
+        }
+        if (members[depth] > 0) {
+            if (c != ',') {
+                throw new IllegalArgumentException("Expected ','");
+            }
+            read();
+            c = peekChar();
+            if (c == '}' || c == ']' || c == -1) {
+                throw new IllegalArgumentException("Unexpected ','");
+            }
+        } else if (c == ',') {
+            throw new IllegalArgumentException("Unexpected ','");
+        }
+        members[depth]++;
+        return true;
+    }
+
+    public String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    public int peek() throws IOException {
+        int c = peekChar();
+        switch (c) {
+            case '"':
+                return STRING;
+            case '{':
+                return OBJECT;
+            case '[':
+                return ARRAY;
+            case 't':
+            case 'f':
+                return BOOLEAN;
+            case 'n':
+                return NULL;
+            case '}':
+            case ']':
+            case -1:
+                return END;
+            default:
+                return NUMBER;
+        }
+    }
+
+    public String nextString() throws IOException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Unterminated string");
+            } else if (c == '"') {
+                return sb.toString();
+            } else if (c == '\\') {
+                int e = read();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) read();
+                        }
+                        sb.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    case -1:
+                        throw new IllegalArgumentException("Unterminated string");
+                    default:
+                        sb.append((char) e);
+                }
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    /*
+    Throws IllegalArgumentException for numbers outside the range of int,
+    rather than cutting them down to another, valid looking, value.
+    */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Number out of range");
+        }
+        return (int) value;
+    }
+
+    public long nextLong() throws IOException {
+        peekChar();
+        StringBuilder sb = new StringBuilder();
+        int c = peekRaw();
+        while (c == '-' || c == '+' || (c >= '0' && c <= '9')) {
+            sb.append((char) read());
+            c = peekRaw();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw new IllegalArgumentException("Expected a whole number");
+        }
+        try {
+            return Long.parseLong(sb.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number");
+        }
+    }
+
+    public boolean nextBoolean() throws IOException {
+        if (peekChar() == 't') {
+            literal("true");
+            return true;
+        }
+        literal("false");
+        return false;
+    }
+
+    public void nextNull() throws IOException {
+        literal("null");
+    }
+
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case STRING:
+                nextString();
+                break;
+            case BOOLEAN:
+                nextBoolean();
+                break;
+            case NULL:
+                nextNull();
+                break;
+            case OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case NUMBER:
+                int c = peekRaw();
+                while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                    read();
+                    c = peekRaw();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected end of input");
+        }
+    }
+
+    private void open() {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalArgumentException("Nested too deeply");
+        }
+        depth++;
+        members[depth] = 0;
+    }
+
+    private void literal(String word) throws IOException {
+        peekChar();
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) {
+                throw new IllegalArgumentException("Expected " + word);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekChar() != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "'");
+        }
+        read();
+    }
+
+    //Next character that isn't white space, without consuming it.
+    private int peekChar() throws IOException {
+        int c = peekRaw();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            read();
+            c = peekRaw();
+        }
+        return c;
+    }
+
+    private int peekRaw() throws IOException {
+        if (peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peekRaw();
+        peeked = -2;
+        return c;
+    }
+}
@@ -0,0 +1,107 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.serialization;
+
+import io.github.faimoh.todowebapp.model.Task;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+
+/**
+ * The form of a Task used by the API, in JSON or CBOR. Times are epoch
+ * milliseconds.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TaskSerializer {
+
+    private TaskSerializer() {
+
+    }
+
+    /*
+    Tags are only written when they were read with the task.
+    */
+    public static void write(StructuredWriter writer, Task task) throws IOException {
+        writer.beginObject()
+                .name("taskID").value(task.getTaskID())
+                .name("accountID").value(task.getAccountID())
+                .name("details").value(task.getDetails())
+                .name("statusID").value(task.getStatusID())
+                .name("priorityID").value(task.getPriorityID())
+                .name("createdAt").value(task.getCreatedAt())
+                .name("deadline").value(task.getDeadline())
+                .name("lastUpdated").value(task.getLastUpdated());
+        if (task.getTags() != null) {
+            writer.name("tags").beginArray();
+            for (String tag : task.getTags()) {
+                writer.value(tag);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    /*
+    Reads the fields a client may send. Fields that are missing stay null, so
+    an update can tell them apart from fields to change. Unknown fields are
+    ignored.
+    */
+    public static Task read(JsonReader reader) throws IOException {
+        Task task = new Task();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonReader.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            if (name.equals("taskID")) {
+                task.setTaskID(reader.nextInt());
+            } else if (name.equals("details")) {
+                task.setDetails(reader.nextString());
+            } else if (name.equals("statusID")) {
+                task.setStatusID(reader.nextInt());
+            } else if (name.equals("priorityID")) {
+                task.setPriorityID(reader.nextInt());
+            } else if (name.equals("deadline")) {
+                task.setDeadline(new Timestamp(reader.nextLong()));
+            } else if (name.equals("tags")) {
+                ArrayList<String> tags = new ArrayList<String>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    tags.add(reader.nextString());
+                }
+                reader.endArray();
+                task.setTags(tags);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return task;
+    }
+}
@@ -0,0 +1,73 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.views;
+
+import io.github.faimoh.todowebapp.model.AccountList;
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The admin's accounts dashboard, listing all accounts.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class AccountsDashboardView implements View {
+
+    public void render(HttpServletRequest request, HtmlWriter out) throws IOException {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        AccountList accountsList = (AccountList) request.getAttribute("accountsList");
+
+        out.raw("<!DOCTYPE html>\n<html>\n<head>\n"
+                + "<meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">\n"
+                + "<title>ToDoApp - Admin - Dashboard</title>\n</head>\n<body>\n"
+                + "<h1>Accounts Dashboard</h1>\n<p>Hello! ");
+        out.text(sessionUser.getDisplayName());
+        out.raw("</p>\n<a href=\"").url("/app/admin/accounts/dashboard");
+        out.raw("\">Dashboard</a>\n<a href=\"").url("/app/admin/accounts/new");
+        out.raw("\">New Account</a>\n<a href=\"").url("/app/admin/sessions/dashboard");
+        out.raw("\">Sessions</a>\n<a href=\"").url("/app/admin/analytics/logins");
+        out.raw("\">Logins</a>\n<a href=\"").url("/app/admin/reports/tasks");
+        out.raw("\">Task Reports</a>\n<a href=\"").url("/app/users/profile");
+        out.raw("\">My Profile</a>\n<a href=\"").url("/app/logout");
+        out.raw("\">Logout</a>\n<br><br>\n<table border=\"1\">\n"
+                + "<thead><th>ID</th><th>Username</th><th>First Name</th><th>Last Name</th>"
+                + "<th>Created At</th><th>Status</th></thead>\n");
+        if (accountsList != null) {
+            for (AccountList.Row account : accountsList) {
+                out.raw("<tr><td><a href=\"").url("/app/admin/accounts/details?id=" + account.getAccountID());
+                out.raw("\">").text(account.getAccountID());
+                out.raw("</a></td><td>").text(account.getUsername());
+                out.raw("</td><td>").text(account.getFirstName());
+                out.raw("</td><td>").text(account.getLastName());
+                out.raw("</td><td>").text(account.getCreatedAt());
+                out.raw("</td><td>").raw(account.getStatusID() == 1 ? "Enabled" : "Disabled");
+                out.raw("</td></tr>\n");
+            }
+        }
+        out.raw("</table>\n</body>\n</html>\n");
+    }
+}
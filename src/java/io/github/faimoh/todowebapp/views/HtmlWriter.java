@@ -0,0 +1,153 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.views;
+
+import java.io.IOException;
+import java.io.Writer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a view to the response through its own character buffer, so the many
+ * small writes of a page don't each go to the container's writer. text()
+ * escapes what it writes and is what views use for anything that comes from
+ * the view model. raw() is only for markup written by the view itself or
+ * already escaped, like the cached task rows.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class HtmlWriter {
+
+    private final Writer out;
+    private final HttpServletResponse response;
+    private final String contextPath;
+    private final char[] buffer;
+    private int count;
+
+    public HtmlWriter(HttpServletRequest request, HttpServletResponse response, int bufferSize) throws IOException {
+        this.out = response.getWriter();
+        this.response = response;
+        this.contextPath = request.getContextPath();
+        this.buffer = new char[bufferSize];
+    }
+
+    public HtmlWriter raw(String markup) throws IOException {
+        int length = markup.length();
+        if (length > buffer.length) {
+            flushBuffer();
+            out.write(markup);
+            return this;
+        }
+        if (count + length > buffer.length) {
+            flushBuffer();
+        }
+        markup.getChars(0, length, buffer, count);
+        count += length;
+        return this;
+    }
+
+    public HtmlWriter text(String text) throws IOException {
+        if (text == null) {
+            return this;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity = entity(c);
+            if (entity != null) {
+                raw(entity);
+            } else {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                buffer[count++] = c;
+            }
+        }
+        return this;
+    }
+
+    public HtmlWriter text(Object value) throws IOException {
+        return value == null ? this : text(value.toString());
+    }
+
+    public HtmlWriter text(int value) throws IOException {
+        return raw(Integer.toString(value));
+    }
+
+    /*
+    Writes an escaped link to a path of this application, like <c:url> does:
+    with the context path and, if the client doesn't take cookies, the session.
+    */
+    public HtmlWriter url(String path) throws IOException {
+        return text(response.encodeURL(contextPath + path));
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /*
+    Appends the text to the builder, HTML-escaped the same way as text().
+    */
+    public static void escape(StringBuilder html, String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity = entity(c);
+            if (entity != null) {
+                html.append(entity);
+            } else {
+                html.append(c);
+            }
+        }
+    }
+
+    private static String entity(char c) {
+        switch (c) {
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '&':
+                return "&amp;";
+            case '"':
+                return "&#034;";
+            case '\'':
+                return "&#039;";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/* 
+ * Copyright (c) 2020, Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.github.faimoh.todowebapp.views;
+
+import io.github.faimoh.todowebapp.model.AccountPrincipal;
+import io.github.faimoh.todowebapp.model.TaskPriority;
+import io.github.faimoh.todowebapp.model.TaskStats;
+import io.github.faimoh.todowebapp.model.TaskStatus;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.Collection;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The tasks dashboard, listing all tasks of the logged in user, or those a
+ * tags filter selects.
+ *
+ * @author Faisal Ahmed Pasha Mohammed https://github.com/faimoh
+ */
+public class TasksDashboardView implements View {
+
+    @SuppressWarnings("unchecked")
+    public void render(HttpServletRequest request, HtmlWriter out) throws IOException {
+        AccountPrincipal sessionUser = (AccountPrincipal) request.getAttribute("sessionUser");
+        Rows taskRows = (Rows) request.getAttribute("taskRows");
+        TaskStats taskStats = (TaskStats) request.getAttribute("taskStats");
+        String tagFilter = (String) request.getAttribute("tagFilter");
+        Collection<String> tags = (Collection<String>) request.getAttribute("tags");
+        boolean isFiltered = tagFilter != null && !tagFilter.isEmpty();
+
+        out.raw("<!DOCTYPE html>\n<html>\n<head>\n"
+                + "<meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">\n"
+                + "<title>ToDoApp - Tasks Dashboard</title>\n</head>\n<body>\n"
+                + "<h1>Tasks Dashboard</h1>\n<p>Hello! ");
+        out.text(sessionUser.getDisplayName());
+        out.raw("</p>\n<a href=\"").url("/app/tasks/new");
+        out.raw("\">New Task</a>\n<a href=\"").url("/app/tasks/dashboard");
+        out.raw("\">Dashboard</a>\n<a href=\"").url("/app/tasks/archive");
+        out.raw("\">Archive</a>\n<a href=\"").url("/app/tasks/search");
+        out.raw("\">Search</a>\n<a href=\"").url("/app/users/profile");
+        out.raw("\">My Profile</a>\n<a href=\"").url("/app/logout");
+        out.raw("\">Logout</a>\n<br><br>\n");
+        if (taskStats != null) {
+            int[] statusCounts = taskStats.getStatusCounts();
+            int[] priorityCounts = taskStats.getPriorityCounts();
+            out.raw("<p>");
+            for (TaskStatus status : TaskStatus.values()) {
+                out.text(status.getLabel()).raw(": ").text(count(statusCounts, status.getID())).raw(" | ");
+            }
+            out.raw("Overdue: ").text(taskStats.getOverdueTasks()).raw("</p>\n<p>");
+            String separator = "";
+            for (TaskPriority priority : TaskPriority.values()) {
+                out.raw(separator).text(priority.getLabel()).raw(": ").text(count(priorityCounts, priority.getID()));
+                separator = " | ";
+            }
+            out.raw("</p>\n");
+        }
+        out.raw("<form method=\"GET\" action=\"").url("/app/tasks/dashboard");
+        out.raw("\"><label for=\"tags\">Tags:</label> <input id=\"tags\" name=\"tags\" type=\"text\""
+                + " placeholder=\"work AND urgent NOT waiting\" value=\"");
+        out.text(tagFilter);
+        out.raw("\"> <input type=\"submit\" value=\"Filter\"></form>\n");
+        if (tags != null && !tags.isEmpty()) {
+            out.raw("<p>");
+            for (String tag : tags) {
+                out.raw("<a href=\"").url("/app/tasks/dashboard?tags=" + URLEncoder.encode(tag, "UTF-8"));
+                out.raw("\">").text(tag).raw("</a> ");
+            }
+            out.raw("</p>\n");
+        }
+        if (request.getAttribute("message") != null) {
+            out.raw("<p>").text(request.getAttribute("message")).raw("</p>\n");
+        }
+        out.raw("<form method=\"POST\" action=\"").url("/app/tasks/clear");
+        out.raw("\"><input type=\"submit\" value=\"Clear completed\"></form>\n<br>\n<table id=\"tasks\" border=\"1\">\n"
+                + "<thead><th>Task ID</th><th>Details</th><th>Created At</th><th>Deadline</th>"
+                + "<th>Last Updated</th><th>Priority</th><th>Status</th></thead>\n");
+        if (taskRows != null) {
+            //The rows are rendered and escaped by TaskRowCache, and written as the tasks are read.
+            if (!taskRows.write(out)) {
+                out.raw("<tr><td colspan=\"7\">Technical error. Please try again later.</td></tr>\n");
+            }
+        }
+        out.raw("</table>\n");
+        if (isFiltered) {
+            //The stream doesn't know the filter, so a filtered list stays as it is.
+            out.raw("</body>\n</html>\n");
+            return;
+        }
+        //Changes made elsewhere arrive over /app/tasks/stream as ready, escaped rows.
+        out.raw("<script>\n"
+                + "if (window.EventSource) {\n"
+                + "    var stream = new EventSource(\"stream\");\n"
+                + "    stream.addEventListener(\"task\", function (event) {\n"
+                + "        var change = JSON.parse(event.data);\n"
+                + "        var template = document.createElement(\"template\");\n"
+                + "        template.innerHTML = change.row.trim();\n"
+                + "        var row = template.content.firstChild;\n"
+                + "        var old = document.getElementById(\"task-\" + change.taskID);\n"
+                + "        if (old) {\n"
+                + "            old.parentNode.replaceChild(row, old);\n"
+                + "        } else {\n"
+                + "            var table = document.getElementById(\"tasks\");\n"
+                + "            (table.tBodies[0] || table).appendChild(row);\n"
+                + "        }\n"
+                + "    });\n"
+                + "    stream.addEventListener(\"delete\", function (event) {\n"
+                + "        var row = document.getElementById(\"task-\" + JSON.parse(event.data).taskID);\n"
+                + "        if (row) {\n"
+                + "            row.parentNode.removeChild(row);\n"
+                + "        }\n"
+                + "    });\n"
+                + "    stream.addEventListener(\"reload\", function () {\n"
+                + "        location.reload();\n"
+                + "    });\n"
+                + "}\n"
+                + "</script>\n</body>\n</html>\n");
+    }
+
+    private static int count(int[] counts, int id) {
+        return id < counts.length ? counts[id] : 0;
+    }
+}
@@ -15,9 +15,10 @@
     </head>
     <body>
         <h1>Account Information</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
         <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
         <a href="<c:url value="/app/logout"/>">Logout</a>
         <br><br>
@@ -32,6 +33,18 @@
                 <br><br>            
                 <label for="username">Username: </label>${requestScope.account.username}
                 <br><br>            
+                <a href="<c:url value="/app/admin/sessions/dashboard?id=${requestScope.account.accountID}"/>">Active sessions</a>
+                <br><br>
+                <c:if test="${not empty requestScope.taskStats}">
+                    <label>Tasks: </label>${requestScope.taskStats.total}
+                    (<c:forEach var="status" items="${applicationScope.taskStatuses}"><c:out value="${status.label}"/>
+                    ${requestScope.taskStats.statusCounts[status.ID]}, </c:forEach>overdue ${requestScope.taskStats.overdueTasks})
+                    <br><br>
+                    <label>By priority: </label>
+                    <c:forEach var="priority" items="${applicationScope.taskPriorities}" varStatus="loop"><c:out value="${priority.label}"/>
+                    ${requestScope.taskStats.priorityCounts[priority.ID]}${loop.last ? '' : ','}</c:forEach>
+                    <br><br>
+                </c:if>
                 <label for="firstName">First name:</label>
                 <input type="text" id="firstName" name="firstName" value="${requestScope.account.firstName}" required><br><br>
                 <label for="lastName">Last name:</label>
@@ -43,6 +56,15 @@
                 <label for="enabled">Enabled</label>
                 <input type="radio" ${requestScope.account.accountID==1?'disabled':''} id="disabled" name="status" value="2" ${requestScope.account.statusID==2?'checked':''}>
                 <label for="disabled">Disabled</label><br><br>
+                <c:if test="${not empty requestScope.roles and requestScope.account.accountID != requestScope.sessionUser.accountID}">
+                    <input type="hidden" name="rolesShown" value="true">
+                    <label>Roles:</label>
+                    <c:forEach items="${requestScope.roles}" var="role">
+                        <input type="checkbox" id="role${role.roleID}" name="roles" value="${role.roleID}" ${requestScope.accountRoles[role.roleID] != null ? 'checked' : ''}>
+                        <label for="role${role.roleID}">${role.name}</label>
+                    </c:forEach>
+                    <br><br>
+                </c:if>
                 <input type="submit" value="Update">
             </fieldset>
 
@@ -14,9 +14,10 @@
     </head>
     <body>
         <h1>Create New Account</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>        
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>        
         <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
         <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
         <a href="<c:url value="/app/logout"/>">Logout</a>
         <br><br>
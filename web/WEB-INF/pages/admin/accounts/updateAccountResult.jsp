@@ -14,9 +14,10 @@
     </head>
     <body>
         <h1>Update Account</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
         <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
         <a href="<c:url value="/app/logout"/>">Logout</a>
         <br><br>
@@ -42,6 +43,15 @@
                 <label for="enabled">Enabled</label>
                 <input type="radio" ${requestScope.account.accountID==1?'disabled':''} id="disabled" name="status" value="2" ${requestScope.account.statusID==2?'checked':''}>
                 <label for="disabled">Disabled</label><br><br>
+                <c:if test="${not empty requestScope.roles and requestScope.account.accountID != requestScope.sessionUser.accountID}">
+                    <input type="hidden" name="rolesShown" value="true">
+                    <label>Roles:</label>
+                    <c:forEach items="${requestScope.roles}" var="role">
+                        <input type="checkbox" id="role${role.roleID}" name="roles" value="${role.roleID}" ${requestScope.accountRoles[role.roleID] != null ? 'checked' : ''}>
+                        <label for="role${role.roleID}">${role.name}</label>
+                    </c:forEach>
+                    <br><br>
+                </c:if>
                 <input type="submit" value="Update">
             </fieldset>
         </form>
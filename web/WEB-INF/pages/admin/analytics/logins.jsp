@@ -0,0 +1,110 @@
+<%-- 
+    Document   : logins
+    Created on : 19 Oct 2026, 15:20:10
+    Author     : Faisal
+--%>
+
+<%@page contentType="text/html" pageEncoding="UTF-8"%>
+<%@taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<!DOCTYPE html>
+<html>
+    <head>
+        <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+        <title>ToDoApp - Admin - Login Analytics</title>
+        <style>
+            td.chart { width: 300px; }
+            div.bar { height: 6px; background: #4a7ab5; }
+            div.bar.active { background: #9bc27a; }
+        </style>
+    </head>
+    <body>
+        <h1>Login Analytics</h1>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
+        <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
+        <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
+        <a href="<c:url value="/app/admin/analytics/logins"/>">Logins</a>
+        <a href="<c:url value="/app/admin/reports/tasks"/>">Task Reports</a>
+        <a href="<c:url value="/app/users/profile"/>">My Profile</a>
+        <a href="<c:url value="/app/logout"/>">Logout</a>
+        <br><br>
+
+        <p>Accounts with a live session on this node: ${requestScope.activeAccounts}</p>
+
+        <h2>Last Hour</h2>
+        <table border="1">
+            <thead>
+            <th>Period</th>
+            <th>Logins</th>
+            <th></th>
+            <th>Active Users</th>
+            <th>Ended Sessions</th>
+            <th>Average Session (s)</th>
+        </thead>
+        <c:forEach var="stats" items="${requestScope.minuteStats}">
+        <tr>
+            <td><fmt:formatDate value="${stats.periodStart}" pattern="HH:mm"/></td>
+            <td>${stats.logins}</td>
+            <td class="chart">
+                <div class="bar" style="width: ${stats.logins * 100 / requestScope.minuteMax}%"></div>
+                <div class="bar active" style="width: ${stats.activeUsers * 100 / requestScope.minuteMax}%"></div>
+            </td>
+            <td>${stats.activeUsers}</td>
+            <td>${stats.endedSessions}</td>
+            <td>${stats.averageSessionSeconds}</td>
+        </tr>
+        </c:forEach>
+    </table>
+
+        <h2>Last 48 Hours</h2>
+        <table border="1">
+            <thead>
+            <th>Period</th>
+            <th>Logins</th>
+            <th></th>
+            <th>Active Users</th>
+            <th>Ended Sessions</th>
+            <th>Average Session (s)</th>
+        </thead>
+        <c:forEach var="stats" items="${requestScope.hourlyStats}">
+        <tr>
+            <td><fmt:formatDate value="${stats.periodStart}" pattern="dd MMM HH:00"/></td>
+            <td>${stats.logins}</td>
+            <td class="chart">
+                <div class="bar" style="width: ${stats.logins * 100 / requestScope.hourlyMax}%"></div>
+                <div class="bar active" style="width: ${stats.activeUsers * 100 / requestScope.hourlyMax}%"></div>
+            </td>
+            <td>${stats.activeUsers}</td>
+            <td>${stats.endedSessions}</td>
+            <td>${stats.averageSessionSeconds}</td>
+        </tr>
+        </c:forEach>
+    </table>
+
+        <h2>Last 30 Days</h2>
+        <table border="1">
+            <thead>
+            <th>Period</th>
+            <th>Logins</th>
+            <th></th>
+            <th>Active Users</th>
+            <th>Ended Sessions</th>
+            <th>Average Session (s)</th>
+        </thead>
+        <c:forEach var="stats" items="${requestScope.dailyStats}">
+        <tr>
+            <td><fmt:formatDate value="${stats.periodStart}" pattern="dd MMM yyyy"/></td>
+            <td>${stats.logins}</td>
+            <td class="chart">
+                <div class="bar" style="width: ${stats.logins * 100 / requestScope.dailyMax}%"></div>
+                <div class="bar active" style="width: ${stats.activeUsers * 100 / requestScope.dailyMax}%"></div>
+            </td>
+            <td>${stats.activeUsers}</td>
+            <td>${stats.endedSessions}</td>
+            <td>${stats.averageSessionSeconds}</td>
+        </tr>
+        </c:forEach>
+    </table>
+</body>
+</html>
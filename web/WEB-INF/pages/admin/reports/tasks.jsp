@@ -0,0 +1,54 @@
+<%-- 
+    Document   : tasks
+    Created on : 19 Oct 2026, 16:05:32
+    Author     : Faisal
+--%>
+
+<%@page contentType="text/html" pageEncoding="UTF-8"%>
+<%@taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<!DOCTYPE html>
+<html>
+    <head>
+        <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+        <title>ToDoApp - Admin - Task Reports</title>
+    </head>
+    <body>
+        <h1>Task Reports</h1>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
+        <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
+        <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
+        <a href="<c:url value="/app/admin/analytics/logins"/>">Logins</a>
+        <a href="<c:url value="/app/admin/reports/tasks"/>">Task Reports</a>
+        <a href="<c:url value="/app/users/profile"/>">My Profile</a>
+        <a href="<c:url value="/app/logout"/>">Logout</a>
+        <br><br>
+        <b>${requestScope.message}</b>
+
+        <p>${requestScope.snapshotTasks} tasks of all accounts, as of ${requestScope.refreshedAt}.</p>
+        <table border="1">
+            <thead>
+            <th>Priority</th>
+            <th>Tasks</th>
+            <th>Completed</th>
+            <th>Completion Rate (%)</th>
+            <th>Median Time to Complete (hours)</th>
+            <th>Deadlines Due</th>
+            <th>Deadlines Missed</th>
+            <th>Miss Rate (%)</th>
+        </thead>
+        <c:forEach var="report" items="${requestScope.reports}">
+        <tr>
+            <td><c:out value="${report.label}"/></td>
+            <td>${report.tasks}</td>
+            <td>${report.completedTasks}</td>
+            <td>${report.completionRate}</td>
+            <td>${report.medianHoursToComplete}</td>
+            <td>${report.tasksWithDeadline}</td>
+            <td>${report.missedDeadlines}</td>
+            <td>${report.deadlineMissRate}</td>
+        </tr>
+        </c:forEach>
+    </table>
+</body>
+</html>
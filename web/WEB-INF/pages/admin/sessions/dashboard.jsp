@@ -0,0 +1,57 @@
+<%-- 
+    Document   : dashboard
+    Created on : 19 Oct 2026, 10:12:40
+    Author     : Faisal
+--%>
+
+<%@page contentType="text/html" pageEncoding="UTF-8"%>
+<%@taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
+<!DOCTYPE html>
+<html>
+    <head>
+        <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+        <title>ToDoApp - Admin - Sessions</title>
+    </head>
+    <body>
+        <h1>Active Sessions</h1>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
+        <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a> 
+        <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
+        <a href="<c:url value="/app/admin/sessions/dashboard"/>">Sessions</a>
+        <a href="<c:url value="/app/admin/analytics/logins"/>">Logins</a>
+        <a href="<c:url value="/app/admin/reports/tasks"/>">Task Reports</a>
+        <a href="<c:url value="/app/users/profile"/>">My Profile</a>
+        <a href="<c:url value="/app/logout"/>">Logout</a>
+        <br><br>
+
+        <table border="1">
+            <thead>
+            <th>Account ID</th>
+            <th>Session</th>
+            <th>Created At</th>
+            <th>Last Accessed</th>
+            <th></th>
+        </thead>
+        <c:forEach var="accountSession" items="${requestScope.sessionsList}">
+        <tr>
+            <td>
+                <a href="${pageContext.servletContext.contextPath}/app/admin/accounts/details?id=${accountSession.accountID}">
+                    ${accountSession.accountID}
+                </a>
+            </td>
+            <td>${fn:substring(accountSession.sessionID, 0, 8)}...</td>
+            <td>${accountSession.sessionCreated}</td>
+            <td>${accountSession.lastAccessed}</td>
+            <td>
+                <form method="POST" action="<c:url value="/app/admin/sessions/revoke"/>">
+                    <input type="hidden" name="accountID" value="${accountSession.accountID}">
+                    <input type="submit" value="Revoke">
+                </form>
+            </td>
+        </tr>
+        </c:forEach>
+
+    </table>
+</body>
+</html>
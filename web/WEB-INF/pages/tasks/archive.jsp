@@ -0,0 +1,41 @@
+<%-- 
+    Document   : archive
+    Created on : 19 Oct 2026, 10:12:05
+    Author     : Faisal
+--%>
+
+<%@page contentType="text/html" pageEncoding="UTF-8"%>
+<%@taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<!DOCTYPE html>
+<html>
+    <head>
+        <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+        <title>ToDoApp - Archived Tasks</title>
+    </head>
+    <body>
+        <h1>Archived Tasks</h1>
+        <p>Hello! <c:out value="${requestScope.sessionUser.displayName}"/></p>
+        <a href="<c:url value="/app/tasks/new"/>">New Task</a>
+        <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a>
+        <a href="<c:url value="/app/users/profile"/>">My Profile</a>
+        <a href="<c:url value="/app/logout"/>">Logout</a>
+        <br><br>
+        <b>${requestScope.message}</b>
+        <p>Tasks that were done a while ago are moved here.</p>
+        <table border="1">
+            <thead><th>Task ID</th><th>Details</th><th>Created At</th><th>Deadline</th>
+            <th>Completed</th><th>Priority</th><th>Tags</th></thead>
+            <c:forEach var="task" items="${requestScope.archivedTasks}">
+            <tr>
+                <td>${task.taskID}</td>
+                <td><c:out value="${task.details}"/></td>
+                <td>${task.createdAt}</td>
+                <td>${task.deadline}</td>
+                <td>${task.lastUpdated}</td>
+                <td><c:out value="${applicationScope.taskPriorityLabels[task.priorityID]}"/></td>
+                <td><c:forEach var="tag" items="${task.tags}" varStatus="loop"><c:out value="${tag}"/>${loop.last?'':' '}</c:forEach></td>
+            </tr>
+            </c:forEach>
+        </table>
+    </body>
+</html>
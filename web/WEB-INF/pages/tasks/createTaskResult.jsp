@@ -14,7 +14,7 @@
     </head>
     <body>
         <h1>Create New Task</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/tasks/new"/>">New Task</a> 
         <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a>  
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
@@ -25,7 +25,7 @@
         <form method="POST" action="<c:url value="/app/tasks/create"/>">
             <fieldset>
                 <legend>Task Details</legend>
-                <input type="hidden" name="accountID" value="${sessionScope.account.accountID}">
+                <input type="hidden" name="accountID" value="${requestScope.sessionUser.accountID}">
                 <label for="details">What do you want to accomplish?</label>
                 <br><br>
                 <textarea name="details" rows="4" columns="64" placeholder="256 characters max." maxlength="256"></textarea>
@@ -40,15 +40,17 @@
                        value="<fmt:formatDate value="${tomorrow}" pattern="HH:mm:ss"/>"
                 min="<fmt:formatDate value="${tomorrow}" pattern="HH:mm:ss"/>"/>
                 <br><br>
-                <label for="priority">Choose priority:</label>
-                <select id="priority" required>
+                <label for="priorityID">Choose priority:</label>
+                <select id="priorityID" name="priorityID" required>
                     <option value="">None</option>
-                    <option value="1">Important & Urgent</option>
-                    <option value="2">Important but Not Urgent</option>
-                    <option value="3">Not Important but Urgent</option>
-                    <option value="4">Not Important & Not Urgent</option>
+                    <c:forEach var="priority" items="${applicationScope.taskPriorities}">
+                        <option value="${priority.ID}"><c:out value="${priority.label}"/></option>
+                    </c:forEach>
                 </select>
                 <br><br>
+                <label for="tags">Tags:</label>
+                <input id="tags" name="tags" type="text" placeholder="work urgent" maxlength="600">
+                <br><br>
                 <input type="submit" value="Create">
             </fieldset>
         </form>
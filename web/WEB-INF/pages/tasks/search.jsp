@@ -0,0 +1,78 @@
+<%--
+    Document   : search
+    Created on : 19 Oct 2026, 15:20:41
+    Author     : Faisal
+--%>
+
+<%@page contentType="text/html" pageEncoding="UTF-8"%>
+<%@taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<!DOCTYPE html>
+<html>
+    <head>
+        <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+        <title>ToDoApp - Search Tasks</title>
+    </head>
+    <body>
+        <h1>Search Tasks</h1>
+        <p>Hello! <c:out value="${requestScope.sessionUser.displayName}"/></p>
+        <a href="<c:url value="/app/tasks/new"/>">New Task</a>
+        <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a>
+        <a href="<c:url value="/app/users/profile"/>">My Profile</a>
+        <a href="<c:url value="/app/logout"/>">Logout</a>
+        <br><br>
+        <b>${requestScope.message}</b>
+        <form method="GET" action="<c:url value="/app/tasks/search"/>">
+            <input type="search" id="q" name="q" value="<c:out value="${requestScope.query}"/>" autocomplete="off" autofocus>
+            <input type="submit" value="Search">
+        </form>
+        <br>
+        <table id="results" border="1">
+            <thead><th>Task ID</th><th>Details</th><th>Deadline</th><th>Priority</th><th>Status</th></thead>
+            <tbody>
+            <c:forEach var="task" items="${requestScope.tasks}">
+            <tr>
+                <td><a href="details?id=${task.taskID}">${task.taskID}</a></td>
+                <td><c:out value="${task.details}"/></td>
+                <td>${task.deadline}</td>
+                <td><c:out value="${applicationScope.taskPriorityLabels[task.priorityID]}"/></td>
+                <td><c:out value="${applicationScope.taskStatusLabels[task.statusID]}"/></td>
+            </tr>
+            </c:forEach>
+            </tbody>
+        </table>
+        <script>
+            var priorities = [<c:forEach var="label" items="${applicationScope.taskPriorityLabels}" varStatus="loop">"<c:out value="${label}"/>"${loop.last ? '' : ','}</c:forEach>];
+            var statuses = [<c:forEach var="label" items="${applicationScope.taskStatusLabels}" varStatus="loop">"<c:out value="${label}"/>"${loop.last ? '' : ','}</c:forEach>];
+            var input = document.getElementById("q");
+            var timer = null;
+            var latest = 0;
+            input.addEventListener("input", function () {
+                clearTimeout(timer);
+                timer = setTimeout(function () {
+                    var sent = ++latest;
+                    fetch("../api/tasks/search?q=" + encodeURIComponent(input.value), {headers: {"Accept": "application/json"}})
+                        .then(function (response) { return response.json(); })
+                        .then(function (result) {
+                            //Answers can arrive out of order; only the last one counts.
+                            if (sent !== latest || !result.tasks) {
+                                return;
+                            }
+                            var body = document.getElementById("results").tBodies[0];
+                            body.innerHTML = "";
+                            result.tasks.forEach(function (task) {
+                                var row = body.insertRow();
+                                var link = document.createElement("a");
+                                link.href = "details?id=" + task.taskID;
+                                link.textContent = task.taskID;
+                                row.insertCell().appendChild(link);
+                                row.insertCell().textContent = task.details;
+                                row.insertCell().textContent = task.deadline ? new Date(task.deadline).toLocaleString() : "";
+                                row.insertCell().innerHTML = priorities[task.priorityID] || "";
+                                row.insertCell().innerHTML = statuses[task.statusID] || "";
+                            });
+                        });
+                }, 150);
+            });
+        </script>
+    </body>
+</html>
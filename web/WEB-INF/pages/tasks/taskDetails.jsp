@@ -16,7 +16,7 @@
     </head>
     <body>
         <h1>Task Details</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/tasks/new"/>">New Task</a>
         <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a>  
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
@@ -72,23 +72,33 @@
                 <br><br>
                 <label for="priorityID">Task priority:</label>
                 <select id="priorityID" name="priorityID" required>                
-                    <option value="1" ${requestScope.task.priorityID==1?'selected':''}>Important & Urgent</option>
-                    <option value="2" ${requestScope.task.priorityID==2?'selected':''}>Important but Not Urgent</option>
-                    <option value="3" ${requestScope.task.priorityID==3?'selected':''}>Not Important but Urgent</option>
-                    <option value="4" ${requestScope.task.priorityID==4?'selected':''}>Not Important & Not Urgent</option>
+                    <c:forEach var="priority" items="${applicationScope.taskPriorities}">
+                        <option value="${priority.ID}" ${requestScope.task.priorityID==priority.ID?'selected':''}><c:out value="${priority.label}"/></option>
+                    </c:forEach>
                 </select>
                 <br><br>
+                <%-- Without the field, an update keeps the tags, so leave it out if they couldn't be read. --%>
+                <c:if test="${requestScope.task.tags != null}">
+                    <label for="tags">Tags:</label>
+                    <input id="tags" name="tags" type="text" placeholder="work urgent" maxlength="600"
+                           value="<c:forEach var="tag" items="${requestScope.task.tags}" varStatus="loop"><c:out value="${tag}"/>${loop.last?'':' '}</c:forEach>">
+                    <br><br>
+                </c:if>
                 <label for="statusID">Task status:</label>
-                <input type="radio" id="1" name="statusID" value="1" ${requestScope.task.statusID==1?'checked':''}>
-                <label for="1">To Do</label>
-                <input type="radio" id="2" name="statusID" value="2" ${requestScope.task.statusID==2?'checked':''}>
-                <label for="2">In Progress</label>
-                <input type="radio" id="3" name="statusID" value="3" ${requestScope.task.statusID==3?'checked':''}>
-                <label for="3">Done</label>
+                <c:forEach var="status" items="${applicationScope.taskStatuses}">
+                    <input type="radio" id="status${status.ID}" name="statusID" value="${status.ID}" ${requestScope.task.statusID==status.ID?'checked':''}>
+                    <label for="status${status.ID}"><c:out value="${status.label}"/></label>
+                </c:forEach>
                 <br><br>
                 <input type="submit" value="Update">
 
             </fieldset>
         </form>
+        <c:if test="${requestScope.task != null}">
+            <form method="POST" action="<c:url value="/app/tasks/delete"/>">
+                <input type="hidden" name="taskID" value="${requestScope.task.taskID}">
+                <input type="submit" value="Delete">
+            </form>
+        </c:if>
     </body>
 </html>
@@ -15,7 +15,7 @@
     </head>
     <body>
         <h1>Task Details</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/tasks/new"/>">New Task</a>
         <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a>  
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
@@ -62,19 +62,16 @@
                 <br><br>
                 <label for="priorityID">Task priority:</label>
                 <select id="priorityID" name="priorityID" required>                
-                    <option value="1" ${requestScope.task.priorityID==1?'selected':''}>Important & Urgent</option>
-                    <option value="2" ${requestScope.task.priorityID==2?'selected':''}>Important but Not Urgent</option>
-                    <option value="3" ${requestScope.task.priorityID==3?'selected':''}>Not Important but Urgent</option>
-                    <option value="4" ${requestScope.task.priorityID==4?'selected':''}>Not Important & Not Urgent</option>
+                    <c:forEach var="priority" items="${applicationScope.taskPriorities}">
+                        <option value="${priority.ID}" ${requestScope.task.priorityID==priority.ID?'selected':''}><c:out value="${priority.label}"/></option>
+                    </c:forEach>
                 </select>
                 <br><br>
-                <label for="status">Task status:</label>
-                <input type="radio" name="status" value="enabled" ${requestScope.task.statusID==1?'checked':''}>
-                <label for="enabled">To Do</label>
-                <input type="radio" name="status" value="disabled" ${requestScope.task.statusID==2?'checked':''}>
-                <label for="disabled">In Progress</label>
-                <input type="radio" name="status" value="disabled" ${requestScope.task.statusID==3?'checked':''}>
-                <label for="disabled">Done</label>
+                <label for="statusID">Task status:</label>
+                <c:forEach var="status" items="${applicationScope.taskStatuses}">
+                    <input type="radio" id="status${status.ID}" name="statusID" value="${status.ID}" ${requestScope.task.statusID==status.ID?'checked':''}>
+                    <label for="status${status.ID}"><c:out value="${status.label}"/></label>
+                </c:forEach>
                 <br><br>
                 <input type="submit" value="Update">
             </fieldset>
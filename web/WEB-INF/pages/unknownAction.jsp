@@ -14,9 +14,9 @@
     </head>
     <body>
         <h1>Unknown request! :(</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <c:choose>
-            <c:when test="${sessionScope.account.accountID==1}">                
+            <c:when test="${requestScope.sessionUser.admin}">                
                 <a href="<c:url value="/app/admin/accounts/dashboard"/>">Dashboard</a>
                 <a href="<c:url value="/app/admin/accounts/new"/>">New Account</a>
                 <a href="<c:url value="/app/users/profile"/>">My Profile</a>
@@ -14,10 +14,10 @@
     </head>
     <body>
         <h1>Your Profile</h1>
-        <p>Hello! ${sessionScope.account.firstName}</p>
+        <p>Hello! ${requestScope.sessionUser.displayName}</p>
         <a href="<c:url value="/app/tasks/dashboard"/>">Dashboard</a> 
-        <a href="<c:url value="${sessionScope.account.accountID==1?'/app/admin/accounts/new':'/app/tasks/new'}"/>">
-            ${sessionScope.account.accountID==1?'New Account':'New Task'}</a>               
+        <a href="<c:url value="${requestScope.sessionUser.admin?'/app/admin/accounts/new':'/app/tasks/new'}"/>">
+            ${requestScope.sessionUser.admin?'New Account':'New Task'}</a>               
         <a href="<c:url value="/app/users/profile"/>">My Profile</a>
         <a href="<c:url value="/app/logout"/>">Logout</a>
         <br><br>
@@ -25,14 +25,14 @@
         <form method="POST" action="<c:url value="/app/users/update"/>">  
             <fieldset>
                 <legend>New account details</legend>
-                <label for="accountID">Account ID:</label>${sessionScope.account.accountID}<br><br>            
-                <label for="username">Username:</label>${sessionScope.account.username}<br><br>    
-                <label>Created at: </label>${sessionScope.account.createdAt}<br><br>
-                <label>Last login at: </label>${sessionScope.accountPreviousSession.sessionCreated}<br><br>
+                <label for="accountID">Account ID:</label>${requestScope.account.accountID}<br><br>            
+                <label for="username">Username:</label>${requestScope.account.username}<br><br>    
+                <label>Created at: </label>${requestScope.account.createdAt}<br><br>
+                <label>Last login at: </label>${requestScope.accountPreviousSession.sessionCreated}<br><br>
                 <label for="firstName">First name:</label>
-                <input type="text" id="firstName" name="firstName" value="${sessionScope.account.firstName}"><br><br>
+                <input type="text" id="firstName" name="firstName" value="${requestScope.account.firstName}"><br><br>
                 <label for="lastName">Last name:</label>
-                <input type="text" id="lastName" name="lastName" value="${sessionScope.account.lastName}"><br><br>            
+                <input type="text" id="lastName" name="lastName" value="${requestScope.account.lastName}"><br><br>            
                 <label for="password">New password:</label>
                 <input type="password" name="password" value=""><br><br>            
                 <input type="submit" value="Update">